@@ -0,0 +1,63 @@
+package dk.teamonline.benchmark;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import dk.teamonline.benchmark.fixture.OverloadedController;
+import dk.teamonline.domain.EndpointMethod;
+import dk.teamonline.domain.WebController;
+import dk.teamonline.resolvers.MethodParamNamesResolver;
+import dk.teamonline.utils.RequestMappingUtils;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Fixture data shared by benchmarks: controller of fixture package, its endpoints and parsed sources.
+ */
+class BenchmarkFixtures {
+    static final String FIXTURE_PACKAGE = OverloadedController.class.getPackageName();
+    static final Class<?> CONTROLLER = OverloadedController.class;
+
+    private BenchmarkFixtures() {
+        throw new UnsupportedOperationException("Utils class is not supposed to have instances");
+    }
+
+    static Method[] getDeclaredMethods() {
+        return CONTROLLER.getDeclaredMethods();
+    }
+
+    static List<Method> getEndpointMethods() {
+        return Arrays.stream(getDeclaredMethods())
+            .filter(method -> RequestMappingUtils.getMappingInfo(method).isPresent())
+            .filter(WebController.HAS_USERTRACKING)
+            .collect(Collectors.toList());
+    }
+
+    static List<EndpointMethod> createEndpoints(MethodParamNamesResolver namesResolver) {
+        String controllerUrl = new WebController(CONTROLLER).getRelativeUrl();
+        return getEndpointMethods().stream()
+            .map(method -> new EndpointMethod(method, controllerUrl, namesResolver))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @return builder with parsed source of fixture controller, sources of fixtures are packaged as resources
+     */
+    static JavaProjectBuilder parseSources() {
+        String sourceName = CONTROLLER.getName().replace('.', '/') + ".java";
+        JavaProjectBuilder builder = new JavaProjectBuilder();
+        try (Reader source = new InputStreamReader(BenchmarkFixtures.class.getClassLoader().getResourceAsStream(sourceName),
+            StandardCharsets.UTF_8)) {
+            builder.addSource(source);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return builder;
+    }
+}
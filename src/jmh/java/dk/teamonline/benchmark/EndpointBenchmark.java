@@ -0,0 +1,53 @@
+package dk.teamonline.benchmark;
+
+import dk.teamonline.UserTrackVerifier;
+import dk.teamonline.domain.EndpointMethod;
+import dk.teamonline.resolvers.BytecodeMethodParamNamesResolver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Set up and verification of all endpoints of controller. Names resolver is warmed up, so only endpoint work is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EndpointBenchmark {
+    private BytecodeMethodParamNamesResolver namesResolver;
+    private List<EndpointMethod> endpoints;
+
+    @Setup
+    public void setUp() {
+        namesResolver = new BytecodeMethodParamNamesResolver();
+        endpoints = BenchmarkFixtures.createEndpoints(namesResolver);
+    }
+
+    @Benchmark
+    public void createEndpoints(Blackhole blackhole) {
+        blackhole.consume(BenchmarkFixtures.createEndpoints(namesResolver));
+    }
+
+    @Benchmark
+    public void verify(Blackhole blackhole) {
+        for (EndpointMethod endpoint : endpoints) {
+            UserTrackVerifier verifier = new UserTrackVerifier(endpoint);
+            verifier.verify();
+            blackhole.consume(verifier.getErrorCollector());
+        }
+    }
+
+    @Benchmark
+    public void verifyAndReport(Blackhole blackhole) {
+        for (EndpointMethod endpoint : endpoints) {
+            UserTrackVerifier verifier = new UserTrackVerifier(endpoint);
+            verifier.verify();
+            blackhole.consume(verifier.toReport());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package dk.teamonline.benchmark;
+
+import dk.teamonline.cache.AnalysisCache;
+import dk.teamonline.domain.ControllerReport;
+import dk.teamonline.domain.EndpointReport;
+import dk.teamonline.domain.ModuleSummary;
+import dk.teamonline.pipeline.AnalysisPipeline;
+import dk.teamonline.pipeline.ClasspathScan;
+import dk.teamonline.pipeline.PackageScan;
+import dk.teamonline.pipeline.PipelineSettings;
+import dk.teamonline.report.ReportSink;
+import dk.teamonline.resolvers.BytecodeMethodParamNamesResolver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full module scan: classpath scan, endpoints setup, verification and report of fixture package.
+ * Every invocation starts from scratch (new scan and resolvers), the same as separate analyzer run on warm JVM.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class ModuleScanBenchmark {
+    @Param({"1", "4"})
+    public int verifyThreads;
+
+    @Benchmark
+    public ModuleSummary scanModule(Blackhole blackhole) {
+        List<String> packagesToScan = List.of(BenchmarkFixtures.FIXTURE_PACKAGE);
+        ClasspathScan classpathScan = new ClasspathScan(packagesToScan);
+        BytecodeMethodParamNamesResolver namesResolver = new BytecodeMethodParamNamesResolver();
+        ModuleSummary moduleSummary = new ModuleSummary("benchmark");
+        PipelineSettings settings = new PipelineSettings(false, verifyThreads, false, 256);
+        new AnalysisPipeline(packageToScan -> new PackageScan(packageToScan, classpathScan.getControllerClasses(packageToScan), namesResolver),
+            moduleSummary, AnalysisCache.disabled(), new BlackholeReportSink(blackhole), settings)
+            .run(packagesToScan);
+        return moduleSummary;
+    }
+
+    /**
+     * Consumes report items, so report rendering doesn't depend on logging configuration.
+     */
+    private static class BlackholeReportSink implements ReportSink {
+        private final Blackhole blackhole;
+
+        private BlackholeReportSink(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void packageStarted(String packageName) {
+            blackhole.consume(packageName);
+        }
+
+        @Override
+        public void packageFailed(String packageName, Throwable failure) {
+            throw new IllegalStateException("Fixture package can't be scanned: " + packageName, failure);
+        }
+
+        @Override
+        public void controller(ControllerReport controller) {
+            blackhole.consume(controller);
+        }
+
+        @Override
+        public void controllerFailed(String controllerName, String packageName, Throwable failure) {
+            throw new IllegalStateException("Fixture controller can't be set up: " + controllerName, failure);
+        }
+
+        @Override
+        public void endpoint(EndpointReport endpoint) {
+            endpoint.getFindings().forEach(finding -> blackhole.consume(finding.getMessage()));
+        }
+
+        @Override
+        public void endpointFailed(Throwable failure) {
+            throw new IllegalStateException("Fixture endpoint can't be verified", failure);
+        }
+
+        @Override
+        public void moduleSummary(ModuleSummary moduleSummary) {
+            blackhole.consume(moduleSummary);
+        }
+
+        @Override
+        public void close() {
+            // nothing to flush
+        }
+    }
+}
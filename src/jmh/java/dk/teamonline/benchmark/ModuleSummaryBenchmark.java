@@ -0,0 +1,77 @@
+package dk.teamonline.benchmark;
+
+import dk.teamonline.UserTrackVerifier;
+import dk.teamonline.domain.EndpointIndex;
+import dk.teamonline.domain.EndpointMethod;
+import dk.teamonline.domain.EndpointReport;
+import dk.teamonline.domain.ModuleSummary;
+import dk.teamonline.resolvers.BytecodeMethodParamNamesResolver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merge of verified endpoints into module summary, lookup in its endpoint index and printing of summary.
+ * Print goes to configured logger, so logging should be directed to file or be off to measure summary itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModuleSummaryBenchmark {
+    @Param({"1", "100"})
+    public int controllers;
+
+    private List<EndpointReport> endpointReports;
+    private List<Set<Class<?>>> trackedEntities;
+    private List<Map<? extends Enum<?>, Integer>> findingCounts;
+    private ModuleSummary mergedSummary;
+
+    @Setup
+    public void setUp() {
+        endpointReports = new ArrayList<>();
+        trackedEntities = new ArrayList<>();
+        findingCounts = new ArrayList<>();
+        BytecodeMethodParamNamesResolver namesResolver = new BytecodeMethodParamNamesResolver();
+        for (int i = 0; i < controllers; i++) {
+            for (EndpointMethod endpoint : BenchmarkFixtures.createEndpoints(namesResolver)) {
+                UserTrackVerifier verifier = new UserTrackVerifier(endpoint);
+                verifier.verify();
+                EndpointReport endpointReport = verifier.toReport();
+                endpointReports.add(endpointReport);
+                trackedEntities.add(endpointReport.getTrackedEntities(BenchmarkFixtures.class.getClassLoader()));
+                findingCounts.add(verifier.getErrorCollector().getErrorCounts());
+            }
+        }
+        mergedSummary = merge();
+    }
+
+    @Benchmark
+    public ModuleSummary merge() {
+        ModuleSummary summary = new ModuleSummary("benchmark");
+        for (int i = 0; i < endpointReports.size(); i++) {
+            summary.mergeEndpoint(endpointReports.get(i), trackedEntities.get(i));
+        }
+        findingCounts.forEach(summary::mergeFindingCounts);
+        return summary;
+    }
+
+    @Benchmark
+    public void findByTable(Blackhole blackhole) {
+        EndpointIndex endpointIndex = mergedSummary.getEndpointIndex();
+        endpointIndex.getTableNames().values().forEach(tableName -> blackhole.consume(endpointIndex.findByTable(tableName)));
+    }
+
+    @Benchmark
+    public void print(Blackhole blackhole) {
+        mergedSummary.printModuleSummary();
+        blackhole.consume(mergedSummary);
+    }
+}
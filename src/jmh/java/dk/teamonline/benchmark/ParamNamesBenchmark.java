@@ -0,0 +1,69 @@
+package dk.teamonline.benchmark;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import dk.teamonline.resolvers.BytecodeMethodParamNamesResolver;
+import dk.teamonline.resolvers.ThoughtworksMethodParamNamesResolver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parameter names resolution of all methods of overload-heavy controller:
+ * lookups in already indexed class and indexing of class by fresh resolver.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParamNamesBenchmark {
+    private JavaProjectBuilder sources;
+    private Method[] methods;
+    private ThoughtworksMethodParamNamesResolver indexedSourceResolver;
+    private BytecodeMethodParamNamesResolver indexedBytecodeResolver;
+
+    @Setup
+    public void setUp() {
+        sources = BenchmarkFixtures.parseSources();
+        methods = BenchmarkFixtures.getDeclaredMethods();
+        indexedSourceResolver = new ThoughtworksMethodParamNamesResolver(sources);
+        indexedBytecodeResolver = new BytecodeMethodParamNamesResolver();
+        for (Method method : methods) {
+            indexedSourceResolver.getParameterNames(method);
+            indexedBytecodeResolver.getParameterNames(method);
+        }
+    }
+
+    @Benchmark
+    public void sourceLookup(Blackhole blackhole) {
+        for (Method method : methods) {
+            blackhole.consume(indexedSourceResolver.getParameterNames(method));
+        }
+    }
+
+    @Benchmark
+    public void sourceIndexing(Blackhole blackhole) {
+        ThoughtworksMethodParamNamesResolver resolver = new ThoughtworksMethodParamNamesResolver(sources);
+        for (Method method : methods) {
+            blackhole.consume(resolver.getParameterNames(method));
+        }
+    }
+
+    @Benchmark
+    public void bytecodeLookup(Blackhole blackhole) {
+        for (Method method : methods) {
+            blackhole.consume(indexedBytecodeResolver.getParameterNames(method));
+        }
+    }
+
+    @Benchmark
+    public void bytecodeIndexing(Blackhole blackhole) {
+        BytecodeMethodParamNamesResolver resolver = new BytecodeMethodParamNamesResolver();
+        for (Method method : methods) {
+            blackhole.consume(resolver.getParameterNames(method));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package dk.teamonline.benchmark;
+
+import dk.teamonline.utils.RequestMappingUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request mapping resolution of all methods of controller, the way endpoints discovery and setup query it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestMappingBenchmark {
+    private Method[] methods;
+
+    @Setup
+    public void setUp() {
+        methods = BenchmarkFixtures.getDeclaredMethods();
+    }
+
+    @Benchmark
+    public void methodRelativeUrl(Blackhole blackhole) {
+        for (Method method : methods) {
+            blackhole.consume(RequestMappingUtils.getMethodRelativeUrl(method));
+        }
+    }
+
+    @Benchmark
+    public void httpMethods(Blackhole blackhole) {
+        for (Method method : methods) {
+            blackhole.consume(RequestMappingUtils.getHttpMethods(method));
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package dk.teamonline.benchmark.corpus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.tools.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes, compiles and packages synthetic module of {@link CorpusSpec} shape.
+ *
+ * Module is laid out the way analyzer expects it: sources in {rootDir}/{moduleName}/ui/src/main/java,
+ * classes packaged into {rootDir}/{moduleName}/{moduleName}-ui.jar, controllers in package dk.teamonline.{moduleName}.ui.
+ * Every endpoint has at most 1 deliberate error or warning, so findings analyzer has to report are known in advance.
+ */
+public class CorpusGenerator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CorpusGenerator.class);
+    private static final String MODULE_TYPE = "ui";
+    private static final int COMPILE_BATCH_SIZE = 500;
+    private static final List<String> VALID_ACTIONS = List.of("SHOW", "SEARCH", "EDIT", "DELETE", "SAVE", "INSERT");
+    private static final Map<String, String> ACTION_MAPPINGS = Map.of(
+        "SHOW", "GetMapping",
+        "SEARCH", "GetMapping",
+        "EDIT", "PutMapping",
+        "DELETE", "DeleteMapping",
+        "SAVE", "PostMapping",
+        "INSERT", "PostMapping"
+    );
+
+    /**
+     * Deliberate defects of endpoint and finding code analyzer is supposed to report for it.
+     */
+    private enum Defect {
+        NONE(null),
+        INCORRECT_TYPE("INCORRECT_TYPE"),
+        UNKNOWN_PROPERTY("INCORRECT_EXPRESSION"),
+        UNKNOWN_PARAMETER("INCORRECT_EXPRESSION"),
+        MISSED_USER_TRACKING("MISSED_USER_TRACKING"),
+        MISSED_PARAMETERS("MISSED_PARAMETERS"),
+        REDUNDANT_PARAMETERS("REDUNDANT_PARAMETERS"),
+        INCORRECT_ACTION("INCORRECT_ACTION"),
+        REDUNDANT_PARAMETER("REDUNDANT_PARAMETER");
+
+        private static final List<Defect> ERRORS = List.of(INCORRECT_TYPE, UNKNOWN_PROPERTY, UNKNOWN_PARAMETER,
+            MISSED_USER_TRACKING, MISSED_PARAMETERS, REDUNDANT_PARAMETERS);
+        private static final List<Defect> WARNINGS = List.of(INCORRECT_ACTION, REDUNDANT_PARAMETER);
+
+        private final String findingCode;
+
+        Defect(String findingCode) {
+            this.findingCode = findingCode;
+        }
+    }
+
+    private final CorpusSpec spec;
+
+    public CorpusGenerator(CorpusSpec spec) {
+        this.spec = spec;
+    }
+
+    public static void main(String[] args) {
+        Path rootDir = Path.of(System.getProperty("corpus.dir", "build/corpus"));
+        String moduleName = System.getProperty("corpus.module", "synthetic");
+        GeneratedModule module = new CorpusGenerator(CorpusSpec.fromSystemProperties()).generate(rootDir, moduleName);
+        LOGGER.info("Module {} with {} endpoints is packaged into {}, expected findings: {}",
+            moduleName, module.getEndpoints(), module.getJar(), module.getExpectedFindings());
+    }
+
+    public GeneratedModule generate(Path rootDir, String moduleName) {
+        Path moduleDir = rootDir.resolve(moduleName);
+        String packageName = String.join(".", "dk.teamonline", moduleName, MODULE_TYPE);
+        Path sourceDir = moduleDir.resolve(MODULE_TYPE).resolve("src/main/java");
+        Path packageDir = sourceDir.resolve(packageName.replace('.', '/'));
+        Path classesDir = moduleDir.resolve(MODULE_TYPE).resolve("build/classes");
+        Path jar = moduleDir.resolve(moduleName + '-' + MODULE_TYPE + ".jar");
+        Random random = new Random(spec.getSeed());
+        SortedMap<String, Integer> expectedFindings = new TreeMap<>();
+        try {
+            deleteRecursively(moduleDir);
+            Files.createDirectories(packageDir);
+            List<Path> sources = new ArrayList<>();
+            sources.add(write(packageDir, "SyntheticBaseController", "package " + packageName + ";\n\n"
+                + "public abstract class SyntheticBaseController {\n}\n"));
+            for (int i = 0; i < spec.getEntities(); i++) {
+                sources.add(write(packageDir, "Entity" + i, entitySource(packageName, i)));
+                sources.add(write(packageDir, "Command" + i, commandSource(packageName, i)));
+            }
+            for (int i = 0; i < spec.getControllers(); i++) {
+                String controllerName = "SyntheticController" + i;
+                sources.add(write(packageDir, controllerName, controllerSource(packageName, controllerName, i, random, expectedFindings)));
+            }
+            compile(sources, classesDir);
+            packageJar(classesDir, jar);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Synthetic module " + moduleName + " can't be generated", e);
+        }
+        return new GeneratedModule(moduleName, rootDir, jar, spec.getEndpoints(), expectedFindings);
+    }
+
+    private String entitySource(String packageName, int index) {
+        return "package " + packageName + ";\n\n"
+            + "import javax.persistence.Entity;\n"
+            + "import javax.persistence.Table;\n\n"
+            + "@Entity\n"
+            + "@Table(name = \"SYNTHETIC_ENTITY_" + index + "\")\n"
+            + "public class Entity" + index + " {\n"
+            + "    private Long id;\n"
+            + "    private Entity" + (index + 1) % spec.getEntities() + " parent;\n"
+            + "}\n";
+    }
+
+    private String commandSource(String packageName, int index) {
+        return "package " + packageName + ";\n\n"
+            + "public class Command" + index + " {\n"
+            + "    private Entity" + index + " entity;\n\n"
+            + "    public Entity" + index + " getEntity() {\n"
+            + "        return entity;\n"
+            + "    }\n"
+            + "}\n";
+    }
+
+    private String controllerSource(String packageName, String controllerName, int controllerIndex, Random random,
+                                    Map<String, Integer> expectedFindings) {
+        StringBuilder source = new StringBuilder()
+            .append("package ").append(packageName).append(";\n\n")
+            .append("import dk.eg.sensum.userTrack.domain.UserTrackAction;\n")
+            .append("import dk.eg.sensum.userTrack.domain.UserTrackParameter;\n")
+            .append("import dk.eg.sensum.userTrack.domain.UserTracking;\n")
+            .append("import org.springframework.stereotype.Controller;\n")
+            .append("import org.springframework.web.bind.annotation.*;\n\n")
+            .append("@Controller\n")
+            .append("@RequestMapping(\"/synthetic").append(controllerIndex).append("\")\n")
+            .append("public class ").append(controllerName).append(" extends SyntheticBaseController {\n");
+        Map<String, Integer> overloads = new HashMap<>();
+        int overloadGroups = Math.max(1, spec.getEndpointsPerController() / 4);
+        for (int i = 0; i < spec.getEndpointsPerController(); i++) {
+            Defect defect = nextDefect(random);
+            if (defect.findingCode != null) {
+                expectedFindings.merge(defect.findingCode, 1, Integer::sum);
+            }
+            String methodName = random.nextDouble() < spec.getOverloadRate()
+                ? "overloaded" + random.nextInt(overloadGroups)
+                : "endpoint" + i;
+            // overloads of the same name differ by amount of extra parameters
+            int extraParameters = overloads.merge(methodName, 1, Integer::sum) - 1;
+            appendEndpoint(source, i, methodName, extraParameters, defect, random);
+        }
+        return source.append("}\n").toString();
+    }
+
+    private Defect nextDefect(Random random) {
+        double roll = random.nextDouble();
+        if (roll < spec.getErrorRate()) {
+            return Defect.ERRORS.get(random.nextInt(Defect.ERRORS.size()));
+        } else if (roll < spec.getErrorRate() + spec.getWarningRate()) {
+            return Defect.WARNINGS.get(random.nextInt(Defect.WARNINGS.size()));
+        }
+        return Defect.NONE;
+    }
+
+    private void appendEndpoint(StringBuilder source, int index, String methodName, int extraParameters, Defect defect, Random random) {
+        String action = VALID_ACTIONS.get(random.nextInt(VALID_ACTIONS.size()));
+        String mapping = ACTION_MAPPINGS.get(action);
+        int entity = random.nextInt(spec.getEntities());
+        int depth = random.nextInt(spec.getMaxDepth() + 1);
+        List<String> parameters = new ArrayList<>();
+        List<String> userTrackParameters = new ArrayList<>();
+        if (depth == 0) {
+            parameters.add("@PathVariable Long id");
+            userTrackParameters.add(userTrackParameter("id", "Entity" + entity));
+        } else {
+            parameters.add("@RequestBody Command" + entity + " dto");
+            // dto.entity is of Entity{entity}, every next parent is of next entity
+            String expression = "dto.entity" + ".parent".repeat(depth - 1);
+            userTrackParameters.add(userTrackParameter(expression, "Entity" + (entity + depth - 1) % spec.getEntities()));
+        }
+        switch (defect) {
+            case INCORRECT_TYPE:
+                userTrackParameters.set(0, userTrackParameters.get(0).replaceFirst("type = \\w+", "type = String"));
+                break;
+            case UNKNOWN_PROPERTY:
+                parameters.set(0, "@RequestBody Command" + entity + " dto");
+                userTrackParameters.set(0, userTrackParameter("dto.entity.missing", "Entity" + entity));
+                break;
+            case UNKNOWN_PARAMETER:
+                userTrackParameters.set(0, userTrackParameter("unknown", "Entity" + entity));
+                break;
+            case MISSED_PARAMETERS:
+                userTrackParameters.clear();
+                break;
+            case REDUNDANT_PARAMETERS:
+                action = "IGNORE";
+                break;
+            case INCORRECT_ACTION:
+                action = "EDIT";
+                mapping = "PostMapping";
+                break;
+            case REDUNDANT_PARAMETER:
+                parameters.add("@RequestParam Long ownerId");
+                parameters.add("@RequestParam Long relativeId");
+                userTrackParameters.add(userTrackParameter("ownerId", "Entity" + entity));
+                userTrackParameters.add(userTrackParameter("relativeId", "Entity" + entity));
+                break;
+            default:
+                break;
+        }
+        for (int i = 0; i < extraParameters; i++) {
+            parameters.add("String extra" + i);
+        }
+        source.append("\n    @").append(mapping).append("(\"/endpoint").append(index).append("\")\n");
+        if (defect != Defect.MISSED_USER_TRACKING) {
+            source.append("    @UserTracking(action = UserTrackAction.").append(action)
+                .append(", parameters = {").append(String.join(", ", userTrackParameters)).append("})\n");
+        }
+        source.append("    public String ").append(methodName).append('(').append(String.join(", ", parameters)).append(") {\n")
+            .append("        return null;\n")
+            .append("    }\n");
+    }
+
+    private static String userTrackParameter(String expression, String type) {
+        return "@UserTrackParameter(expression = \"" + expression + "\", type = " + type + ".class)";
+    }
+
+    private static Path write(Path packageDir, String className, String source) throws IOException {
+        return Files.writeString(packageDir.resolve(className + ".java"), source, StandardCharsets.UTF_8);
+    }
+
+    // sources are compiled in batches, so memory of compiler doesn't grow with module
+    private static void compile(List<Path> sources, Path classesDir) throws IOException {
+        Files.createDirectories(classesDir);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Java compiler is not available, synthetic module has to be generated on JDK");
+        }
+        String classpath = System.getProperty("java.class.path") + File.pathSeparator + classesDir;
+        List<String> options = List.of("-g", "-proc:none", "-nowarn", "-classpath", classpath, "-d", classesDir.toString());
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            for (int from = 0; from < sources.size(); from += COMPILE_BATCH_SIZE) {
+                List<Path> batch = sources.subList(from, Math.min(from + COMPILE_BATCH_SIZE, sources.size()));
+                DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+                boolean isCompiled = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromPaths(batch)).call();
+                if (!isCompiled) {
+                    throw new IllegalStateException("Synthetic sources can't be compiled:\n" + diagnostics.getDiagnostics().stream()
+                        .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                        .map(Object::toString)
+                        .collect(Collectors.joining("\n")));
+                }
+            }
+        }
+    }
+
+    private static void packageJar(Path classesDir, Path jar) throws IOException {
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+             Stream<Path> classFiles = Files.walk(classesDir)) {
+            for (Path path : (Iterable<Path>) classFiles.filter(path -> !path.equals(classesDir))::iterator) {
+                String name = classesDir.relativize(path).toString().replace(File.separatorChar, '/');
+                // directory entries are required to find package of module on classpath
+                if (Files.isDirectory(path)) {
+                    out.putNextEntry(new JarEntry(name + '/'));
+                } else {
+                    out.putNextEntry(new JarEntry(name));
+                    Files.copy(path, (OutputStream) out);
+                }
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
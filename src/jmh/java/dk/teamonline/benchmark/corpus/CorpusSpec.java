@@ -0,0 +1,93 @@
+package dk.teamonline.benchmark.corpus;
+
+/**
+ * Shape of synthetic module, configured with System properties:
+ *      corpus.controllers - amount of controllers, default - 10
+ *      corpus.endpoints - amount of endpoints of every controller, default - 100
+ *      corpus.entities - amount of @Entity types, default - 10
+ *      corpus.maxDepth - max amount of properties in @UserTrackParameter expression after parameter name, default - 3
+ *      corpus.overloadRate - share of endpoints which overload other endpoint methods, default - 0.3
+ *      corpus.errorRate - share of endpoints with deliberate error, default - 0.1
+ *      corpus.warningRate - share of endpoints with deliberate warning, default - 0.05
+ *      corpus.seed - seed of random mix, the same seed produces the same module, default - 42
+ */
+public class CorpusSpec {
+    private final int controllers;
+    private final int endpointsPerController;
+    private final int entities;
+    private final int maxDepth;
+    private final double overloadRate;
+    private final double errorRate;
+    private final double warningRate;
+    private final long seed;
+
+    public CorpusSpec(int controllers, int endpointsPerController, int entities, int maxDepth,
+                      double overloadRate, double errorRate, double warningRate, long seed) {
+        if (controllers < 1 || endpointsPerController < 1 || entities < 1 || maxDepth < 0) {
+            throw new IllegalArgumentException("Amount of controllers, endpoints and entities should be positive");
+        }
+        if (errorRate + warningRate > 1) {
+            throw new IllegalArgumentException("Sum of error and warning rates should not exceed 1");
+        }
+        this.controllers = controllers;
+        this.endpointsPerController = endpointsPerController;
+        this.entities = entities;
+        this.maxDepth = maxDepth;
+        this.overloadRate = overloadRate;
+        this.errorRate = errorRate;
+        this.warningRate = warningRate;
+        this.seed = seed;
+    }
+
+    public static CorpusSpec fromSystemProperties() {
+        return new CorpusSpec(
+            Integer.getInteger("corpus.controllers", 10),
+            Integer.getInteger("corpus.endpoints", 100),
+            Integer.getInteger("corpus.entities", 10),
+            Integer.getInteger("corpus.maxDepth", 3),
+            Double.parseDouble(System.getProperty("corpus.overloadRate", "0.3")),
+            Double.parseDouble(System.getProperty("corpus.errorRate", "0.1")),
+            Double.parseDouble(System.getProperty("corpus.warningRate", "0.05")),
+            Long.getLong("corpus.seed", 42));
+    }
+
+    public CorpusSpec withControllers(int controllers) {
+        return new CorpusSpec(controllers, endpointsPerController, entities, maxDepth, overloadRate, errorRate, warningRate, seed);
+    }
+
+    public int getControllers() {
+        return controllers;
+    }
+
+    public int getEndpointsPerController() {
+        return endpointsPerController;
+    }
+
+    public int getEndpoints() {
+        return controllers * endpointsPerController;
+    }
+
+    public int getEntities() {
+        return entities;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public double getOverloadRate() {
+        return overloadRate;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public double getWarningRate() {
+        return warningRate;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
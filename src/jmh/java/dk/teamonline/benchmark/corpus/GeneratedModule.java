@@ -0,0 +1,53 @@
+package dk.teamonline.benchmark.corpus;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.SortedMap;
+
+/**
+ * Synthetic module written by {@link CorpusGenerator} and findings analyzer has to report for it.
+ */
+public class GeneratedModule {
+    private final String moduleName;
+    private final Path rootDir;
+    private final Path jar;
+    private final int endpoints;
+    private final SortedMap<String, Integer> expectedFindings;
+
+    public GeneratedModule(String moduleName, Path rootDir, Path jar, int endpoints, SortedMap<String, Integer> expectedFindings) {
+        this.moduleName = moduleName;
+        this.rootDir = rootDir;
+        this.jar = jar;
+        this.endpoints = endpoints;
+        this.expectedFindings = expectedFindings;
+    }
+
+    public String getModuleName() {
+        return moduleName;
+    }
+
+    /**
+     * @return directory analyzer has to be run from, so sources of module are found by project layout
+     */
+    public Path getRootDir() {
+        return rootDir;
+    }
+
+    public Path getJar() {
+        return jar;
+    }
+
+    /**
+     * @return amount of endpoint methods including ones without @UserTracking
+     */
+    public int getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * @return amount of findings by code, the same as in module summary of analyzer
+     */
+    public SortedMap<String, Integer> getExpectedFindings() {
+        return Collections.unmodifiableSortedMap(expectedFindings);
+    }
+}
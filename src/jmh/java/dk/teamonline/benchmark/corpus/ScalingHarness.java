@@ -0,0 +1,154 @@
+package dk.teamonline.benchmark.corpus;
+
+import dk.teamonline.UserTrackAnalyzer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Runs {@link UserTrackAnalyzer} on synthetic modules of growing size and reports throughput, peak heap
+ * and whether reported findings match deliberate defects of module.
+ *
+ * Every size is analyzed in its own JVM, so peak heap belongs to that run only; it's the highest heap usage sampled
+ * every {@value AnalyzerRun#SAMPLE_MILLIS} ms during run. Configured with System properties:
+ *      scale.endpoints - comma-separated amounts of endpoints, default - 1000,10000,100000
+ *      scale.dir - directory synthetic modules are generated in, default - build/scale
+ *      scale.jvmArgs - space-separated arguments of analyzer JVM, e.g. -Xmx2g
+ *      corpus.* - shape of modules, see {@link CorpusSpec}; amount of controllers is derived from amount of endpoints
+ * Exits with status 1 if findings of any module don't match.
+ */
+public class ScalingHarness {
+    private static final String RESULT_PREFIX = "SCALE_RESULT\t";
+    private static final Pattern SUMMARY_FINDINGS = Pattern.compile("\"type\":\"summary\".*\"findings\":\\{([^}]*)}");
+    private static final Pattern FINDING_COUNT = Pattern.compile("\"(\\w+)\":(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        Path scaleDir = Path.of(System.getProperty("scale.dir", "build/scale")).toAbsolutePath();
+        CorpusSpec defaultSpec = CorpusSpec.fromSystemProperties();
+        boolean isCorrect = true;
+        System.out.printf("%10s %12s %14s %14s %10s%n", "endpoints", "time, ms", "endpoints/s", "peak heap, MB", "findings");
+        for (String size : System.getProperty("scale.endpoints", "1000,10000,100000").split(",\\s*")) {
+            int endpoints = Integer.parseInt(size);
+            CorpusSpec spec = defaultSpec.withControllers(Math.max(1, endpoints / defaultSpec.getEndpointsPerController()));
+            GeneratedModule module = new CorpusGenerator(spec).generate(scaleDir, "scale" + endpoints);
+            RunResult result = analyze(module);
+            Map<String, Integer> actualFindings = readFindings(module);
+            boolean isModuleCorrect = actualFindings.equals(module.getExpectedFindings());
+            isCorrect &= isModuleCorrect;
+            System.out.printf("%10d %12d %14.0f %14.1f %10s%n", module.getEndpoints(), result.elapsedMillis,
+                module.getEndpoints() * 1000.0 / Math.max(1, result.elapsedMillis), result.peakHeapBytes / 1024.0 / 1024.0,
+                isModuleCorrect ? "OK" : "MISMATCH");
+            if (!isModuleCorrect) {
+                System.out.printf("expected %s%nactual   %s%n", module.getExpectedFindings(), actualFindings);
+            }
+        }
+        if (!isCorrect) {
+            System.exit(1);
+        }
+    }
+
+    private static RunResult analyze(GeneratedModule module) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        String jvmArgs = System.getProperty("scale.jvmArgs", "").trim();
+        if (!jvmArgs.isEmpty()) {
+            command.addAll(Arrays.asList(jvmArgs.split("\\s+")));
+        }
+        command.addAll(List.of(
+            "-cp", module.getJar() + File.pathSeparator + System.getProperty("java.class.path"),
+            "-Dmodule.name=" + module.getModuleName(),
+            "-Dmodule.types=ui",
+            "-Dreport.formats=jsonl",
+            "-DuserTrack.log.path=" + module.getRootDir(),
+            AnalyzerRun.class.getName()));
+        Process process = new ProcessBuilder(command)
+            .directory(module.getRootDir().toFile())
+            .redirectError(module.getRootDir().resolve(module.getModuleName() + "-analyzer.err").toFile())
+            .start();
+        RunResult result = null;
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                if (line.startsWith(RESULT_PREFIX)) {
+                    String[] values = line.substring(RESULT_PREFIX.length()).split("\t");
+                    result = new RunResult(Long.parseLong(values[0]), Long.parseLong(values[1]));
+                }
+            }
+        }
+        if (process.waitFor() != 0 || result == null) {
+            throw new IllegalStateException("Analyzer failed on module " + module.getModuleName() + ", see its .err file");
+        }
+        return result;
+    }
+
+    private static Map<String, Integer> readFindings(GeneratedModule module) {
+        Path report = module.getRootDir().resolve("userTrack-analyzer_" + module.getModuleName() + ".jsonl");
+        try (Stream<String> records = Files.lines(report)) {
+            Map<String, Integer> findings = new TreeMap<>();
+            records.map(SUMMARY_FINDINGS::matcher)
+                .filter(Matcher::find)
+                .forEach(summary -> {
+                    Matcher count = FINDING_COUNT.matcher(summary.group(1));
+                    while (count.find()) {
+                        findings.put(count.group(1), Integer.parseInt(count.group(2)));
+                    }
+                });
+            return findings;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Report of module " + module.getModuleName() + " can't be read", e);
+        }
+    }
+
+    private static class RunResult {
+        private final long elapsedMillis;
+        private final long peakHeapBytes;
+
+        private RunResult(long elapsedMillis, long peakHeapBytes) {
+            this.elapsedMillis = elapsedMillis;
+            this.peakHeapBytes = peakHeapBytes;
+        }
+    }
+
+    /**
+     * Main class of analyzer JVM: runs analyzer and prints its wall time and peak heap usage to standard output.
+     * Peaks of heap pools are reached at different moments, so their sum overstates peak; heap usage is sampled instead.
+     */
+    public static class AnalyzerRun {
+        static final int SAMPLE_MILLIS = 10;
+
+        public static void main(String[] args) {
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            AtomicLong peakHeapBytes = new AtomicLong();
+            ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "heap-sampler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sampler.scheduleAtFixedRate(() -> peakHeapBytes.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+                0, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+            long start = System.nanoTime();
+            UserTrackAnalyzer.main(args);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            sampler.shutdownNow();
+            peakHeapBytes.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+            System.out.println(RESULT_PREFIX + elapsedMillis + '\t' + peakHeapBytes.get());
+            System.exit(0);
+        }
+    }
+}
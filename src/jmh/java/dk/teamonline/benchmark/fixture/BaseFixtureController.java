@@ -0,0 +1,4 @@
+package dk.teamonline.benchmark.fixture;
+
+public abstract class BaseFixtureController {
+}
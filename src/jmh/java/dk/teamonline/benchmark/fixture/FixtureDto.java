@@ -0,0 +1,13 @@
+package dk.teamonline.benchmark.fixture;
+
+import java.util.List;
+
+public class FixtureDto<T> {
+    private Long patientId;
+    private T entity;
+    private List<FixturePatient> patients;
+
+    public Long getPatientId() {
+        return patientId;
+    }
+}
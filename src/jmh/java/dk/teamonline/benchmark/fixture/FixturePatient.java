@@ -0,0 +1,19 @@
+package dk.teamonline.benchmark.fixture;
+
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "FIXTURE_PATIENT")
+public class FixturePatient {
+    private Long id;
+    private FixturePatient parent;
+
+    public Long getId() {
+        return id;
+    }
+
+    public FixturePatient getParent() {
+        return parent;
+    }
+}
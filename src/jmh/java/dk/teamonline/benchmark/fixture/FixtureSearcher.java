@@ -0,0 +1,5 @@
+package dk.teamonline.benchmark.fixture;
+
+public class FixtureSearcher extends FixtureDto<FixturePatient> {
+    private String text;
+}
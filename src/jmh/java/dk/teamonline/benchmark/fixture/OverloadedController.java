@@ -0,0 +1,82 @@
+package dk.teamonline.benchmark.fixture;
+
+import dk.eg.sensum.userTrack.domain.UserTrackAction;
+import dk.eg.sensum.userTrack.domain.UserTrackParameter;
+import dk.eg.sensum.userTrack.domain.UserTracking;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller with overload-heavy endpoints of every mapping kind, both correct and erroneous ones.
+ */
+@Controller
+@RequestMapping("/fixture")
+public class OverloadedController extends BaseFixtureController {
+
+    @GetMapping("/{id}")
+    @UserTracking(action = UserTrackAction.SHOW, parameters = @UserTrackParameter(expression = "id", type = FixturePatient.class))
+    public String find(@PathVariable Long id) {
+        return null;
+    }
+
+    @PostMapping("/find")
+    @UserTracking(action = UserTrackAction.SEARCH, parameters = @UserTrackParameter(expression = "searcher.entity.id", type = FixturePatient.class))
+    public String find(@RequestBody FixtureSearcher searcher, @RequestParam int page) {
+        return null;
+    }
+
+    @PostMapping("/find-all")
+    @UserTracking(action = UserTrackAction.SEARCH, parameters = @UserTrackParameter(expression = "idList", type = FixturePatient.class))
+    public String find(@RequestParam List<Long> idList, @RequestParam Long id) {
+        return null;
+    }
+
+    @PostMapping("/find-array")
+    @UserTracking(action = UserTrackAction.SHOW, parameters = @UserTrackParameter(expression = "ids", type = FixturePatient.class))
+    public String find(@RequestParam long[] ids, @RequestParam String... names) {
+        return null;
+    }
+
+    @RequestMapping(value = "/find-map", method = {RequestMethod.GET, RequestMethod.POST})
+    @UserTracking(action = UserTrackAction.SHOW, parameters = @UserTrackParameter(expression = "dto.patients[0].parent.id", type = FixturePatient.class))
+    public String find(@ModelAttribute FixtureDto<FixturePatient> dto, @RequestParam Map<String, String> filter) {
+        return null;
+    }
+
+    @PutMapping("/{id}")
+    @UserTracking(action = UserTrackAction.EDIT, parameters = {
+        @UserTrackParameter(expression = "id", type = FixturePatient.class),
+        @UserTrackParameter(expression = "dto.missing", type = String.class)
+    })
+    public String save(@PathVariable Long id, @RequestBody FixtureDto<FixturePatient> dto) {
+        return null;
+    }
+
+    @PatchMapping("/{id}")
+    @UserTracking(action = UserTrackAction.SAVE, parameters = @UserTrackParameter(expression = "id..", type = FixturePatient.class))
+    public String save(@PathVariable Long id, @RequestParam boolean draft) {
+        return null;
+    }
+
+    @DeleteMapping("/{id}")
+    @UserTracking(action = UserTrackAction.DELETE, parameters = {
+        @UserTrackParameter(expression = "id", type = FixturePatient.class),
+        @UserTrackParameter(expression = "id", type = FixturePatient.class),
+        @UserTrackParameter(expression = "reason", type = FixturePatient.class)
+    })
+    public String delete(@PathVariable Long id, @RequestParam String reason) {
+        return null;
+    }
+
+    @DeleteMapping("/untracked")
+    public String delete() {
+        return null;
+    }
+
+    public String helper(Long id, String name) {
+        return null;
+    }
+}
@@ -0,0 +1,144 @@
+package dk.teamonline;
+
+import dk.teamonline.batch.ModuleDiscovery;
+import dk.teamonline.batch.ModuleLogAppender;
+import dk.teamonline.domain.EndpointIndex;
+import dk.teamonline.domain.IndexedEndpoint;
+import dk.teamonline.domain.ModuleSummary;
+import dk.teamonline.metrics.Metrics;
+import dk.teamonline.pipeline.ControllerScan;
+import dk.teamonline.pipeline.PipelineSettings;
+import dk.teamonline.resolvers.ControllerSourceParser;
+import dk.teamonline.watch.ModuleClassLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Analyzes UserTrack of several modules in 1 JVM: endpoints of all modules are verified on 1 work-stealing pool,
+ * each module gets its own log file.
+ * Endpoint indexes of modules are merged to cross-module one, tables tracked by endpoints of all modules are printed at the end.
+ * Messages of batch itself go to log file of root appender, which doesn't get events of modules.
+ *
+ * Every module is analyzed in its own {@link ModuleClassLoader} over jars (or classes directories) of its packages:
+ * controllers, entities and everything else loaded from module are released with loader once module is analyzed,
+ * only plain results (module summary) are kept. So heap is bounded by modules in flight, not by size of monorepo.
+ * Without isolation classpath is scanned once for all modules and all module classes stay loaded until the end of run.
+ *
+ * Usage is the same as for {@link UserTrackAnalyzer}, but instead of module.name:
+ *      batch.modules - modules to verify, if omitted modules are discovered on classpath by package.pattern
+ *      and, if nothing is found, from project layout - {projectDir}/{moduleName}/{moduleType}/src/main/java
+ *      batch.parallelism - amount of modules analyzed (and loaded) at the same time, default - amount of available processors
+ *      batch.isolation - if true every module is loaded by its own class loader, which is released after module, default - true
+ *      metrics.enabled - if true summary of all modules is written to userTrack-metrics_batch.json
+ */
+public class BatchUserTrackAnalyzer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchUserTrackAnalyzer.class);
+
+    public static void main(String[] args) {
+        List<String> moduleTypes = UserTrackAnalyzer.getModuleTypes();
+        String packagePattern = UserTrackAnalyzer.getPackagePattern();
+        Collection<String> modules = getModules(moduleTypes, packagePattern);
+        if (modules.isEmpty()) {
+            LOGGER.error("FATAL\tNo modules to verify are found. Specify them with batch.modules");
+            return;
+        }
+        LOGGER.info("Modules to verify: {}", modules);
+
+        Map<String, List<String>> packagesByModule = new LinkedHashMap<>();
+        modules.forEach(module -> packagesByModule.put(module, UserTrackAnalyzer.getPackagesToScan(module, moduleTypes, packagePattern)));
+        boolean isolation = Boolean.parseBoolean(System.getProperty("batch.isolation", "true"));
+        List<String> allPackages = packagesByModule.values().stream().flatMap(List::stream).collect(Collectors.toList());
+        ControllerScan sharedScan = isolation ? null : UserTrackAnalyzer.createControllerScan(allPackages);
+        ExecutorService parseExecutor = UserTrackAnalyzer.newSourceParseExecutor();
+
+        PipelineSettings defaultSettings = PipelineSettings.fromSystemProperties();
+        ExecutorService verifyExecutor = Executors.newWorkStealingPool(defaultSettings.getVerifyThreads());
+        PipelineSettings settings = defaultSettings.withSharedVerifyExecutor(verifyExecutor);
+        // module task blocks until its report is printed, so modules are run on their own bounded pool
+        int parallelism = Integer.getInteger("batch.parallelism", Runtime.getRuntime().availableProcessors());
+        ExecutorService moduleExecutor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, modules.size())));
+        String logPath = System.getProperty("userTrack.log.path", ".");
+        EndpointIndex endpointIndex = new EndpointIndex();
+        try {
+            List<CompletableFuture<Void>> moduleAnalyses = packagesByModule.entrySet().stream()
+                .map(module -> CompletableFuture.runAsync(() -> {
+                    String moduleName = module.getKey();
+                    try (ModuleLogAppender moduleLog = ModuleLogAppender.open(moduleName, logPath)) {
+                        // tasks of module on shared pools log to module file as well
+                        PipelineSettings moduleSettings = settings.withSharedVerifyExecutor(moduleLog.bind(verifyExecutor));
+                        moduleLog.run(() -> endpointIndex.merge(analyzeModule(moduleName, module.getValue(), sharedScan,
+                            moduleLog.bind(parseExecutor), moduleSettings).getEndpointIndex()));
+                    } catch (Exception e) {
+                        LOGGER.error("FATAL\tCan't verify module {}:\n{}", moduleName, e);
+                    }
+                }, moduleExecutor))
+                .collect(Collectors.toList());
+            CompletableFuture.allOf(moduleAnalyses.toArray(new CompletableFuture<?>[0])).join();
+            printTrackedTables(endpointIndex);
+            // metrics are collected for whole JVM, so there is 1 summary of all modules
+            Metrics.writeSummary("batch");
+        } finally {
+            moduleExecutor.shutdown();
+            verifyExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Analyzes module by shared scan or, if there is none, in its own class loader:
+     * nothing of module is referenced by result, so loader can be unloaded.
+     */
+    private static ModuleSummary analyzeModule(String moduleName, List<String> packagesToScan, ControllerScan sharedScan,
+                                               Executor parseExecutor, PipelineSettings settings) {
+        if (sharedScan != null) {
+            return UserTrackAnalyzer.analyzeModule(moduleName, packagesToScan, sharedScan,
+                UserTrackAnalyzer.createSourceParsers(moduleName, packagesToScan, parseExecutor), settings);
+        }
+        ClassLoader parent = BatchUserTrackAnalyzer.class.getClassLoader();
+        ModuleClassLoader classLoader = new ModuleClassLoader(ModuleDiscovery.getRoots(packagesToScan, parent), parent);
+        try {
+            Map<String, ControllerSourceParser> sourceParsers =
+                UserTrackAnalyzer.createSourceParsers(moduleName, packagesToScan, parseExecutor, classLoader);
+            return UserTrackAnalyzer.analyzeModule(moduleName, packagesToScan,
+                UserTrackAnalyzer.createControllerScan(packagesToScan, classLoader), sourceParsers, settings);
+        } finally {
+            try {
+                classLoader.close();
+            } catch (IOException e) {
+                LOGGER.warn("Class loader of module {} can't be closed: {}", moduleName, e.toString());
+            }
+        }
+    }
+
+    private static void printTrackedTables(EndpointIndex endpointIndex) {
+        SortedMap<String, String> trackedTables = new TreeMap<>();
+        endpointIndex.forEachTable((tableName, endpoints) -> trackedTables.put(tableName, endpoints.stream()
+            .sorted()
+            .map(IndexedEndpoint::toString)
+            .collect(Collectors.joining("\n\t", "\n\t", ""))));
+        String tables = trackedTables.entrySet().stream()
+            .map(e -> e.getKey() + ':' + e.getValue())
+            .collect(Collectors.joining("\n"));
+        LOGGER.info("Tables tracked across modules:\n{}", tables);
+    }
+
+    private static Collection<String> getModules(List<String> moduleTypes, String packagePattern) {
+        String modules = System.getProperty("batch.modules");
+        if (modules != null) {
+            return new LinkedHashSet<>(Arrays.asList(modules.split(",\\s*")));
+        }
+        SortedSet<String> classpathModules = ModuleDiscovery.fromClasspath(packagePattern, moduleTypes,
+            BatchUserTrackAnalyzer.class.getClassLoader());
+        return classpathModules.isEmpty()
+            ? ModuleDiscovery.fromProjectLayout(Paths.get(".").toAbsolutePath().normalize(), moduleTypes)
+            : classpathModules;
+    }
+}
@@ -0,0 +1,92 @@
+package dk.teamonline;
+
+import dk.teamonline.domain.DeclaredEndpoint;
+import dk.teamonline.domain.DeclaredEndpoint.TrackParameter;
+import dk.teamonline.domain.ErrorCollector;
+import dk.teamonline.metrics.Counter;
+import dk.teamonline.metrics.Metrics;
+import dk.teamonline.metrics.Phase;
+import dk.teamonline.metrics.PhaseTimer;
+import dk.teamonline.rules.UserTrackRules;
+import dk.teamonline.utils.SpelExpressions.PathTypes;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Applies {@link UserTrackRules} to {@link DeclaredEndpoint}: endpoint of compiler model, of class file or of reflection.
+ * Types are touched only through {@link Types}, so model decides when (and if) anything is loaded.
+ */
+public class DeclaredEndpointVerifier<T> {
+    private final DeclaredEndpoint<T> endpoint;
+    private final Types<T> types;
+    private final UserTrackRules rules;
+    private final Executor ruleExecutor;
+    private final ErrorCollector errorCollector;
+    // types verification result depends on: @UserTrackParameter types and types walked by expressions
+    private final Set<T> reachedTypes = ConcurrentHashMap.newKeySet();
+
+    public DeclaredEndpointVerifier(DeclaredEndpoint<T> endpoint, Types<T> types) {
+        this(endpoint, types, UserTrackRules.getDefault(), null);
+    }
+
+    /**
+     * @param ruleExecutor executor parallel rules run on, see {@link UserTrackRules}; null - rules run one after another
+     */
+    public DeclaredEndpointVerifier(DeclaredEndpoint<T> endpoint, Types<T> types, Executor ruleExecutor) {
+        this(endpoint, types, UserTrackRules.getDefault(), ruleExecutor);
+    }
+
+    public DeclaredEndpointVerifier(DeclaredEndpoint<T> endpoint, Types<T> types, UserTrackRules rules) {
+        this(endpoint, types, rules, null);
+    }
+
+    private DeclaredEndpointVerifier(DeclaredEndpoint<T> endpoint, Types<T> types, UserTrackRules rules, Executor ruleExecutor) {
+        this.endpoint = endpoint;
+        this.types = types;
+        this.rules = rules;
+        this.ruleExecutor = ruleExecutor;
+        this.errorCollector = new ErrorCollector(endpoint.getControllerName() + '#' + endpoint.getMethodName());
+    }
+
+    public ErrorCollector verify() {
+        PhaseTimer timer = Metrics.start(Phase.VERIFY);
+        try {
+            rules.verify(endpoint, types, errorCollector, reachedTypes::add, ruleExecutor);
+        } finally {
+            timer.stop();
+        }
+        Metrics.count(Counter.FINDINGS, errorCollector.getFindings().size());
+        return errorCollector;
+    }
+
+    public ErrorCollector getErrorCollector() {
+        return errorCollector;
+    }
+
+    public Set<T> getReachedTypes() {
+        return Collections.unmodifiableSet(reachedTypes);
+    }
+
+    /**
+     * @return @UserTrackParameter types which are entities
+     */
+    public List<T> getTrackedEntities() {
+        return endpoint.getUserTrackParameters().stream()
+            .map(TrackParameter::getType)
+            .filter(types::isEntity)
+            .distinct()
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Type model of declared endpoint: expression paths and @Entity check.
+     */
+    public interface Types<T> extends PathTypes<T> {
+        boolean isEntity(T type);
+    }
+}
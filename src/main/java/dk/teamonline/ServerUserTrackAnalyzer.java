@@ -0,0 +1,26 @@
+package dk.teamonline;
+
+import dk.teamonline.server.QueryServer;
+
+import java.io.IOException;
+
+/**
+ * Verifies module once and then serves its findings over HTTP on localhost, so IDE and pre-commit hooks get findings
+ * of few controllers in milliseconds instead of paying cold start of analyzer, see {@link QueryServer}.
+ * Runs until process is stopped.
+ *
+ * Usage is the same as for {@link WatchUserTrackAnalyzer}, additionally:
+ *      server.port - port of server, default - 7878
+ *      server.threads - number of requests handled at the same time, default - number of processors
+ *
+ * E.g. pre-commit hook checks controllers of staged files, files are relative to project dir:
+ *      git diff --cached --name-only | curl -s --data-binary @- http://localhost:7878/findings
+ */
+public class ServerUserTrackAnalyzer {
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("server.port", 7878);
+        int threads = Integer.getInteger("server.threads", Runtime.getRuntime().availableProcessors());
+        new QueryServer(WatchUserTrackAnalyzer.createSession(System.getProperty("module.name"))).start(port, threads);
+    }
+}
@@ -1,28 +1,34 @@
 package dk.teamonline;
 
-import com.thoughtworks.qdox.JavaProjectBuilder;
-import dk.teamonline.annotation.ExternalWebService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import dk.teamonline.cache.AnalysisCache;
+import dk.teamonline.classfile.ClassFileScan;
+import dk.teamonline.classfile.IndexedControllerScan;
 import dk.teamonline.domain.ModuleSummary;
-import dk.teamonline.domain.WebController;
-import dk.teamonline.resolvers.MethodParamNamesResolver;
-import dk.teamonline.resolvers.ThoughtworksMethodParamNamesResolver;
-import org.apache.commons.lang3.StringUtils;
-import org.reflections.Reflections;
-import org.reflections.scanners.*;
+import dk.teamonline.metrics.Metrics;
+import dk.teamonline.metrics.Phase;
+import dk.teamonline.metrics.PhaseTimer;
+import dk.teamonline.pipeline.AnalysisPipeline;
+import dk.teamonline.pipeline.CachedControllerScan;
+import dk.teamonline.pipeline.ClasspathScan;
+import dk.teamonline.pipeline.ControllerScan;
+import dk.teamonline.pipeline.PipelineSettings;
+import dk.teamonline.report.CompositeReportSink;
+import dk.teamonline.report.JsonLinesReportSink;
+import dk.teamonline.report.LogReportSink;
+import dk.teamonline.report.ReportSink;
+import dk.teamonline.resolvers.ControllerSourceParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Controller;
-import org.springframework.web.bind.annotation.RestController;
 
-import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Set;
-import java.util.function.Function;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Main class to analyze UserTrack of certain module for potential and real errors.
@@ -35,8 +41,29 @@ import java.util.stream.Stream;
  *      module.types - if omitted default ones be used - {ui, ws, extws}
  *      package.pattern - specifies package name pattern, default - dk.teamonline.{moduleName}.{moduleType}
  *      userTrack.log.path - path to lo file
+ *      scan.parallel - if true each module type is scanned on its own worker, default - false
+ *      discovery.mode - reflection - controllers are found by Reflections and verified as loaded classes,
+ *      classfile - controllers are found and verified straight from class files without loading them, default - reflection
+ *      index.enabled - if true controllers of packages are taken from prebuilt indexes of their jars (see {@link UserTrackIndexBuilder})
+ *      and are verified as in classfile mode, packages without up-to-date index are discovered by discovery.mode, default - true
+ *      source.fallback - if false parameter names are taken only from class files and sources are never parsed,
+ *      default - true (sources of package are parsed for classes without -parameters and debug info)
+ *      source.prefetch - if true sources of controllers are parsed in background along with classpath scan,
+ *      otherwise only when required, default - true
+ *      cache.dir - directory of analysis cache; if specified controllers unchanged since previous run
+ *      are not verified again but replayed from cache and unchanged packages are not scanned, by default cache is off
+ *      report.formats - comma-separated formats of report: log - human-readable log, jsonl - JSON Lines file
+ *      userTrack-analyzer_{moduleName}.jsonl in userTrack.log.path, default - log
+ *      verify.threads, verify.virtualThreads, pipeline.queue.capacity - see {@link PipelineSettings}
+ *      rules.disabled, rules.parallel - which rules are applied and how, see {@link dk.teamonline.rules.UserTrackRules}
+ *      metrics.enabled - if true phases are timed and counted, summary is written to userTrack-metrics_{moduleName}.json,
+ *      default - false, see {@link Metrics}
  *
  * 1 configuration is supposed to verify 1 module and produce results into 1 log file.
+ * To verify several modules in 1 run use {@link BatchUserTrackAnalyzer}.
+ * To verify module while it's compiled use {@link dk.teamonline.processor.UserTrackProcessor}.
+ * To get findings of few controllers in milliseconds, e.g. in IDE or pre-commit hook, use {@link ServerUserTrackAnalyzer}.
+ * For fast startup on small modules run analyzer with AppCDS archive, see analyzeFast task of userTrackVerifier.domain.gradle.
  */
 public class UserTrackAnalyzer {
     private static final Logger LOGGER = LoggerFactory.getLogger(UserTrackAnalyzer.class);
@@ -46,66 +73,138 @@ public class UserTrackAnalyzer {
 
     public static void main(String[] args) {
         String moduleName = System.getProperty("module.name");
-        String[] moduleTypes = System.getProperty("module.types", DEFAULT_MODULE_TYPES).split(",\\s*");
-        String packagePattern = System.getProperty("package.pattern", DEFAULT_PACKAGE_PATTERN);
-        List<String> packagesToScan = Arrays.stream(moduleTypes)
+        List<String> packagesToScan = getPackagesToScan(moduleName, getModuleTypes(), getPackagePattern());
+        Map<String, ControllerSourceParser> sourceParsers = createSourceParsers(moduleName, packagesToScan, newSourceParseExecutor());
+        ControllerScan controllerScan = createControllerScan(packagesToScan);
+        analyzeModule(moduleName, packagesToScan, controllerScan, sourceParsers, PipelineSettings.fromSystemProperties());
+        Metrics.writeSummary(moduleName);
+    }
+
+    static List<String> getModuleTypes() {
+        return Arrays.asList(System.getProperty("module.types", DEFAULT_MODULE_TYPES).split(",\\s*"));
+    }
+
+    static String getPackagePattern() {
+        return System.getProperty("package.pattern", DEFAULT_PACKAGE_PATTERN);
+    }
+
+    static List<String> getPackagesToScan(String moduleName, List<String> moduleTypes, String packagePattern) {
+        return moduleTypes.stream()
             .map(type -> String.format(packagePattern, moduleName, type)).collect(Collectors.toList());
-        ModuleSummary moduleSummary = new ModuleSummary(moduleName);
-        for (String packageToScan : packagesToScan) {
-            try {
-                String decoration = StringUtils.repeat('*', 20 + packageToScan.length());
-                LOGGER.info("\n{}", StringUtils.repeat(decoration, 3));
-                LOGGER.info("{} Scan {} {}", decoration, packageToScan, decoration);
-                LOGGER.info(StringUtils.repeat(decoration, 3));
+    }
 
-                Reflections scanner = new Reflections(packageToScan,
-                    new TypeAnnotationsScanner(),
-                    new SubTypesScanner(),
-                    new MethodAnnotationsScanner(),
-                    new MethodParameterScanner(),
-                    new MethodParameterNamesScanner()
-                );
-//            MethodParamNamesResolver namesResolver = new ReflectionsMethodParamNamesResolver(scanner);
-                JavaProjectBuilder builder = new JavaProjectBuilder();
-                String sourceDir = convertPackageToFolder(moduleName, packageToScan);
-                builder.addSourceTree(new File(sourceDir));
-                MethodParamNamesResolver namesResolver = new ThoughtworksMethodParamNamesResolver(builder);
+    /**
+     * Scan of discovery.mode behind indexes if they are enabled, 1 scan is shared by all given packages.
+     */
+    static ControllerScan createControllerScan(List<String> packagesToScan) {
+        return createControllerScan(packagesToScan, UserTrackAnalyzer.class.getClassLoader());
+    }
 
-                Set<Class<?>> controllerClasses = scanner.getTypesAnnotatedWith(Controller.class);
-                Set<Class<?>> restControllerClasses = scanner.getTypesAnnotatedWith(RestController.class);
-                Set<Class<?>> extWebServicesClasses = scanner.getTypesAnnotatedWith(ExternalWebService.class);
+    /**
+     * @param classLoader loader of module classes, e.g. loader of 1 module
+     */
+    static ControllerScan createControllerScan(List<String> packagesToScan, ClassLoader classLoader) {
+        ControllerScan scan;
+        String discoveryMode = System.getProperty("discovery.mode", "reflection");
+        if ("classfile".equals(discoveryMode)) {
+            scan = new ClassFileScan(packagesToScan, classLoader);
+        } else {
+            if (!"reflection".equals(discoveryMode)) {
+                LOGGER.warn("Unknown discovery mode {} is ignored", discoveryMode);
+            }
+            scan = new ClasspathScan(packagesToScan, classLoader);
+        }
+        return Boolean.parseBoolean(System.getProperty("index.enabled", "true")) ? new IndexedControllerScan(classLoader, scan) : scan;
+    }
 
-                Stream.of(controllerClasses.stream(), restControllerClasses.stream(), extWebServicesClasses.stream())
-                    .flatMap(Function.identity())
-                    .sorted(Comparator.comparing(Class::getSimpleName))
-                    .forEach(clazz -> {
-                        WebController controller = new WebController(clazz);
-                        controller.printHead();
-                        LOGGER.debug("class level mapping url = {}", controller.getRelativeUrl());
+    /**
+     * Verifies all packages of module and prints module report, returns when report is printed.
+     *
+     * @return summary of module, its endpoint index can be merged with ones of other modules
+     */
+    static ModuleSummary analyzeModule(String moduleName, List<String> packagesToScan, ControllerScan controllerScan,
+                              Map<String, ControllerSourceParser> sourceParsers, PipelineSettings settings) {
+        PhaseTimer timer = Metrics.start(Phase.MODULE);
+        try {
+            ModuleSummary moduleSummary = new ModuleSummary(moduleName);
+            ReportSink reportSink = createReportSink(moduleName);
+            String cacheDir = System.getProperty("cache.dir");
+            AnalysisCache cache = cacheDir == null
+                ? AnalysisCache.disabled()
+                : AnalysisCache.load(Paths.get(cacheDir, "userTrack-cache_" + moduleName + ".bin"));
+            ControllerScan scan = cache.isEnabled() ? new CachedControllerScan(cache, controllerScan) : controllerScan;
+            new AnalysisPipeline(packageToScan -> scan.scan(packageToScan, sourceParsers.get(packageToScan)),
+                moduleSummary, cache, reportSink, settings)
+                .run(packagesToScan);
+            cache.save();
+            reportSink.moduleSummary(moduleSummary);
+            reportSink.close();
+            return moduleSummary;
+        } finally {
+            timer.stop();
+        }
+    }
 
-                        controller.setupEndpoints(namesResolver);
-                        controller.getEndpoints().forEach(endpoint ->
-                        {
-                            UserTrackVerifier verifier = new UserTrackVerifier(endpoint);
-                            verifier.printEndpointInfo();
-                            verifier.verify();
-                            verifier.printEndpointSummary();
+    /**
+     * Sinks of report.formats: log - human-readable log, jsonl - JSON Lines file next to log file.
+     */
+    static ReportSink createReportSink(String moduleName) {
+        List<ReportSink> sinks = new ArrayList<>();
+        for (String format : System.getProperty("report.formats", "log").split(",\\s*")) {
+            if ("log".equals(format)) {
+                sinks.add(new LogReportSink());
+            } else if ("jsonl".equals(format)) {
+                Path file = Paths.get(System.getProperty("userTrack.log.path", "."), "userTrack-analyzer_" + moduleName + ".jsonl");
+                try {
+                    sinks.add(new JsonLinesReportSink(moduleName, file));
+                } catch (IOException e) {
+                    LOGGER.error("FATAL\tJSON report {} can't be created:\n{}", file, e);
+                }
+            } else {
+                LOGGER.warn("Unknown report format {} is ignored", format);
+            }
+        }
+        return sinks.size() == 1 ? sinks.get(0) : new CompositeReportSink(sinks);
+    }
 
-                            moduleSummary.mergeEntityClasses(endpoint);
-                            moduleSummary.mergeParameters(endpoint);
-                        });
-                    });
-            } catch (Exception e) {
-                LOGGER.error("FATAL\tCan't scan specified package {}. " +
-                    "Make module was added to dependencies and specified correctly:\n{}", packagesToScan, e);
+    static ExecutorService newSourceParseExecutor() {
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("userTrack-source-%d").build());
+    }
+
+    /**
+     * Source parsers of packages for fallback names resolution, empty if fallback is off.
+     * Unless source.prefetch is false, parsing of controller sources starts right away and goes along with classpath scan.
+     */
+    static Map<String, ControllerSourceParser> createSourceParsers(String moduleName, List<String> packagesToScan,
+                                                                   Executor parseExecutor) {
+        return createSourceParsers(moduleName, packagesToScan, parseExecutor, null);
+    }
+
+    /**
+     * @param classLoader loader of module classes referenced by sources, if they are not on classpath of analyzer
+     */
+    static Map<String, ControllerSourceParser> createSourceParsers(String moduleName, List<String> packagesToScan,
+                                                                   Executor parseExecutor, ClassLoader classLoader) {
+        if (!Boolean.parseBoolean(System.getProperty("source.fallback", "true"))) {
+            return Collections.emptyMap();
+        }
+        boolean prefetch = Boolean.parseBoolean(System.getProperty("source.prefetch", "true"));
+        Map<String, ControllerSourceParser> sourceParsers = new HashMap<>();
+        for (String packageToScan : packagesToScan) {
+            ControllerSourceParser sourceParser = new ControllerSourceParser(packageToScan,
+                Paths.get(convertPackageToFolder(moduleName, packageToScan)), parseExecutor, classLoader);
+            if (prefetch) {
+                sourceParser.prefetch();
             }
+            sourceParsers.put(packageToScan, sourceParser);
         }
-        moduleSummary.printModuleSummary();
+        return sourceParsers;
     }
 
-    // Very fragile, is used only because Reflections provides method param names with some local vars
-    // and -parameters javac does not work
-    private static String convertPackageToFolder(String module, String packageToScan) {
+    // Very fragile, is used only as fallback for classes compiled without -parameters and debug info,
+    // cause Reflections provides method param names with some local vars
+    static String convertPackageToFolder(String module, String packageToScan) {
         String projectPath = Paths.get(".").normalize().toAbsolutePath().toString();
         String packageRelativePath = packageToScan.replace('.', '/');
         String moduleType = packageRelativePath.substring(packageRelativePath.lastIndexOf('/') + 1);
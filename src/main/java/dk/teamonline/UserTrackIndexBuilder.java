@@ -0,0 +1,50 @@
+package dk.teamonline;
+
+import dk.teamonline.classfile.ControllerIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Build step which writes index of controllers next to every module jar (or classes directory),
+ * so {@link UserTrackAnalyzer} takes controllers from index instead of scanning jar, see {@link ControllerIndex}.
+ * Index has to be rebuilt after jar changes, analyzer ignores stale index and scans jar as usual.
+ *
+ * Usage:
+ *      index.roots - required parameter - jars and classes directories separated by path separator, as classpath
+ * Exits with status 1 if any index can't be built, so build fails instead of analyzer silently scanning jars.
+ */
+public class UserTrackIndexBuilder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserTrackIndexBuilder.class);
+
+    public static void main(String[] args) {
+        String roots = System.getProperty("index.roots");
+        if (roots == null || roots.isBlank()) {
+            LOGGER.error("FATAL\tNo jars to index are specified. Specify them with index.roots");
+            System.exit(1);
+        }
+        boolean failed = false;
+        for (String rootPath : roots.split(File.pathSeparator)) {
+            Path root = Paths.get(rootPath);
+            if (!Files.exists(root)) {
+                LOGGER.warn("{} doesn't exist and is not indexed", root);
+                continue;
+            }
+            try {
+                int controllers = ControllerIndex.build(root);
+                LOGGER.info("{} controllers of {} are indexed to {}", controllers, root, ControllerIndex.getIndexFile(root));
+            } catch (IOException e) {
+                LOGGER.error("Index of {} can't be built: {}", root, e.toString());
+                failed = true;
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package dk.teamonline;
+
+import dk.teamonline.watch.DirectoryWatcher;
+import dk.teamonline.watch.WatchSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Watches build output of module and verifies UserTrack of changed controllers again while developer works on them:
+ * module is verified fully once, then on every change of class or source files only affected controllers are verified
+ * and difference in findings is printed. Runs until process is stopped.
+ *
+ * Usage is the same as for {@link UserTrackAnalyzer}, additionally:
+ *      watch.classesDirs - comma-separated directories of module classes,
+ *      default - {projectDir}/{moduleName}/{moduleType}/build/classes/java/main of every module type
+ *      watch.quietPeriod - milliseconds without changes before verification starts, so that whole compilation
+ *      is taken at once, default - 100
+ */
+public class WatchUserTrackAnalyzer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WatchUserTrackAnalyzer.class);
+
+    public static void main(String[] args) throws IOException {
+        long quietPeriod = Long.getLong("watch.quietPeriod", 100);
+        WatchSession session = createSession(System.getProperty("module.name"));
+        session.start();
+        try (DirectoryWatcher watcher = new DirectoryWatcher(session.getWatchedDirs())) {
+            LOGGER.info("Watching {} for changes", session.getWatchedDirs());
+            while (true) {
+                session.update(watcher.awaitChanges(quietPeriod));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Session of module.types packages of module with classes of watch.classesDirs, not started yet.
+     */
+    static WatchSession createSession(String moduleName) {
+        List<String> moduleTypes = UserTrackAnalyzer.getModuleTypes();
+        List<String> packagesToScan = UserTrackAnalyzer.getPackagesToScan(moduleName, moduleTypes, UserTrackAnalyzer.getPackagePattern());
+        Map<String, Path> packageSourceDirs = new HashMap<>();
+        packagesToScan.forEach(packageToScan ->
+            packageSourceDirs.put(packageToScan, Paths.get(UserTrackAnalyzer.convertPackageToFolder(moduleName, packageToScan))));
+        return new WatchSession(packagesToScan, getClassesDirs(moduleName, moduleTypes), packageSourceDirs);
+    }
+
+    private static List<Path> getClassesDirs(String moduleName, List<String> moduleTypes) {
+        String classesDirs = System.getProperty("watch.classesDirs");
+        if (classesDirs != null) {
+            return Arrays.stream(classesDirs.split(",\\s*"))
+                .map(dir -> Paths.get(dir).toAbsolutePath().normalize())
+                .collect(Collectors.toList());
+        }
+        Path projectDir = Paths.get(".").toAbsolutePath().normalize();
+        return moduleTypes.stream()
+            .map(type -> projectDir.resolve(Paths.get(moduleName, type, "build", "classes", "java", "main")))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,117 @@
+package dk.teamonline.batch;
+
+import dk.teamonline.classfile.ClassFiles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Finds modules to verify, either on classpath or from project layout.
+ *
+ * Modules are found by package pattern of kind {prefix}.{moduleName}.{moduleType}, e.g. dk.teamonline.%s.%s:
+ * module is taken if package of at least 1 of module types is present.
+ */
+public class ModuleDiscovery {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModuleDiscovery.class);
+    private static final String SOURCE_PART = "src/main/java";
+
+    private ModuleDiscovery() {
+        throw new UnsupportedOperationException("Utils class is not supposed to have instances");
+    }
+
+    public static SortedSet<String> fromClasspath(String packagePattern, List<String> moduleTypes, ClassLoader classLoader) {
+        SortedSet<String> modules = new TreeSet<>();
+        int placeholderIndex = packagePattern.indexOf("%s");
+        if (placeholderIndex < 0 || !packagePattern.substring(placeholderIndex).equals("%s.%s")) {
+            LOGGER.warn("Modules can't be discovered on classpath by package pattern {}", packagePattern);
+            return modules;
+        }
+        String prefixPath = packagePattern.substring(0, placeholderIndex).replace('.', '/');
+        try {
+            Enumeration<URL> roots = classLoader.getResources(prefixPath.substring(0, prefixPath.length() - 1));
+            while (roots.hasMoreElements()) {
+                URL root = roots.nextElement();
+                if ("file".equals(root.getProtocol())) {
+                    modules.addAll(fromDirectory(Paths.get(root.toURI()), moduleTypes));
+                } else if ("jar".equals(root.getProtocol())) {
+                    // jar of URL connection is cached by JDK and stays open, own one is closed right after listing
+                    Path jarPath = ClassFiles.getRoot(root, prefixPath.substring(0, prefixPath.length() - 1));
+                    try (JarFile jar = new JarFile(jarPath.toFile())) {
+                        modules.addAll(fromJar(jar, prefixPath, moduleTypes));
+                    }
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            LOGGER.warn("Classpath can't be read to discover modules: {}", e.toString());
+        }
+        return modules;
+    }
+
+    /**
+     * @return jars and classes directories of packages of module, as class loader finds them
+     */
+    public static List<Path> getRoots(List<String> packagesToScan, ClassLoader classLoader) {
+        Set<Path> roots = new LinkedHashSet<>();
+        for (String packageToScan : packagesToScan) {
+            String packagePath = packageToScan.replace('.', '/');
+            try {
+                Enumeration<URL> packageUrls = classLoader.getResources(packagePath);
+                while (packageUrls.hasMoreElements()) {
+                    Path root = ClassFiles.getRoot(packageUrls.nextElement(), packagePath);
+                    if (root != null) {
+                        roots.add(root);
+                    }
+                }
+            } catch (IOException | URISyntaxException e) {
+                LOGGER.warn("Roots of package {} can't be found: {}", packageToScan, e.toString());
+            }
+        }
+        return new ArrayList<>(roots);
+    }
+
+    /**
+     * @return modules of project with layout {projectDir}/{moduleName}/{moduleType}/src/main/java
+     */
+    public static SortedSet<String> fromProjectLayout(Path projectDir, List<String> moduleTypes) {
+        SortedSet<String> modules = new TreeSet<>();
+        try (Stream<Path> moduleDirs = Files.list(projectDir)) {
+            moduleDirs.filter(Files::isDirectory)
+                .filter(moduleDir -> moduleTypes.stream().anyMatch(type -> Files.isDirectory(moduleDir.resolve(type).resolve(SOURCE_PART))))
+                .forEach(moduleDir -> modules.add(moduleDir.getFileName().toString()));
+        } catch (IOException e) {
+            LOGGER.warn("Project directory {} can't be read to discover modules: {}", projectDir, e.toString());
+        }
+        return modules;
+    }
+
+    private static Set<String> fromDirectory(Path packageDir, List<String> moduleTypes) throws IOException {
+        Set<String> modules = new HashSet<>();
+        try (Stream<Path> moduleDirs = Files.list(packageDir)) {
+            moduleDirs.filter(Files::isDirectory)
+                .filter(moduleDir -> moduleTypes.stream().anyMatch(type -> Files.isDirectory(moduleDir.resolve(type))))
+                .forEach(moduleDir -> modules.add(moduleDir.getFileName().toString()));
+        }
+        return modules;
+    }
+
+    private static Set<String> fromJar(JarFile jar, String prefixPath, List<String> moduleTypes) {
+        Set<String> modules = new HashSet<>();
+        jar.stream()
+            .map(JarEntry::getName)
+            .filter(name -> name.startsWith(prefixPath) && name.endsWith(".class"))
+            .map(name -> name.substring(prefixPath.length()).split("/"))
+            .filter(segments -> segments.length > 2 && moduleTypes.contains(segments[1]))
+            .forEach(segments -> modules.add(segments[0]));
+        return modules;
+    }
+}
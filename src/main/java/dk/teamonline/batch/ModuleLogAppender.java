@@ -0,0 +1,70 @@
+package dk.teamonline.batch;
+
+import org.apache.log4j.FileAppender;
+import org.apache.log4j.Logger;
+import org.apache.log4j.MDC;
+import org.apache.log4j.PatternLayout;
+import org.apache.log4j.spi.Filter;
+import org.apache.log4j.spi.LoggingEvent;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.Executor;
+
+/**
+ * Writes report of 1 module into its own log file, when several modules are verified in the same JVM.
+ *
+ * Only events logged while module is bound to current thread go to module file: by task of module (see {@link #run(Runnable)})
+ * or by its tasks on shared pools (see {@link #bind(Executor)}); file name is the same as for single module run.
+ * Binding is set and cleared by every task, as MDC of log4j is inherited by threads pools create.
+ */
+public class ModuleLogAppender implements AutoCloseable {
+    static final String MODULE_KEY = "userTrack.module";
+
+    private final String moduleName;
+    private final FileAppender appender;
+
+    private ModuleLogAppender(String moduleName, FileAppender appender) {
+        this.moduleName = moduleName;
+        this.appender = appender;
+    }
+
+    public static ModuleLogAppender open(String moduleName, String logPath) throws IOException {
+        String file = Paths.get(logPath, "userTrack-analyzer_" + moduleName + ".log").toString();
+        FileAppender appender = new FileAppender(new PatternLayout("%m%n"), file, false);
+        appender.setName(MODULE_KEY + '.' + moduleName);
+        appender.addFilter(new Filter() {
+            @Override
+            public int decide(LoggingEvent event) {
+                return moduleName.equals(event.getMDC(MODULE_KEY)) ? NEUTRAL : DENY;
+            }
+        });
+        Logger.getRootLogger().addAppender(appender);
+        return new ModuleLogAppender(moduleName, appender);
+    }
+
+    /**
+     * Runs task on current thread, events it logs go to module file.
+     */
+    public void run(Runnable task) {
+        MDC.put(MODULE_KEY, moduleName);
+        try {
+            task.run();
+        } finally {
+            MDC.remove(MODULE_KEY);
+        }
+    }
+
+    /**
+     * @return executor which runs tasks on given one, events they log go to module file
+     */
+    public Executor bind(Executor executor) {
+        return task -> executor.execute(() -> run(task));
+    }
+
+    @Override
+    public void close() {
+        Logger.getRootLogger().removeAppender(appender);
+        appender.close();
+    }
+}
@@ -0,0 +1,16 @@
+package dk.teamonline.batch;
+
+import org.apache.log4j.spi.Filter;
+import org.apache.log4j.spi.LoggingEvent;
+
+/**
+ * Filter of appenders of whole run, e.g. of root file appender in log4j.xml: events logged while module is bound
+ * by {@link ModuleLogAppender} are denied, so reports of modules verified in 1 JVM go only to their own files.
+ */
+public class UnboundEventFilter extends Filter {
+
+    @Override
+    public int decide(LoggingEvent event) {
+        return event.getMDC(ModuleLogAppender.MODULE_KEY) != null ? DENY : NEUTRAL;
+    }
+}
@@ -0,0 +1,338 @@
+package dk.teamonline.cache;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import dk.teamonline.classfile.ClassFiles;
+import dk.teamonline.domain.ControllerReport;
+import dk.teamonline.metrics.Counter;
+import dk.teamonline.metrics.Metrics;
+import dk.teamonline.resolvers.MethodParamNamesResolver;
+import dk.teamonline.rules.UserTrackRules;
+import dk.teamonline.utils.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent cache of controller verification results between runs.
+ *
+ * Entry of controller is valid while content hash of its class file and of every type its verification
+ * depended on (@UserTrackParameter types, types walked by expressions and their superclasses) are unchanged,
+ * as well as content of source files parameter names of controller were taken from.
+ * Entry of package is valid while none of class files of package and its subpackages is added, removed or changed,
+ * then package has the same controllers and is replayed from their entries without being scanned.
+ * Only entries of controllers and packages met during run are saved, so removed ones don't stay in cache.
+ * Cache is valid only for the same configuration: rules configured at runtime (disabled ones, custom rules of classpath)
+ * and source fallback are written next to format version, and cache of other configuration is ignored as outdated one.
+ */
+public class AnalysisCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnalysisCache.class);
+    // should be increased every time verification rules or report format change
+    private static final int FORMAT_VERSION = 10;
+
+    private final Path file;
+    private final Map<String, Entry> previousEntries;
+    private final Map<String, PackageEntry> previousPackages;
+    private final Map<String, Entry> currentEntries = new ConcurrentHashMap<>();
+    private final Map<String, PackageEntry> currentPackages = new ConcurrentHashMap<>();
+    private final Map<String, String> classHashes = new ConcurrentHashMap<>();
+    private final Map<String, String> packageHashes = new ConcurrentHashMap<>();
+    private final Map<Path, String> sourceHashes = new ConcurrentHashMap<>();
+
+    private AnalysisCache(Path file, Map<String, Entry> previousEntries, Map<String, PackageEntry> previousPackages) {
+        this.file = file;
+        this.previousEntries = previousEntries;
+        this.previousPackages = previousPackages;
+    }
+
+    private static AnalysisCache empty(Path file) {
+        return new AnalysisCache(file, Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    public static AnalysisCache disabled() {
+        return empty(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static AnalysisCache load(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return empty(file);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION || !in.readUTF().equals(getConfigFingerprint())) {
+                LOGGER.info("Analysis cache {} has outdated format or configuration and is ignored", file);
+                return empty(file);
+            }
+            Map<String, Entry> entries = (Map<String, Entry>) in.readObject();
+            return new AnalysisCache(file, entries, (Map<String, PackageEntry>) in.readObject());
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            LOGGER.warn("Analysis cache {} can't be read and is ignored: {}", file, e.toString());
+            return empty(file);
+        }
+    }
+
+    public boolean isEnabled() {
+        return file != null;
+    }
+
+    /**
+     * @return report of controller from previous run if neither controller nor its dependencies were changed
+     */
+    public Optional<ControllerReport> get(Class<?> controllerClass) {
+        return get(controllerClass.getName(), controllerClass.getClassLoader());
+    }
+
+    /**
+     * Lookup of controller which is not loaded, class files are read from class loader.
+     */
+    public Optional<ControllerReport> get(String controllerName, ClassLoader classLoader) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        Optional<Entry> entry = getValidEntry(controllerName, classLoader);
+        if (entry.isEmpty()) {
+            Metrics.count(Counter.ANALYSIS_CACHE_MISSES);
+            return Optional.empty();
+        }
+        Metrics.count(Counter.ANALYSIS_CACHE_HITS);
+        currentEntries.put(controllerName, entry.get());
+        return Optional.of(entry.get().report);
+    }
+
+    /**
+     * Lookup of package before it's scanned, class files of package are read from class loader.
+     *
+     * @return reports of package controllers from previous run in report order if package has the same class files
+     * and none of its controllers and their dependencies were changed
+     */
+    public Optional<List<ControllerReport>> getPackage(String packageName, ClassLoader classLoader) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        PackageEntry packageEntry = previousPackages.get(packageName);
+        String packageHash = getPackageHash(packageName, classLoader);
+        if (packageEntry == null || packageHash.isEmpty() || !packageEntry.packageHash.equals(packageHash)) {
+            Metrics.count(Counter.PACKAGE_CACHE_MISSES);
+            return Optional.empty();
+        }
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        for (String controllerName : packageEntry.controllerNames) {
+            Optional<Entry> entry = getValidEntry(controllerName, classLoader);
+            if (entry.isEmpty()) {
+                Metrics.count(Counter.PACKAGE_CACHE_MISSES);
+                return Optional.empty();
+            }
+            entries.put(controllerName, entry.get());
+        }
+        Metrics.count(Counter.PACKAGE_CACHE_HITS);
+        Metrics.count(Counter.ANALYSIS_CACHE_HITS, entries.size());
+        currentEntries.putAll(entries);
+        currentPackages.put(packageName, packageEntry);
+        return Optional.of(entries.values().stream().map(entry -> entry.report).collect(Collectors.toList()));
+    }
+
+    /**
+     * Records controllers found by scan of package. Package is replayed by next run only if all its controllers
+     * get entries, i.e. none of them fails.
+     *
+     * @param controllerNames names of package controllers in report order
+     */
+    public void putPackage(String packageName, ClassLoader classLoader, List<String> controllerNames) {
+        if (!isEnabled()) {
+            return;
+        }
+        String packageHash = getPackageHash(packageName, classLoader);
+        if (!packageHash.isEmpty()) {
+            currentPackages.put(packageName, new PackageEntry(packageHash, new ArrayList<>(controllerNames)));
+        }
+    }
+
+    private Optional<Entry> getValidEntry(String controllerName, ClassLoader classLoader) {
+        Entry entry = previousEntries.get(controllerName);
+        boolean isValid = entry != null
+            && entry.classHash.equals(getClassHash(controllerName, classLoader))
+            && entry.dependencyHashes.entrySet().stream()
+            .allMatch(dependency -> dependency.getValue().equals(getClassHash(dependency.getKey(), classLoader)))
+            && entry.sourceHashes.entrySet().stream()
+            .allMatch(source -> source.getValue().equals(getSourceHash(Paths.get(source.getKey()))));
+        return isValid ? Optional.of(entry) : Optional.empty();
+    }
+
+    /**
+     * @param namesResolver resolver parameter names of controller were taken from
+     */
+    public void put(Class<?> controllerClass, ControllerReport report, Collection<Class<?>> reachedTypes,
+                    MethodParamNamesResolver namesResolver) {
+        if (!isEnabled()) {
+            return;
+        }
+        ClassLoader classLoader = controllerClass.getClassLoader();
+        Map<String, String> dependencyHashes = new HashMap<>();
+        for (Class<?> reachedType : reachedTypes) {
+            Class<?> type = reachedType;
+            while (type.isArray()) {
+                type = type.getComponentType();
+            }
+            // JDK types (loaded by bootstrap loader) are not supposed to change between runs
+            for (; type != null && type.getClassLoader() != null; type = type.getSuperclass()) {
+                dependencyHashes.computeIfAbsent(type.getName(), className -> getClassHash(className, classLoader));
+            }
+        }
+        // endpoints can be declared by superclasses of controller
+        Map<String, String> sourceHashes = new HashMap<>();
+        for (Class<?> type = controllerClass; type != null && type.getClassLoader() != null; type = type.getSuperclass()) {
+            putSourceHash(type.getName(), namesResolver, sourceHashes);
+        }
+        currentEntries.put(controllerClass.getName(),
+            new Entry(getClassHash(controllerClass.getName(), classLoader), dependencyHashes, sourceHashes, report));
+    }
+
+    /**
+     * The same as {@link #put(Class, ControllerReport, Collection, MethodParamNamesResolver)} for controller which is not loaded:
+     * superclasses of reached types are read from their class files.
+     *
+     * @param reachedTypeNames names of reached types, arrays as Type[]
+     */
+    public void put(String controllerName, ClassLoader classLoader, ControllerReport report, Collection<String> reachedTypeNames,
+                    MethodParamNamesResolver namesResolver) {
+        if (!isEnabled()) {
+            return;
+        }
+        Map<String, String> dependencyHashes = new HashMap<>();
+        for (String reachedTypeName : reachedTypeNames) {
+            String typeName = reachedTypeName;
+            while (typeName.endsWith("[]")) {
+                typeName = typeName.substring(0, typeName.length() - 2);
+            }
+            for (; typeName != null && !isPlatformClass(typeName); typeName = ClassFiles.getSuperclassName(typeName, classLoader)) {
+                dependencyHashes.computeIfAbsent(typeName, className -> getClassHash(className, classLoader));
+            }
+        }
+        Map<String, String> sourceHashes = new HashMap<>();
+        for (String typeName = controllerName; typeName != null && !isPlatformClass(typeName);
+             typeName = ClassFiles.getSuperclassName(typeName, classLoader)) {
+            putSourceHash(typeName, namesResolver, sourceHashes);
+        }
+        currentEntries.put(controllerName,
+            new Entry(getClassHash(controllerName, classLoader), dependencyHashes, sourceHashes, report));
+    }
+
+    public void save() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path tempFile = FileUtils.createTempSibling(file);
+            try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(getConfigFingerprint());
+                out.writeObject(new HashMap<>(currentEntries));
+                out.writeObject(new HashMap<>(currentPackages));
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Analysis cache {} can't be saved: {}", file, e.toString());
+        }
+    }
+
+    // configuration verification results depend on besides class files
+    private static String getConfigFingerprint() {
+        String rules = UserTrackRules.getDefault().getRules().stream()
+            .map(rule -> rule.getClass().getName())
+            .sorted()
+            .collect(Collectors.joining(","));
+        return rules + ";source.fallback=" + Boolean.parseBoolean(System.getProperty("source.fallback", "true"));
+    }
+
+    // without -parameters and debug info names of parameters are taken from source, renamed parameter doesn't change class file
+    private void putSourceHash(String className, MethodParamNamesResolver namesResolver, Map<String, String> sourceHashes) {
+        namesResolver.getSourceFile(className).ifPresent(sourceFile ->
+            sourceHashes.put(sourceFile.toString(), getSourceHash(sourceFile)));
+    }
+
+    // hash of source file content, empty if there is no source file
+    private String getSourceHash(Path sourceFile) {
+        return sourceHashes.computeIfAbsent(sourceFile, file -> {
+            try {
+                return Files.isRegularFile(file) ? Hashing.murmur3_128().hashBytes(Files.readAllBytes(file)).toString() : "";
+            } catch (IOException e) {
+                return "";
+            }
+        });
+    }
+
+    // primitives and JDK types are not supposed to change between runs
+    private static boolean isPlatformClass(String className) {
+        return className.indexOf('.') < 0
+            || ClassLoader.getPlatformClassLoader().getResource(ClassFiles.getClassFileName(className)) != null;
+    }
+
+    private String getClassHash(String className, ClassLoader classLoader) {
+        return classHashes.computeIfAbsent(className, name -> {
+            ClassLoader loader = classLoader != null ? classLoader : ClassLoader.getSystemClassLoader();
+            try (InputStream classFile = loader.getResourceAsStream(ClassFiles.getClassFileName(name))) {
+                return classFile == null ? "" : Hashing.murmur3_128().hashBytes(ByteStreams.toByteArray(classFile)).toString();
+            } catch (IOException e) {
+                return "";
+            }
+        });
+    }
+
+    // hash of names and content of all class files of package and its subpackages in all its roots, empty if they can't be read;
+    // it's computed once per run, before package is scanned
+    private String getPackageHash(String packageName, ClassLoader classLoader) {
+        return packageHashes.computeIfAbsent(packageName, name -> {
+            Hasher hasher = Hashing.murmur3_128().newHasher();
+            try {
+                ClassFiles.forEachClassFile(name, classLoader, (location, classFileName, classFile) -> hasher
+                    .putString(classFileName, StandardCharsets.UTF_8)
+                    .putBytes(ByteStreams.toByteArray(classFile)));
+                return hasher.hash().toString();
+            } catch (IOException | URISyntaxException e) {
+                LOGGER.warn("Class files of package {} can't be hashed: {}", name, e.toString());
+                return "";
+            }
+        });
+    }
+
+    private static class Entry implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String classHash;
+        private final Map<String, String> dependencyHashes;
+        private final Map<String, String> sourceHashes;
+        private final ControllerReport report;
+
+        private Entry(String classHash, Map<String, String> dependencyHashes, Map<String, String> sourceHashes,
+                      ControllerReport report) {
+            this.classHash = classHash;
+            this.dependencyHashes = dependencyHashes;
+            this.sourceHashes = sourceHashes;
+            this.report = report;
+        }
+    }
+
+    private static class PackageEntry implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String packageHash;
+        private final List<String> controllerNames;
+
+        private PackageEntry(String packageHash, List<String> controllerNames) {
+            this.packageHash = packageHash;
+            this.controllerNames = controllerNames;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package dk.teamonline.classfile;
+
+import dk.eg.sensum.userTrack.domain.UserTrackAction;
+import dk.teamonline.domain.DeclaredEndpoint;
+import dk.teamonline.domain.DeclaredEndpoint.Parameter;
+import dk.teamonline.domain.DeclaredEndpoint.TrackParameter;
+import dk.teamonline.domain.WebController;
+import dk.teamonline.metrics.Counter;
+import dk.teamonline.metrics.Metrics;
+import dk.teamonline.metrics.Phase;
+import dk.teamonline.metrics.PhaseTimer;
+import dk.teamonline.resolvers.MethodParamNamesResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Controller read straight from its class file (or from index of class files), counterpart of {@link WebController}
+ * which doesn't load controller class. Endpoints are set up as {@link DeclaredEndpoint}s
+ * with the same mapping, URL and parameter names rules.
+ */
+public class ClassFileController {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassFileController.class);
+
+    private final ControllerDeclaration declaration;
+    private final ClassFileTypes types;
+    private final String relativeUrl;
+    private final List<DeclaredEndpoint<ClassFileType>> endpoints = new ArrayList<>();
+
+    /**
+     * @param classLocation path of class file or of its jar
+     */
+    public ClassFileController(ControllerDeclaration declaration, String classLocation, ClassFileTypes types) {
+        this.declaration = declaration;
+        this.types = types;
+        this.relativeUrl = WebController.resolveUrl(classLocation, declaration.getClassRelativeUrl(), declaration.isExternalWebService());
+    }
+
+    public String getName() {
+        return declaration.getName();
+    }
+
+    public String getSimpleName() {
+        return ClassFiles.getSimpleName(declaration.getName());
+    }
+
+    public String getRelativeUrl() {
+        return relativeUrl;
+    }
+
+    public ClassFileTypes getTypes() {
+        return types;
+    }
+
+    public List<DeclaredEndpoint<ClassFileType>> getEndpoints() {
+        return Collections.unmodifiableList(endpoints);
+    }
+
+    /**
+     * @return endpoint methods without @UserTracking, as {@link java.lang.reflect.Method#toString()} prints them
+     */
+    public List<String> getMethodsWithoutUserTracking() {
+        return declaration.getMethodsWithoutUserTracking();
+    }
+
+    /**
+     * @param namesResolver resolver of names by signature for methods whose class file has no parameter names
+     */
+    public void setupEndpoints(MethodParamNamesResolver namesResolver) {
+        PhaseTimer timer = Metrics.start(Phase.SETUP_ENDPOINTS);
+        try {
+            declaration.getEndpoints().stream()
+                .map(endpoint -> createEndpoint(endpoint, namesResolver))
+                .forEach(endpoints::add);
+        } finally {
+            timer.stop();
+        }
+        Metrics.count(Counter.ENDPOINTS, endpoints.size());
+        Metrics.count(Counter.METHODS_WITHOUT_USER_TRACKING, declaration.getMethodsWithoutUserTracking().size());
+    }
+
+    private DeclaredEndpoint<ClassFileType> createEndpoint(ControllerDeclaration.Endpoint endpoint, MethodParamNamesResolver namesResolver) {
+        String methodUrl = (relativeUrl + '/' + endpoint.getPath()).replaceAll("/{2,}", "/")
+            // correlation to Postman
+            .replace("{", "{{")
+            .replace("}", "}}");
+        List<TrackParameter<ClassFileType>> userTrackParameters = new ArrayList<>();
+        for (ControllerDeclaration.TrackParameter parameter : endpoint.getUserTrackParameters()) {
+            userTrackParameters.add(new TrackParameter<>(parameter.getExpression(), types.forName(parameter.getTypeName()),
+                parameter.getTypeName(), ClassFiles.getSimpleName(parameter.getTypeName())));
+        }
+        List<String> parameterTypeNames = endpoint.getParameterTypeNames();
+        List<String> names = getParameterNames(endpoint, parameterTypeNames, namesResolver);
+        boolean isNamesResolved = names.size() == parameterTypeNames.size();
+        Metrics.count(isNamesResolved ? Counter.PARAM_NAMES_RESOLVED : Counter.PARAM_NAMES_UNRESOLVED);
+        if (!isNamesResolved) {
+            LOGGER.warn("Parameter names of {}#{} are unavailable: class file has no parameter names and its source isn't found",
+                getName(), endpoint.getMethodName());
+            names = endpoint.getParameters().stream()
+                .map(ControllerDeclaration.Parameter::getReflectedName)
+                .collect(Collectors.toList());
+        }
+        List<Parameter<ClassFileType>> parameters = new ArrayList<>();
+        for (int i = 0; i < parameterTypeNames.size(); i++) {
+            ControllerDeclaration.Parameter parameter = endpoint.getParameters().get(i);
+            ClassFileType type = parameter.isGeneric()
+                ? types.forMethodParameter(getName(), endpoint.getMethodName(), parameterTypeNames, i)
+                : types.forName(parameter.getTypeName());
+            parameters.add(new Parameter<>(names.get(i), parameter.getReflectedName(), type, parameter.getGenericTypeName(),
+                ClassFiles.getSimpleName(parameter.getTypeName()), parameter.getAnnotationNames()));
+        }
+        return new DeclaredEndpoint<>(getName(), endpoint.getMethodName(), ClassFiles.getSimpleName(endpoint.getReturnTypeName()),
+            methodUrl, endpoint.getHttpMethods(), UserTrackAction.valueOf(endpoint.getAction()), parameters, userTrackParameters,
+            isNamesResolved);
+    }
+
+    // names of class file, otherwise of sources by signature
+    private List<String> getParameterNames(ControllerDeclaration.Endpoint endpoint, List<String> parameterTypeNames,
+                                           MethodParamNamesResolver namesResolver) {
+        return endpoint.getParameterNames().orElseGet(() -> namesResolver.getParameterNames(getName(),
+            endpoint.getMethodName() + '(' + String.join(",", parameterTypeNames) + ')'));
+    }
+}
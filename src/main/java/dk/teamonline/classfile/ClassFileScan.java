@@ -0,0 +1,157 @@
+package dk.teamonline.classfile;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import dk.teamonline.metrics.Counter;
+import dk.teamonline.metrics.Metrics;
+import dk.teamonline.metrics.Phase;
+import dk.teamonline.metrics.PhaseTimer;
+import dk.teamonline.pipeline.ControllerScan;
+import dk.teamonline.pipeline.PackageScan;
+import dk.teamonline.resolvers.CompositeMethodParamNamesResolver;
+import dk.teamonline.resolvers.ControllerSourceParser;
+import dk.teamonline.resolvers.MethodParamNamesResolver;
+import dk.teamonline.resolvers.ThoughtworksMethodParamNamesResolver;
+import javassist.bytecode.ClassFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Classloading-free counterpart of {@link dk.teamonline.pipeline.ClasspathScan}: controllers are found
+ * by annotations in raw class files of packages, neither controllers nor their dependencies are loaded.
+ *
+ * Controllers are classes annotated with @Controller, @RestController or @ExternalWebService and their subclasses
+ * among scanned classes, as Reflections finds them. Class files are read once for all packages, lazily on first request.
+ */
+public class ClassFileScan implements ControllerScan {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassFileScan.class);
+    private static final Set<String> CONTROLLER_ANNOTATIONS = Set.of(
+        "org.springframework.stereotype.Controller",
+        "org.springframework.web.bind.annotation.RestController",
+        "dk.teamonline.annotation.ExternalWebService");
+
+    private final ClassLoader classLoader;
+    private final ClassFileTypes types;
+    private final Supplier<List<ScannedController>> controllers;
+
+    public ClassFileScan(List<String> packagesToScan, ClassLoader classLoader) {
+        this.classLoader = classLoader;
+        this.types = new ClassFileTypes(classLoader);
+        this.controllers = Suppliers.memoize(() -> scanControllers(packagesToScan));
+    }
+
+    @Override
+    public PackageScan scan(String packageToScan, ControllerSourceParser sourceParser) {
+        String packagePrefix = packageToScan + '.';
+        List<ClassFileController> packageControllers = controllers.get().stream()
+            .filter(controller -> controller.declaration.getName().startsWith(packagePrefix))
+            .map(controller -> new ClassFileController(controller.declaration, controller.location, types))
+            .collect(Collectors.toList());
+        return PackageScan.ofClassFiles(packageToScan, packageControllers, createNamesResolver(sourceParser));
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    /**
+     * Class files have names of parameters, unless they are compiled without -parameters and debug info:
+     * names of such methods are taken from sources.
+     */
+    static MethodParamNamesResolver createNamesResolver(ControllerSourceParser sourceParser) {
+        List<MethodParamNamesResolver> resolvers = new ArrayList<>();
+        if (sourceParser != null) {
+            resolvers.add(new ThoughtworksMethodParamNamesResolver(sourceParser));
+        }
+        return new CompositeMethodParamNamesResolver(resolvers);
+    }
+
+    /**
+     * @return controllers among class files, sorted by simple name
+     */
+    static List<ClassFile> findControllers(Collection<ClassFile> classFiles) {
+        // first class file of name wins, as it does for class loading
+        Map<String, ClassFile> classes = new LinkedHashMap<>();
+        classFiles.forEach(classFile -> classes.putIfAbsent(classFile.getName(), classFile));
+        Map<String, Boolean> controllerFlags = new HashMap<>();
+        return classes.values().stream()
+            .filter(classFile -> isController(classFile.getName(), classes, controllerFlags))
+            .sorted(Comparator.comparing(classFile -> ClassFiles.getSimpleName(classFile.getName())))
+            .collect(Collectors.toList());
+    }
+
+    private List<ScannedController> scanControllers(List<String> packagesToScan) {
+        PhaseTimer timer = Metrics.start(Phase.CLASSPATH_SCAN);
+        try {
+            List<ScannedController> controllers = findControllers(packagesToScan);
+            Metrics.count(Counter.CONTROLLERS, controllers.size());
+            return controllers;
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private List<ScannedController> findControllers(List<String> packagesToScan) {
+        List<ClassFile> classFiles = new ArrayList<>();
+        Map<ClassFile, String> locations = new IdentityHashMap<>();
+        for (String packageToScan : packagesToScan) {
+            forEachClassFile(packageToScan, (classFile, location) -> {
+                classFiles.add(classFile);
+                locations.put(classFile, location);
+            });
+        }
+        return findControllers(classFiles).stream()
+            .map(classFile -> new ScannedController(ControllerDeclaration.read(classFile), locations.get(classFile)))
+            .collect(Collectors.toList());
+    }
+
+    private static boolean isController(String className, Map<String, ClassFile> classes, Map<String, Boolean> controllerFlags) {
+        Boolean isController = controllerFlags.get(className);
+        if (isController != null) {
+            return isController;
+        }
+        ClassFile classFile = classes.get(className);
+        // supertypes out of scanned packages are not known, as they are not for Reflections
+        if (classFile == null) {
+            return false;
+        }
+        controllerFlags.put(className, false);
+        isController = ClassFiles.getAnnotations(classFile).stream()
+            .anyMatch(annotation -> CONTROLLER_ANNOTATIONS.contains(annotation.getTypeName()))
+            || Stream.concat(Stream.ofNullable(classFile.getSuperclass()), Arrays.stream(classFile.getInterfaces()))
+            .anyMatch(supertype -> isController(supertype, classes, controllerFlags));
+        controllerFlags.put(className, isController);
+        return isController;
+    }
+
+    private void forEachClassFile(String packageToScan, BiConsumer<ClassFile, String> consumer) {
+        try {
+            ClassFiles.forEachClassFile(packageToScan, classLoader,
+                (location, name, classFile) -> consumer.accept(ClassFiles.read(classFile), location));
+        } catch (IOException | UncheckedIOException | URISyntaxException e) {
+            LOGGER.warn("Class files of package {} can't be read: {}", packageToScan, e.toString());
+        }
+    }
+
+    /**
+     * Controller with path of its location (package directory or jar), location gives module name of controller URL.
+     */
+    private static class ScannedController {
+        private final ControllerDeclaration declaration;
+        private final String location;
+
+        private ScannedController(ControllerDeclaration declaration, String location) {
+            this.declaration = declaration;
+            this.location = location;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package dk.teamonline.classfile;
+
+import com.google.common.base.Suppliers;
+import org.springframework.core.ResolvableType;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Type of class file model: known by name, resolved (and so loaded) only when expression path has to be walked.
+ * Types are equal by name, so set of reached types is a set of classes verification depends on.
+ */
+public class ClassFileType {
+    private final String name;
+    private final Supplier<ResolvableType> resolvableType;
+
+    ClassFileType(String name, Supplier<ResolvableType> resolvableType) {
+        this.name = name;
+        this.resolvableType = Suppliers.memoize(resolvableType::get);
+    }
+
+    static ClassFileType of(ResolvableType resolvableType) {
+        Class<?> clazz = resolvableType.resolve(Object.class);
+        return new ClassFileType(clazz.getTypeName(), () -> resolvableType);
+    }
+
+    /**
+     * @return name as {@link Class#getTypeName()} gives it
+     */
+    public String getName() {
+        return name;
+    }
+
+    public ResolvableType resolve() {
+        return resolvableType.get();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return name.equals(((ClassFileType) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,91 @@
+package dk.teamonline.classfile;
+
+import dk.teamonline.DeclaredEndpointVerifier;
+import dk.teamonline.utils.SpelExpressions;
+import dk.teamonline.utils.SpelExpressions.PathTypes;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Types of classes of 1 class loader in class file model.
+ *
+ * @Entity check reads class file of type; expression paths are walked in reflection model,
+ * so classes are loaded (without initialization) only for expressions with path after parameter name.
+ */
+public class ClassFileTypes implements DeclaredEndpointVerifier.Types<ClassFileType> {
+    private static final String ENTITY_ANNOTATION = "javax.persistence.Entity";
+    private static final PathTypes<ResolvableType> RESOLVABLE_TYPES = SpelExpressions.getResolvableTypes();
+
+    private final ClassLoader classLoader;
+    private final Map<String, Boolean> entities = new ConcurrentHashMap<>();
+
+    public ClassFileTypes(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    public ClassFileType forName(String typeName) {
+        return new ClassFileType(typeName, () -> ResolvableType.forClass(loadClass(typeName)));
+    }
+
+    /**
+     * Type of parameter of generic method is resolved from method itself, so declaring class is loaded for it.
+     */
+    public ClassFileType forMethodParameter(String className, String methodName, List<String> parameterTypeNames, int index) {
+        return new ClassFileType(parameterTypeNames.get(index), () -> {
+            Class<?>[] parameterTypes = parameterTypeNames.stream().map(this::loadClass).toArray(Class<?>[]::new);
+            Method method = Arrays.stream(loadClass(className).getDeclaredMethods())
+                .filter(declaredMethod -> declaredMethod.getName().equals(methodName))
+                .filter(declaredMethod -> Arrays.equals(declaredMethod.getParameterTypes(), parameterTypes))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Method " + methodName + " is not found in " + className));
+            return ResolvableType.forMethodParameter(new MethodParameter(method, index));
+        });
+    }
+
+    @Override
+    public boolean isEntity(ClassFileType type) {
+        return entities.computeIfAbsent(type.getName(), typeName -> ClassFiles.read(typeName, classLoader)
+            .map(classFile -> ClassFiles.hasAnnotation(classFile, ENTITY_ANNOTATION))
+            .orElse(false));
+    }
+
+    @Override
+    public Optional<ClassFileType> getPropertyType(ClassFileType ownerType, String propertyName) {
+        return RESOLVABLE_TYPES.getPropertyType(ownerType.resolve(), propertyName).map(ClassFileType::of);
+    }
+
+    @Override
+    public Optional<ClassFileType> getIndexedType(ClassFileType type) {
+        return RESOLVABLE_TYPES.getIndexedType(type.resolve()).map(ClassFileType::of);
+    }
+
+    @Override
+    public Optional<ClassFileType> getReturnType(ClassFileType ownerType, String methodName, int argumentCount) {
+        return RESOLVABLE_TYPES.getReturnType(ownerType.resolve(), methodName, argumentCount).map(ClassFileType::of);
+    }
+
+    @Override
+    public ClassFileType getUncheckedType() {
+        return ClassFileType.of(RESOLVABLE_TYPES.getUncheckedType());
+    }
+
+    private Class<?> loadClass(String typeName) {
+        try {
+            return ClassUtils.forName(typeName, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new IllegalStateException("Class " + typeName + " can't be loaded", e);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package dk.teamonline.classfile;
+
+import dk.teamonline.metrics.Counter;
+import dk.teamonline.metrics.Metrics;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.annotation.Annotation;
+import javassist.bytecode.annotation.ArrayMemberValue;
+import javassist.bytecode.annotation.MemberValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Helpers to read class files and their annotations without loading classes.
+ * Type names are the ones of {@link Class#getTypeName()}: binary names, primitives and arrays as Type[].
+ */
+public class ClassFiles {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassFiles.class);
+    private static final Map<Character, String> PRIMITIVE_NAMES = Map.of(
+        'Z', "boolean",
+        'B', "byte",
+        'C', "char",
+        'S', "short",
+        'I', "int",
+        'J', "long",
+        'F', "float",
+        'D', "double",
+        'V', "void"
+    );
+
+    private ClassFiles() {
+        throw new UnsupportedOperationException("Utils class is not supposed to have instances");
+    }
+
+    /**
+     * @param packageUrl URL of package directory, as class loader finds it
+     * @return jar or classes directory of package, null if package is not in file system
+     */
+    public static Path getRoot(URL packageUrl, String packagePath) throws IOException, URISyntaxException {
+        if ("file".equals(packageUrl.getProtocol())) {
+            Path packageDir = Paths.get(packageUrl.toURI());
+            return packageDir.getRoot().resolve(packageDir.subpath(0, packageDir.getNameCount() - packagePath.split("/").length));
+        } else if ("jar".equals(packageUrl.getProtocol())) {
+            return Paths.get(((JarURLConnection) packageUrl.openConnection()).getJarFileURL().toURI());
+        }
+        return null;
+    }
+
+    /**
+     * Visits class files of package and its subpackages in every root of package, package directories and jars alike.
+     * Jars are opened by own instances instead of JVM-wide cached ones of jar URLs, so they are closed right after visit.
+     *
+     * @param visitor gets path of location (package directory or jar), name of class file relative to location and its content
+     */
+    public static void forEachClassFile(String packageName, ClassLoader classLoader, ClassFileVisitor visitor)
+        throws IOException, URISyntaxException {
+        String packagePath = packageName.replace('.', '/');
+        Enumeration<URL> packageUrls = classLoader.getResources(packagePath);
+        while (packageUrls.hasMoreElements()) {
+            Path root = getRoot(packageUrls.nextElement(), packagePath);
+            if (root != null) {
+                forEachClassFile(root, packagePath, visitor);
+            }
+        }
+    }
+
+    /**
+     * Visits class files of package and its subpackages in single root.
+     *
+     * @param root classes directory or jar
+     * @param packagePath path of package, e.g. dk/teamonline; empty - all class files of root
+     * @param visitor gets path of location (package directory or jar), name of class file relative to location and its content
+     */
+    public static void forEachClassFile(Path root, String packagePath, ClassFileVisitor visitor) throws IOException {
+        if (Files.isDirectory(root)) {
+            Path packageDir = root.resolve(packagePath);
+            if (!Files.isDirectory(packageDir)) {
+                return;
+            }
+            String location = packageDir.toUri().getPath();
+            try (Stream<Path> files = Files.walk(packageDir)) {
+                for (Path file : files.filter(ClassFiles::isClassFile).sorted().collect(Collectors.toList())) {
+                    try (InputStream classFile = Files.newInputStream(file)) {
+                        visitor.visit(location, packageDir.relativize(file).toString(), classFile);
+                    }
+                }
+            }
+        } else {
+            String location = root.toUri().getPath();
+            String prefix = packagePath.isEmpty() ? "" : packagePath + '/';
+            try (JarFile jar = new JarFile(root.toFile())) {
+                List<JarEntry> entries = jar.stream()
+                    .filter(entry -> entry.getName().startsWith(prefix) && isClassFile(Paths.get(entry.getName())))
+                    .collect(Collectors.toList());
+                for (JarEntry entry : entries) {
+                    try (InputStream classFile = jar.getInputStream(entry)) {
+                        visitor.visit(location, entry.getName(), classFile);
+                    }
+                }
+            }
+        }
+    }
+
+    static boolean isClassFile(Path file) {
+        String fileName = file.getFileName().toString();
+        return fileName.endsWith(".class") && !fileName.equals("module-info.class") && !fileName.equals("package-info.class");
+    }
+
+    public static String getClassFileName(String className) {
+        return className.replace('.', '/') + ".class";
+    }
+
+    /**
+     * @return class file of class, empty if class loader has no class file of class or it can't be read
+     */
+    public static Optional<ClassFile> read(String className, ClassLoader classLoader) {
+        String classFileName = getClassFileName(className);
+        try (InputStream classFile = classLoader.getResourceAsStream(classFileName)) {
+            return classFile == null ? Optional.empty() : Optional.of(read(classFile));
+        } catch (IOException e) {
+            LOGGER.warn("Can't read class file {}: {}", classFileName, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public static ClassFile read(InputStream classFile) throws IOException {
+        Metrics.count(Counter.CLASS_FILES_READ);
+        return new ClassFile(new DataInputStream(classFile));
+    }
+
+    /**
+     * @return name of superclass, null for java.lang.Object, interfaces and classes without class file
+     */
+    public static String getSuperclassName(String className, ClassLoader classLoader) {
+        return read(className, classLoader)
+            .filter(classFile -> !classFile.isInterface())
+            .map(ClassFile::getSuperclass)
+            .filter(superclass -> !className.equals(superclass))
+            .orElse(null);
+    }
+
+    public static List<Annotation> getAnnotations(ClassFile classFile) {
+        return getAnnotations((AnnotationsAttribute) classFile.getAttribute(AnnotationsAttribute.visibleTag));
+    }
+
+    public static List<Annotation> getAnnotations(MethodInfo methodInfo) {
+        return getAnnotations((AnnotationsAttribute) methodInfo.getAttribute(AnnotationsAttribute.visibleTag));
+    }
+
+    public static boolean hasAnnotation(ClassFile classFile, String annotationName) {
+        return getAnnotations(classFile).stream().anyMatch(annotation -> annotation.getTypeName().equals(annotationName));
+    }
+
+    /**
+     * @return values of array member (or of single value given instead of array), empty if member is not specified
+     */
+    public static List<MemberValue> getArrayValue(Annotation annotation, String memberName) {
+        MemberValue value = annotation.getMemberValue(memberName);
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        return value instanceof ArrayMemberValue ? Arrays.asList(((ArrayMemberValue) value).getValue()) : List.of(value);
+    }
+
+    public static List<String> getParameterTypeNames(String methodDescriptor) {
+        List<String> names = new ArrayList<>();
+        int index = 1;
+        while (methodDescriptor.charAt(index) != ')') {
+            int end = getTypeEnd(methodDescriptor, index);
+            names.add(getTypeName(methodDescriptor.substring(index, end)));
+            index = end;
+        }
+        return names;
+    }
+
+    public static String getReturnTypeName(String methodDescriptor) {
+        return getTypeName(methodDescriptor.substring(methodDescriptor.indexOf(')') + 1));
+    }
+
+    /**
+     * @return name of type of field descriptor, e.g. java.lang.String[] for [Ljava/lang/String;
+     */
+    public static String getTypeName(String descriptor) {
+        int dimensions = 0;
+        while (descriptor.charAt(dimensions) == '[') {
+            dimensions++;
+        }
+        char type = descriptor.charAt(dimensions);
+        StringBuilder name = new StringBuilder(type == 'L'
+            ? descriptor.substring(dimensions + 1, descriptor.length() - 1).replace('/', '.')
+            : PRIMITIVE_NAMES.get(type));
+        for (int i = 0; i < dimensions; i++) {
+            name.append("[]");
+        }
+        return name.toString();
+    }
+
+    /**
+     * @return simple name as {@link Class#getSimpleName()} gives it, nested classes are expected to be named Outer$Nested
+     */
+    public static String getSimpleName(String typeName) {
+        return typeName.substring(Math.max(typeName.lastIndexOf('.'), typeName.lastIndexOf('$')) + 1);
+    }
+
+    private static int getTypeEnd(String descriptor, int index) {
+        while (descriptor.charAt(index) == '[') {
+            index++;
+        }
+        return descriptor.charAt(index) == 'L' ? descriptor.indexOf(';', index) + 1 : index + 1;
+    }
+
+    private static List<Annotation> getAnnotations(AnnotationsAttribute attribute) {
+        return attribute == null ? Collections.emptyList() : Arrays.asList(attribute.getAnnotations());
+    }
+
+    /**
+     * Visitor of {@link #forEachClassFile(String, ClassLoader, ClassFileVisitor)} and {@link #forEachClassFile(Path, String, ClassFileVisitor)}.
+     */
+    @FunctionalInterface
+    public interface ClassFileVisitor {
+        void visit(String location, String name, InputStream classFile) throws IOException;
+    }
+}
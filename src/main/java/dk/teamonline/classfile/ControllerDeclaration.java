@@ -0,0 +1,330 @@
+package dk.teamonline.classfile;
+
+import dk.teamonline.resolvers.BytecodeMethodParamNamesResolver;
+import javassist.bytecode.*;
+import javassist.bytecode.annotation.*;
+import javassist.bytecode.annotation.Annotation;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Controller as it's declared in class file: mapping, @UserTracking and parameters of its endpoint methods as plain data.
+ * Is read either from class file itself or from prebuilt {@link ControllerIndex}.
+ */
+public class ControllerDeclaration {
+    private static final String USER_TRACKING_ANNOTATION = "dk.eg.sensum.userTrack.domain.UserTracking";
+    private static final String EXTERNAL_WEB_SERVICE_ANNOTATION = "dk.teamonline.annotation.ExternalWebService";
+    private static final String MAPPING_PACKAGE = "org.springframework.web.bind.annotation.";
+    // in order of priority, as in RequestMappingUtils
+    private static final Map<String, RequestMethod> MAPPING_ANNOTATIONS = new LinkedHashMap<>();
+
+    static {
+        MAPPING_ANNOTATIONS.put(MAPPING_PACKAGE + "RequestMapping", null);
+        MAPPING_ANNOTATIONS.put(MAPPING_PACKAGE + "GetMapping", RequestMethod.GET);
+        MAPPING_ANNOTATIONS.put(MAPPING_PACKAGE + "PostMapping", RequestMethod.POST);
+        MAPPING_ANNOTATIONS.put(MAPPING_PACKAGE + "PutMapping", RequestMethod.PUT);
+        MAPPING_ANNOTATIONS.put(MAPPING_PACKAGE + "DeleteMapping", RequestMethod.DELETE);
+        MAPPING_ANNOTATIONS.put(MAPPING_PACKAGE + "PatchMapping", RequestMethod.PATCH);
+    }
+
+    private final String name;
+    private final String classRelativeUrl;
+    private final boolean isExternalWebService;
+    private final List<String> methodsWithoutUserTracking;
+    private final List<Endpoint> endpoints;
+
+    public ControllerDeclaration(String name, String classRelativeUrl, boolean isExternalWebService,
+                                 List<String> methodsWithoutUserTracking, List<Endpoint> endpoints) {
+        this.name = name;
+        this.classRelativeUrl = classRelativeUrl;
+        this.isExternalWebService = isExternalWebService;
+        this.methodsWithoutUserTracking = List.copyOf(methodsWithoutUserTracking);
+        this.endpoints = List.copyOf(endpoints);
+    }
+
+    public static ControllerDeclaration read(ClassFile classFile) {
+        String name = classFile.getName();
+        List<String> methodsWithoutUserTracking = new ArrayList<>();
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (MethodInfo methodInfo : classFile.getMethods()) {
+            if (methodInfo.isConstructor() || methodInfo.isStaticInitializer()) {
+                continue;
+            }
+            List<Annotation> annotations = ClassFiles.getAnnotations(methodInfo);
+            Optional<Annotation> mapping = getMapping(annotations);
+            if (mapping.isEmpty()) {
+                continue;
+            }
+            Optional<Annotation> userTracking = annotations.stream()
+                .filter(annotation -> annotation.getTypeName().equals(USER_TRACKING_ANNOTATION))
+                .findFirst();
+            if (userTracking.isPresent()) {
+                endpoints.add(readEndpoint(methodInfo, mapping.get(), userTracking.get()));
+            } else {
+                methodsWithoutUserTracking.add(toMethodString(name, methodInfo));
+            }
+        }
+        String classRelativeUrl = getMapping(ClassFiles.getAnnotations(classFile)).map(ControllerDeclaration::getPath).orElse("");
+        return new ControllerDeclaration(name, classRelativeUrl, ClassFiles.hasAnnotation(classFile, EXTERNAL_WEB_SERVICE_ANNOTATION),
+            methodsWithoutUserTracking, endpoints);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getClassRelativeUrl() {
+        return classRelativeUrl;
+    }
+
+    public boolean isExternalWebService() {
+        return isExternalWebService;
+    }
+
+    /**
+     * @return endpoint methods without @UserTracking, as {@link java.lang.reflect.Method#toString()} prints them
+     */
+    public List<String> getMethodsWithoutUserTracking() {
+        return methodsWithoutUserTracking;
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    private static Endpoint readEndpoint(MethodInfo methodInfo, Annotation mapping, Annotation userTracking) {
+        List<TrackParameter> userTrackParameters = new ArrayList<>();
+        for (MemberValue value : ClassFiles.getArrayValue(userTracking, "parameters")) {
+            Annotation parameter = ((AnnotationMemberValue) value).getValue();
+            userTrackParameters.add(new TrackParameter(((StringMemberValue) parameter.getMemberValue("expression")).getValue(),
+                ((ClassMemberValue) parameter.getMemberValue("type")).getValue()));
+        }
+        String descriptor = methodInfo.getDescriptor();
+        List<String> typeNames = ClassFiles.getParameterTypeNames(descriptor);
+        List<String> genericTypeNames = getGenericTypeNames(methodInfo, typeNames);
+        List<String> reflectedNames = getReflectedNames(methodInfo, typeNames.size());
+        Annotation[][] parameterAnnotations = getParameterAnnotations(methodInfo, typeNames.size());
+        List<Parameter> parameters = new ArrayList<>();
+        for (int i = 0; i < typeNames.size(); i++) {
+            List<String> annotationNames = Arrays.stream(parameterAnnotations[i])
+                .map(Annotation::getTypeName)
+                .collect(Collectors.toList());
+            parameters.add(new Parameter(typeNames.get(i), genericTypeNames.get(i), reflectedNames.get(i), annotationNames));
+        }
+        String action = ((EnumMemberValue) userTracking.getMemberValue("action")).getValue();
+        return new Endpoint(methodInfo.getName(), ClassFiles.getReturnTypeName(descriptor), getPath(mapping), getHttpMethods(mapping),
+            action, parameters, BytecodeMethodParamNamesResolver.getParameterNames(methodInfo), userTrackParameters);
+    }
+
+    // names reflection gives: from MethodParameters attribute (-parameters), otherwise argN
+    private static List<String> getReflectedNames(MethodInfo methodInfo, int parameterCount) {
+        MethodParametersAttribute attribute = (MethodParametersAttribute) methodInfo.getAttribute(MethodParametersAttribute.tag);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < parameterCount; i++) {
+            boolean hasName = attribute != null && attribute.size() == parameterCount && attribute.name(i) != 0;
+            names.add(hasName ? methodInfo.getConstPool().getUtf8Info(attribute.name(i)) : "arg" + i);
+        }
+        return names;
+    }
+
+    private static List<String> getGenericTypeNames(MethodInfo methodInfo, List<String> parameterTypeNames) {
+        SignatureAttribute signature = (SignatureAttribute) methodInfo.getAttribute(SignatureAttribute.tag);
+        if (signature == null) {
+            return parameterTypeNames;
+        }
+        try {
+            SignatureAttribute.Type[] genericTypes = SignatureAttribute.toMethodSignature(signature.getSignature()).getParameterTypes();
+            if (genericTypes.length != parameterTypeNames.size()) {
+                return parameterTypeNames;
+            }
+            return Arrays.stream(genericTypes).map(SignatureAttribute.Type::jvmTypeName).collect(Collectors.toList());
+        } catch (BadBytecode e) {
+            return parameterTypeNames;
+        }
+    }
+
+    private static Annotation[][] getParameterAnnotations(MethodInfo methodInfo, int parameterCount) {
+        ParameterAnnotationsAttribute attribute =
+            (ParameterAnnotationsAttribute) methodInfo.getAttribute(ParameterAnnotationsAttribute.visibleTag);
+        Annotation[][] annotations = attribute == null ? new Annotation[0][] : attribute.getAnnotations();
+        if (annotations.length == parameterCount) {
+            return annotations;
+        }
+        Annotation[][] allAnnotations = new Annotation[parameterCount][];
+        for (int i = 0; i < parameterCount; i++) {
+            allAnnotations[i] = i < annotations.length ? annotations[i] : new Annotation[0];
+        }
+        return allAnnotations;
+    }
+
+    private static String toMethodString(String className, MethodInfo methodInfo) {
+        String modifiers = Modifier.toString(methodInfo.getAccessFlags() & Modifier.methodModifiers());
+        String descriptor = methodInfo.getDescriptor();
+        ExceptionsAttribute exceptions = methodInfo.getExceptionsAttribute();
+        return (modifiers.isEmpty() ? "" : modifiers + ' ')
+            + ClassFiles.getReturnTypeName(descriptor) + ' ' + className + '.' + methodInfo.getName()
+            + '(' + String.join(",", ClassFiles.getParameterTypeNames(descriptor)) + ')'
+            + (exceptions == null || exceptions.getExceptions() == null || exceptions.getExceptions().length == 0
+            ? "" : " throws " + String.join(",", exceptions.getExceptions()));
+    }
+
+    /**
+     * If there are several mapping annotations, @RequestMapping wins, then @GetMapping, @PostMapping etc.
+     */
+    private static Optional<Annotation> getMapping(List<Annotation> annotations) {
+        for (String mappingName : MAPPING_ANNOTATIONS.keySet()) {
+            Optional<Annotation> mapping = annotations.stream()
+                .filter(annotation -> annotation.getTypeName().equals(mappingName))
+                .findFirst();
+            if (mapping.isPresent()) {
+                return mapping;
+            }
+        }
+        return Optional.empty();
+    }
+
+    // as MappingInfo#getPath: first path of mapping
+    private static String getPath(Annotation mapping) {
+        List<MemberValue> paths = ClassFiles.getArrayValue(mapping, "value");
+        return paths.isEmpty() ? "" : ((StringMemberValue) paths.get(0)).getValue();
+    }
+
+    private static Set<RequestMethod> getHttpMethods(Annotation mapping) {
+        RequestMethod httpMethod = MAPPING_ANNOTATIONS.get(mapping.getTypeName());
+        if (httpMethod != null) {
+            return Set.of(httpMethod);
+        }
+        return ClassFiles.getArrayValue(mapping, "method").stream()
+            .map(value -> RequestMethod.valueOf(((EnumMemberValue) value).getValue()))
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Endpoint method with @UserTracking. Type names are the ones of {@link ClassFiles}.
+     */
+    public static class Endpoint {
+        private final String methodName;
+        private final String returnTypeName;
+        private final String path;
+        private final Set<RequestMethod> httpMethods;
+        private final String action;
+        private final List<Parameter> parameters;
+        private final List<String> parameterNames;
+        private final List<TrackParameter> userTrackParameters;
+
+        /**
+         * @param parameterNames names of parameters from class file, null if class file has no names of parameters
+         */
+        public Endpoint(String methodName, String returnTypeName, String path, Set<RequestMethod> httpMethods, String action,
+                        List<Parameter> parameters, List<String> parameterNames, List<TrackParameter> userTrackParameters) {
+            this.methodName = methodName;
+            this.returnTypeName = returnTypeName;
+            this.path = path;
+            this.httpMethods = Set.copyOf(httpMethods);
+            this.action = action;
+            this.parameters = List.copyOf(parameters);
+            this.parameterNames = parameterNames == null ? null : List.copyOf(parameterNames);
+            this.userTrackParameters = List.copyOf(userTrackParameters);
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+
+        public String getReturnTypeName() {
+            return returnTypeName;
+        }
+
+        /**
+         * @return first path of method mapping, empty string if mapping has no path
+         */
+        public String getPath() {
+            return path;
+        }
+
+        public Set<RequestMethod> getHttpMethods() {
+            return httpMethods;
+        }
+
+        public String getAction() {
+            return action;
+        }
+
+        public List<Parameter> getParameters() {
+            return parameters;
+        }
+
+        public List<String> getParameterTypeNames() {
+            return parameters.stream().map(Parameter::getTypeName).collect(Collectors.toList());
+        }
+
+        public Optional<List<String>> getParameterNames() {
+            return Optional.ofNullable(parameterNames);
+        }
+
+        public List<TrackParameter> getUserTrackParameters() {
+            return userTrackParameters;
+        }
+    }
+
+    /**
+     * Parameter of endpoint method: erased and generic type, name reflection gives it and names of its runtime annotations.
+     */
+    public static class Parameter {
+        private final String typeName;
+        private final String genericTypeName;
+        private final String reflectedName;
+        private final List<String> annotationNames;
+
+        public Parameter(String typeName, String genericTypeName, String reflectedName, List<String> annotationNames) {
+            this.typeName = typeName;
+            this.genericTypeName = genericTypeName;
+            this.reflectedName = reflectedName;
+            this.annotationNames = List.copyOf(annotationNames);
+        }
+
+        public String getTypeName() {
+            return typeName;
+        }
+
+        public String getGenericTypeName() {
+            return genericTypeName;
+        }
+
+        public boolean isGeneric() {
+            return !genericTypeName.equals(typeName);
+        }
+
+        public String getReflectedName() {
+            return reflectedName;
+        }
+
+        public List<String> getAnnotationNames() {
+            return annotationNames;
+        }
+    }
+
+    /**
+     * Values of @UserTrackParameter.
+     */
+    public static class TrackParameter {
+        private final String expression;
+        private final String typeName;
+
+        public TrackParameter(String expression, String typeName) {
+            this.expression = expression;
+            this.typeName = typeName;
+        }
+
+        public String getExpression() {
+            return expression;
+        }
+
+        public String getTypeName() {
+            return typeName;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package dk.teamonline.classfile;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import dk.teamonline.utils.FileUtils;
+import javassist.bytecode.ClassFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Prebuilt index of controllers of 1 classpath root (jar or classes directory), is stored next to root as {root}.userTrack.idx.
+ *
+ * Binary format: header (magic, format version, fingerprint of root), table of distinct strings
+ * and controller declarations, which refer to strings by their number in table.
+ * Index is memory-mapped and read without any class file; it's stale when fingerprint of root
+ * (size and modification time of jar, of every class file of directory) differs from the one it was built for.
+ */
+public class ControllerIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ControllerIndex.class);
+    private static final int MAGIC = 0x55544958;
+    // should be increased every time format or content of declarations change
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_SUFFIX = ".userTrack.idx";
+    private static final RequestMethod[] HTTP_METHODS = RequestMethod.values();
+
+    private ControllerIndex() {
+        throw new UnsupportedOperationException("Utils class is not supposed to have instances");
+    }
+
+    public static Path getIndexFile(Path root) {
+        return root.resolveSibling(root.getFileName() + FILE_SUFFIX);
+    }
+
+    /**
+     * Reads class files of root and writes index of its controllers.
+     *
+     * @return amount of indexed controllers
+     */
+    public static int build(Path root) throws IOException {
+        List<ClassFile> classFiles = new ArrayList<>();
+        ClassFiles.forEachClassFile(root, "", (location, name, classFile) -> classFiles.add(ClassFiles.read(classFile)));
+        List<ControllerDeclaration> controllers = ClassFileScan.findControllers(classFiles).stream()
+            .map(ControllerDeclaration::read)
+            .collect(Collectors.toList());
+        write(getIndexFile(root), getFingerprint(root), controllers);
+        return controllers.size();
+    }
+
+    /**
+     * @return controllers of root sorted by simple name, empty if root has no index or index is stale
+     */
+    public static Optional<List<ControllerDeclaration>> load(Path root) {
+        Path indexFile = getIndexFile(root);
+        if (!Files.isRegularFile(indexFile)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                LOGGER.info("Index {} has outdated format and is ignored", indexFile);
+                return Optional.empty();
+            }
+            if (buffer.getLong() != getFingerprint(root)) {
+                LOGGER.info("Index {} is stale and is ignored", indexFile);
+                return Optional.empty();
+            }
+            return Optional.of(new Reader(buffer).readControllers());
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Index {} can't be read and is ignored: {}", indexFile, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    private static void write(Path indexFile, long fingerprint, List<ControllerDeclaration> controllers) throws IOException {
+        Writer writer = new Writer();
+        writer.writeControllers(controllers);
+        Path tempFile = FileUtils.createTempSibling(indexFile);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(fingerprint);
+            out.writeInt(writer.strings.size());
+            for (String string : writer.strings.keySet()) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            writer.body.writeTo(out);
+        }
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long getFingerprint(Path root) throws IOException {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        if (!Files.isDirectory(root)) {
+            BasicFileAttributes attributes = Files.readAttributes(root, BasicFileAttributes.class);
+            return hasher.putLong(attributes.size()).putLong(attributes.lastModifiedTime().toMillis()).hash().asLong();
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : files.filter(ClassFiles::isClassFile).sorted().collect(Collectors.toList())) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                hasher.putString(root.relativize(file).toString(), StandardCharsets.UTF_8)
+                    .putLong(attributes.size())
+                    .putLong(attributes.lastModifiedTime().toMillis());
+            }
+        }
+        return hasher.hash().asLong();
+    }
+
+    /**
+     * Writes declarations to body, collecting strings to table.
+     */
+    private static class Writer {
+        private final Map<String, Integer> strings = new LinkedHashMap<>();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(body);
+
+        private void writeControllers(List<ControllerDeclaration> controllers) throws IOException {
+            out.writeInt(controllers.size());
+            for (ControllerDeclaration controller : controllers) {
+                writeString(controller.getName());
+                writeString(controller.getClassRelativeUrl());
+                out.writeBoolean(controller.isExternalWebService());
+                writeStrings(controller.getMethodsWithoutUserTracking());
+                out.writeInt(controller.getEndpoints().size());
+                for (ControllerDeclaration.Endpoint endpoint : controller.getEndpoints()) {
+                    writeEndpoint(endpoint);
+                }
+            }
+            out.flush();
+        }
+
+        private void writeEndpoint(ControllerDeclaration.Endpoint endpoint) throws IOException {
+            writeString(endpoint.getMethodName());
+            writeString(endpoint.getReturnTypeName());
+            writeString(endpoint.getPath());
+            int httpMethods = 0;
+            for (RequestMethod httpMethod : endpoint.getHttpMethods()) {
+                httpMethods |= 1 << httpMethod.ordinal();
+            }
+            out.writeInt(httpMethods);
+            writeString(endpoint.getAction());
+            out.writeInt(endpoint.getParameters().size());
+            for (ControllerDeclaration.Parameter parameter : endpoint.getParameters()) {
+                writeString(parameter.getTypeName());
+                writeString(parameter.getGenericTypeName());
+                writeString(parameter.getReflectedName());
+                writeStrings(parameter.getAnnotationNames());
+            }
+            out.writeBoolean(endpoint.getParameterNames().isPresent());
+            if (endpoint.getParameterNames().isPresent()) {
+                writeStrings(endpoint.getParameterNames().get());
+            }
+            out.writeInt(endpoint.getUserTrackParameters().size());
+            for (ControllerDeclaration.TrackParameter parameter : endpoint.getUserTrackParameters()) {
+                writeString(parameter.getExpression());
+                writeString(parameter.getTypeName());
+            }
+        }
+
+        private void writeStrings(List<String> values) throws IOException {
+            out.writeInt(values.size());
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            out.writeInt(strings.computeIfAbsent(value, string -> strings.size()));
+        }
+    }
+
+    /**
+     * Reads string table and declarations from mapped index.
+     */
+    private static class Reader {
+        private final ByteBuffer buffer;
+        private final String[] strings;
+
+        private Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+
+        private List<ControllerDeclaration> readControllers() {
+            int controllerCount = buffer.getInt();
+            List<ControllerDeclaration> controllers = new ArrayList<>(controllerCount);
+            for (int i = 0; i < controllerCount; i++) {
+                String name = readString();
+                String classRelativeUrl = readString();
+                boolean isExternalWebService = buffer.get() != 0;
+                List<String> methodsWithoutUserTracking = readStrings();
+                int endpointCount = buffer.getInt();
+                List<ControllerDeclaration.Endpoint> endpoints = new ArrayList<>(endpointCount);
+                for (int j = 0; j < endpointCount; j++) {
+                    endpoints.add(readEndpoint());
+                }
+                controllers.add(new ControllerDeclaration(name, classRelativeUrl, isExternalWebService, methodsWithoutUserTracking, endpoints));
+            }
+            return controllers;
+        }
+
+        private ControllerDeclaration.Endpoint readEndpoint() {
+            String methodName = readString();
+            String returnTypeName = readString();
+            String path = readString();
+            int httpMethodBits = buffer.getInt();
+            Set<RequestMethod> httpMethods = Arrays.stream(HTTP_METHODS)
+                .filter(httpMethod -> (httpMethodBits & 1 << httpMethod.ordinal()) != 0)
+                .collect(Collectors.toUnmodifiableSet());
+            String action = readString();
+            int parameterCount = buffer.getInt();
+            List<ControllerDeclaration.Parameter> parameters = new ArrayList<>(parameterCount);
+            for (int i = 0; i < parameterCount; i++) {
+                parameters.add(new ControllerDeclaration.Parameter(readString(), readString(), readString(), readStrings()));
+            }
+            List<String> parameterNames = buffer.get() != 0 ? readStrings() : null;
+            int userTrackParameterCount = buffer.getInt();
+            List<ControllerDeclaration.TrackParameter> userTrackParameters = new ArrayList<>(userTrackParameterCount);
+            for (int i = 0; i < userTrackParameterCount; i++) {
+                userTrackParameters.add(new ControllerDeclaration.TrackParameter(readString(), readString()));
+            }
+            return new ControllerDeclaration.Endpoint(methodName, returnTypeName, path, httpMethods, action, parameters,
+                parameterNames, userTrackParameters);
+        }
+
+        private List<String> readStrings() {
+            int count = buffer.getInt();
+            List<String> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add(readString());
+            }
+            return values;
+        }
+
+        private String readString() {
+            return strings[buffer.getInt()];
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package dk.teamonline.classfile;
+
+import dk.teamonline.metrics.Counter;
+import dk.teamonline.metrics.Metrics;
+import dk.teamonline.metrics.Phase;
+import dk.teamonline.metrics.PhaseTimer;
+import dk.teamonline.pipeline.ControllerScan;
+import dk.teamonline.pipeline.PackageScan;
+import dk.teamonline.resolvers.ControllerSourceParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Takes controllers of package from prebuilt {@link ControllerIndex}es of its classpath roots instead of scanning them.
+ * If any root of package has no index or its index is stale, package is discovered by fallback scan.
+ */
+public class IndexedControllerScan implements ControllerScan {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndexedControllerScan.class);
+
+    private final ClassLoader classLoader;
+    private final ControllerScan fallbackScan;
+    private final ClassFileTypes types;
+    // index of every root is loaded once, roots of different packages are often the same jar
+    private final Map<Path, Optional<List<ControllerDeclaration>>> indexes = new ConcurrentHashMap<>();
+
+    public IndexedControllerScan(ClassLoader classLoader, ControllerScan fallbackScan) {
+        this.classLoader = classLoader;
+        this.fallbackScan = fallbackScan;
+        this.types = new ClassFileTypes(classLoader);
+    }
+
+    @Override
+    public PackageScan scan(String packageToScan, ControllerSourceParser sourceParser) {
+        Optional<List<ClassFileController>> controllers;
+        PhaseTimer timer = Metrics.start(Phase.INDEX_LOAD);
+        try {
+            controllers = findIndexedControllers(packageToScan);
+        } finally {
+            timer.stop();
+        }
+        if (controllers.isEmpty()) {
+            Metrics.count(Counter.INDEX_MISSES);
+            return fallbackScan.scan(packageToScan, sourceParser);
+        }
+        Metrics.count(Counter.INDEX_HITS);
+        Metrics.count(Counter.CONTROLLERS, controllers.get().size());
+        return PackageScan.ofClassFiles(packageToScan, controllers.get(), ClassFileScan.createNamesResolver(sourceParser));
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    private Optional<List<ClassFileController>> findIndexedControllers(String packageToScan) {
+        String packagePath = packageToScan.replace('.', '/');
+        String packagePrefix = packageToScan + '.';
+        Map<String, ClassFileController> controllers = new LinkedHashMap<>();
+        try {
+            Enumeration<URL> packageUrls = classLoader.getResources(packagePath);
+            while (packageUrls.hasMoreElements()) {
+                Path root = ClassFiles.getRoot(packageUrls.nextElement(), packagePath);
+                if (root == null) {
+                    return Optional.empty();
+                }
+                Optional<List<ControllerDeclaration>> index = indexes.computeIfAbsent(root, ControllerIndex::load);
+                if (index.isEmpty()) {
+                    return Optional.empty();
+                }
+                String location = root.toUri().getPath();
+                // first declaration of name wins, as it does for class loading
+                index.get().stream()
+                    .filter(declaration -> declaration.getName().startsWith(packagePrefix))
+                    .forEach(declaration -> controllers.putIfAbsent(declaration.getName(),
+                        new ClassFileController(declaration, location, types)));
+            }
+        } catch (IOException | URISyntaxException e) {
+            LOGGER.warn("Roots of package {} can't be found: {}", packageToScan, e.toString());
+            return Optional.empty();
+        }
+        LOGGER.debug("Controllers of {} are taken from index", packageToScan);
+        return Optional.of(controllers.values().stream()
+            .sorted(Comparator.comparing(ClassFileController::getSimpleName))
+            .collect(Collectors.toList()));
+    }
+}
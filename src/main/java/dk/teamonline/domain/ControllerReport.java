@@ -0,0 +1,69 @@
+package dk.teamonline.domain;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Verification result of controller as plain data, see {@link EndpointReport}.
+ * Report made before endpoints are verified has only controller data and no endpoints.
+ */
+public class ControllerReport implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LoggerFactory.getLogger(ControllerReport.class);
+
+    private final String controllerName;
+    private final String simpleName;
+    private final String relativeUrl;
+    private final List<String> methodsWithoutUserTracking;
+    private final List<EndpointReport> endpoints;
+
+    public ControllerReport(WebController controller, List<EndpointReport> endpoints) {
+        this.controllerName = controller.getClazz().getName();
+        this.simpleName = controller.getClazz().getSimpleName();
+        this.relativeUrl = controller.getRelativeUrl();
+        this.methodsWithoutUserTracking = controller.getMethodsWithoutUserTracking().stream()
+            .map(Method::toString)
+            .collect(Collectors.toList());
+        this.endpoints = List.copyOf(endpoints);
+    }
+
+    /**
+     * @param methodsWithoutUserTracking endpoint methods without @UserTracking, printed as {@link Method#toString()}
+     */
+    public ControllerReport(String controllerName, String simpleName, String relativeUrl,
+                            List<String> methodsWithoutUserTracking, List<EndpointReport> endpoints) {
+        this.controllerName = controllerName;
+        this.simpleName = simpleName;
+        this.relativeUrl = relativeUrl;
+        this.methodsWithoutUserTracking = List.copyOf(methodsWithoutUserTracking);
+        this.endpoints = List.copyOf(endpoints);
+    }
+
+    public String getControllerName() {
+        return controllerName;
+    }
+
+    public String getRelativeUrl() {
+        return relativeUrl;
+    }
+
+    public List<String> getMethodsWithoutUserTracking() {
+        return Collections.unmodifiableList(methodsWithoutUserTracking);
+    }
+
+    public List<EndpointReport> getEndpoints() {
+        return Collections.unmodifiableList(endpoints);
+    }
+
+    public void printHead() {
+        WebController.printHead(simpleName);
+        LOGGER.debug("class level mapping url = {}", relativeUrl);
+        methodsWithoutUserTracking.forEach(WebController::printMissingUserTracking);
+    }
+}
@@ -0,0 +1,234 @@
+package dk.teamonline.domain;
+
+import dk.eg.sensum.userTrack.domain.UserTrackAction;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Endpoint as it's declared, read without reflection: from compiler model or straight from class file.
+ * Types are kept in model endpoint is read from (T), so nothing is loaded until verification needs it.
+ * Printed the same way as {@link EndpointMethod}.
+ */
+public class DeclaredEndpoint<T> {
+    private static final Set<String> REQUEST_PARAMETER_ANNOTATIONS = Set.of(
+        "org.springframework.web.bind.annotation.PathVariable",
+        "org.springframework.web.bind.annotation.RequestParam",
+        "org.springframework.web.bind.annotation.ModelAttribute",
+        "org.springframework.web.bind.annotation.RequestBody");
+    private static final Set<String> PLAIN_VALUE_TYPES = Set.of(
+        "java.lang.String",
+        "boolean", "byte", "char", "short", "int", "long", "float", "double",
+        "java.lang.Boolean", "java.lang.Byte", "java.lang.Character", "java.lang.Short", "java.lang.Integer",
+        "java.lang.Long", "java.lang.Float", "java.lang.Double");
+
+    private final String controllerName;
+    private final String methodName;
+    private final String returnTypeName;
+    private final String relativeUrl;
+    private final Set<RequestMethod> httpMethods;
+    private final UserTrackAction action;
+    private final List<Parameter<T>> parameters;
+    private final List<TrackParameter<T>> userTrackParameters;
+    private final boolean isParameterNamesResolved;
+
+    public DeclaredEndpoint(String controllerName, String methodName, String returnTypeName, String relativeUrl,
+                            Set<RequestMethod> httpMethods, UserTrackAction action, List<Parameter<T>> parameters,
+                            List<TrackParameter<T>> userTrackParameters) {
+        this(controllerName, methodName, returnTypeName, relativeUrl, httpMethods, action, parameters, userTrackParameters, true);
+    }
+
+    /**
+     * @param isParameterNamesResolved false if names of parameters are reflected ones (argN), since neither class file
+     *                                 nor sources provide declared names
+     */
+    public DeclaredEndpoint(String controllerName, String methodName, String returnTypeName, String relativeUrl,
+                            Set<RequestMethod> httpMethods, UserTrackAction action, List<Parameter<T>> parameters,
+                            List<TrackParameter<T>> userTrackParameters, boolean isParameterNamesResolved) {
+        this.controllerName = controllerName;
+        this.methodName = methodName;
+        this.returnTypeName = returnTypeName;
+        this.relativeUrl = relativeUrl;
+        this.httpMethods = httpMethods;
+        this.action = action;
+        this.parameters = List.copyOf(parameters);
+        this.userTrackParameters = List.copyOf(userTrackParameters);
+        this.isParameterNamesResolved = isParameterNamesResolved;
+    }
+
+    public String getControllerName() {
+        return controllerName;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public String getRelativeUrl() {
+        return relativeUrl;
+    }
+
+    public Set<RequestMethod> getHttpMethods() {
+        return Collections.unmodifiableSet(httpMethods);
+    }
+
+    public UserTrackAction getAction() {
+        return action;
+    }
+
+    public List<Parameter<T>> getParameters() {
+        return parameters;
+    }
+
+    public List<TrackParameter<T>> getUserTrackParameters() {
+        return userTrackParameters;
+    }
+
+    public boolean isParameterNamesResolved() {
+        return isParameterNamesResolved;
+    }
+
+    public Optional<Parameter<T>> getParameter(String name) {
+        return parameters.stream().filter(parameter -> parameter.getName().equals(name)).findFirst();
+    }
+
+    /**
+     * @return parameters with request annotation, as {@link EndpointMethod} collects them
+     */
+    public List<RequestParameter> getRequestedParameters() {
+        List<RequestParameter> result = new ArrayList<>();
+        for (Parameter<T> parameter : parameters) {
+            parameter.getAnnotationNames().stream()
+                .filter(REQUEST_PARAMETER_ANNOTATIONS::contains)
+                .findFirst()
+                .ifPresent(annotationName -> result.add(new RequestParameter(annotationName, parameter.getSimpleTypeName(), parameter.getName())));
+        }
+        return result;
+    }
+
+    public String getUserTracking() {
+        return "@UserTracking(" +
+            "action = " + action +
+            ", parameters = {" + userTrackParameters.stream()
+            .map(TrackParameter::toString).collect(Collectors.joining(",\n\t", "\n\t", "\n")) +
+            "})";
+    }
+
+    @Override
+    public String toString() {
+        int leftPadding = returnTypeName.length() + methodName.length() + 8;
+        String signature = returnTypeName + ' ' + methodName + '(' + parameters.stream()
+            .map(Parameter::toPrettyString)
+            .collect(Collectors.joining(",\n" + StringUtils.leftPad(" ", leftPadding))) + ')';
+        return String.join("\n", signature,
+            "method = " + httpMethods,
+            "URL = " + relativeUrl);
+    }
+
+    /**
+     * Parameter of endpoint method with names of its runtime annotations.
+     * Reflected name is printed in findings, as reflection reports it: argN for classes compiled without -parameters.
+     */
+    public static class Parameter<T> {
+        private final String name;
+        private final String reflectedName;
+        private final T type;
+        private final String typeName;
+        private final String simpleTypeName;
+        private final List<String> annotationNames;
+
+        public Parameter(String name, T type, String typeName, String simpleTypeName, List<String> annotationNames) {
+            this(name, name, type, typeName, simpleTypeName, annotationNames);
+        }
+
+        public Parameter(String name, String reflectedName, T type, String typeName, String simpleTypeName,
+                         List<String> annotationNames) {
+            this.name = name;
+            this.reflectedName = reflectedName;
+            this.type = type;
+            this.typeName = typeName;
+            this.simpleTypeName = simpleTypeName;
+            this.annotationNames = List.copyOf(annotationNames);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public T getType() {
+            return type;
+        }
+
+        public String getSimpleTypeName() {
+            return simpleTypeName;
+        }
+
+        public List<String> getAnnotationNames() {
+            return annotationNames;
+        }
+
+        public boolean isRequestParameter() {
+            return annotationNames.stream().anyMatch(REQUEST_PARAMETER_ANNOTATIONS::contains);
+        }
+
+        /**
+         * @return true for String, primitives and their wrappers: expression of such parameter is its name only
+         */
+        public boolean isPlainValue() {
+            return PLAIN_VALUE_TYPES.contains(typeName);
+        }
+
+        private String toPrettyString() {
+            String annotations = annotationNames.isEmpty() ? "" : annotationNames.stream()
+                .map(annotationName -> annotationName.substring(annotationName.lastIndexOf('.') + 1))
+                .collect(Collectors.joining(" @", "@", " "));
+            return annotations + simpleTypeName + ' ' + name;
+        }
+
+        @Override
+        public String toString() {
+            return typeName + ' ' + reflectedName;
+        }
+    }
+
+    /**
+     * Values of @UserTrackParameter, printed the same way as {@link UserTrackValue}.
+     */
+    public static class TrackParameter<T> {
+        private final String expression;
+        private final T type;
+        private final String typeName;
+        private final String simpleTypeName;
+
+        /**
+         * @param typeName fully qualified name of type
+         */
+        public TrackParameter(String expression, T type, String typeName, String simpleTypeName) {
+            this.expression = expression;
+            this.type = type;
+            this.typeName = typeName;
+            this.simpleTypeName = simpleTypeName;
+        }
+
+        public String getExpression() {
+            return expression;
+        }
+
+        public T getType() {
+            return type;
+        }
+
+        public String getTypeName() {
+            return typeName;
+        }
+
+        @Override
+        public String toString() {
+            return "@UserTrackParameter(" +
+                "expression = \"" + expression + '\"' +
+                ", type = " + simpleTypeName + ".class)";
+        }
+    }
+}
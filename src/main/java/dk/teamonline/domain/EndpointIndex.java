@@ -0,0 +1,109 @@
+package dk.teamonline.domain;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Inverted index of verified endpoints: tracked entity (class name or table name) -> endpoints
+ * and request parameter (type, name or both) -> endpoints. Lookups are hash lookups.
+ *
+ * Endpoints are added concurrently while they are verified. Indexes of modules are merged to cross-module one
+ * by adding their entries: keys and {@link IndexedEndpoint}s are shared, nothing is rebuilt.
+ */
+public class EndpointIndex {
+    private final Map<String, Set<IndexedEndpoint>> endpointsByEntity = new ConcurrentHashMap<>();
+    private final Map<String, Set<IndexedEndpoint>> endpointsByTable = new ConcurrentHashMap<>();
+    private final Map<RequestParameter, Set<IndexedEndpoint>> endpointsByParameter = new ConcurrentHashMap<>();
+    private final Map<String, Set<IndexedEndpoint>> endpointsByParameterType = new ConcurrentHashMap<>();
+    private final Map<String, Set<IndexedEndpoint>> endpointsByParameterName = new ConcurrentHashMap<>();
+    private final Map<String, String> tableNames = new ConcurrentHashMap<>();
+
+    /**
+     * @param trackedEntities table names of tracked entities by their class names
+     */
+    public void add(IndexedEndpoint endpoint, Map<String, String> trackedEntities, Collection<RequestParameter> parameters) {
+        trackedEntities.forEach((entityName, tableName) -> {
+            tableNames.putIfAbsent(entityName, tableName);
+            put(endpointsByEntity, entityName, endpoint);
+            put(endpointsByTable, tableName, endpoint);
+        });
+        for (RequestParameter parameter : parameters) {
+            put(endpointsByParameter, parameter, endpoint);
+            put(endpointsByParameterType, parameter.getTypeName(), endpoint);
+            put(endpointsByParameterName, parameter.getName(), endpoint);
+        }
+    }
+
+    /**
+     * Adds all entries of other index, e.g. of module, to this one.
+     */
+    public void merge(EndpointIndex other) {
+        other.tableNames.forEach(tableNames::putIfAbsent);
+        mergeEntries(endpointsByEntity, other.endpointsByEntity);
+        mergeEntries(endpointsByTable, other.endpointsByTable);
+        mergeEntries(endpointsByParameter, other.endpointsByParameter);
+        mergeEntries(endpointsByParameterType, other.endpointsByParameterType);
+        mergeEntries(endpointsByParameterName, other.endpointsByParameterName);
+    }
+
+    /**
+     * @param entityName class name of entity
+     */
+    public Set<IndexedEndpoint> findByEntity(String entityName) {
+        return find(endpointsByEntity, entityName);
+    }
+
+    /**
+     * @param tableName name of @Table of entity, simple name of entity class if it has no @Table
+     */
+    public Set<IndexedEndpoint> findByTable(String tableName) {
+        return find(endpointsByTable, tableName);
+    }
+
+    /**
+     * @param typeName simple name of parameter type
+     */
+    public Set<IndexedEndpoint> findByParameterType(String typeName) {
+        return find(endpointsByParameterType, typeName);
+    }
+
+    public Set<IndexedEndpoint> findByParameterName(String name) {
+        return find(endpointsByParameterName, name);
+    }
+
+    public Set<IndexedEndpoint> findByParameter(RequestParameter parameter) {
+        return find(endpointsByParameter, parameter);
+    }
+
+    /**
+     * @return table names of tracked entities by their class names
+     */
+    public Map<String, String> getTableNames() {
+        return Collections.unmodifiableMap(tableNames);
+    }
+
+    public Set<RequestParameter> getParameters() {
+        return Collections.unmodifiableSet(endpointsByParameter.keySet());
+    }
+
+    /**
+     * Visits tables and endpoints which track them.
+     */
+    public void forEachTable(BiConsumer<String, Set<IndexedEndpoint>> consumer) {
+        endpointsByTable.forEach((tableName, endpoints) -> consumer.accept(tableName, Collections.unmodifiableSet(endpoints)));
+    }
+
+    private static <K> void put(Map<K, Set<IndexedEndpoint>> entries, K key, IndexedEndpoint endpoint) {
+        entries.computeIfAbsent(key, value -> ConcurrentHashMap.newKeySet()).add(endpoint);
+    }
+
+    private static <K> void mergeEntries(Map<K, Set<IndexedEndpoint>> entries, Map<K, Set<IndexedEndpoint>> otherEntries) {
+        otherEntries.forEach((key, endpoints) -> entries.computeIfAbsent(key, value -> ConcurrentHashMap.newKeySet()).addAll(endpoints));
+    }
+
+    private static <K> Set<IndexedEndpoint> find(Map<K, Set<IndexedEndpoint>> entries, K key) {
+        Set<IndexedEndpoint> endpoints = entries.get(key);
+        return endpoints == null ? Collections.emptySet() : Collections.unmodifiableSet(endpoints);
+    }
+}
@@ -1,9 +1,15 @@
 package dk.teamonline.domain;
 
 import dk.eg.sensum.userTrack.domain.UserTracking;
+import dk.teamonline.metrics.Counter;
+import dk.teamonline.metrics.Metrics;
+import dk.teamonline.metrics.Phase;
+import dk.teamonline.metrics.PhaseTimer;
 import dk.teamonline.resolvers.MethodParamNamesResolver;
 import dk.teamonline.utils.RequestMappingUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
 
 import javax.persistence.Entity;
@@ -17,43 +23,69 @@ import java.util.stream.Collectors;
 import static dk.eg.sensum.userTrack.domain.UserTrackAction.IGNORE;
 
 public class EndpointMethod {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EndpointMethod.class);
     public static final Predicate<Parameter> IS_PARAMETER_ANNOTATED = p ->
         p.isAnnotationPresent(PathVariable.class)
             || p.isAnnotationPresent(RequestParam.class)
             || p.isAnnotationPresent(ModelAttribute.class)
             || p.isAnnotationPresent(RequestBody.class);
 
+    private final String controllerName;
     private final String methodName;
     private final String returnType;
     private final String relativeUrl;
     private final Set<RequestMethod> httpMethods;
     private final UserTrackMethod userTrackMethod;
     private final Map<String, Parameter> parametersToRealName = new LinkedHashMap<>();
+    private final boolean isParameterNamesResolved;
 
 
     public EndpointMethod(Method method, String parentUrl, MethodParamNamesResolver namesResolver) {
+        this.controllerName = method.getDeclaringClass().getName();
         this.methodName = method.getName();
         this.returnType = method.getReturnType().getSimpleName();
-        String methodUrl = RequestMappingUtils.getMethodRelativeUrl(method);
+        Optional<MappingInfo> mappingInfo = RequestMappingUtils.getMappingInfo(method);
+        String methodUrl = mappingInfo.map(MappingInfo::getPath).orElse("");
         this.relativeUrl = (parentUrl + '/' + methodUrl).replaceAll("/{2,}", "/")
             // correlation to Postman
             .replace("{", "{{")
             .replace("}", "}}");
-        this.httpMethods = RequestMappingUtils.getHttpMethods(method);
+        this.httpMethods = mappingInfo.map(MappingInfo::getHttpMethods).orElse(Collections.emptySet());
         UserTracking userTracking = method.getAnnotation(UserTracking.class);
         this.userTrackMethod = userTracking != null ? new UserTrackMethod(userTracking) : null;
-        List<String> methodParameterNames = namesResolver.getParameterNames(method);
+        List<String> methodParameterNames;
+        PhaseTimer timer = Metrics.start(Phase.PARAM_NAMES);
+        try {
+            methodParameterNames = namesResolver.getParameterNames(method);
+        } finally {
+            timer.stop();
+        }
         Parameter[] methodParameters = method.getParameters();
+        this.isParameterNamesResolved = methodParameterNames.size() == methodParameters.length;
+        Metrics.count(isParameterNamesResolved ? Counter.PARAM_NAMES_RESOLVED : Counter.PARAM_NAMES_UNRESOLVED);
+        if (!isParameterNamesResolved) {
+            LOGGER.warn("Parameter names of {}#{} are unavailable: class has no -parameters or debug info and its source isn't found",
+                controllerName, methodName);
+        }
         for (int i = 0; i < methodParameters.length; i++) {
-            parametersToRealName.put(methodParameterNames.get(i), methodParameters[i]);
+            String parameterName = isParameterNamesResolved ? methodParameterNames.get(i) : methodParameters[i].getName();
+            parametersToRealName.put(parameterName, methodParameters[i]);
         }
 
     }
 
+    public String getControllerName() {
+        return controllerName;
+    }
+
     public String getMethodName() {
         return methodName;
     }
 
+    public String getReturnTypeName() {
+        return returnType;
+    }
+
     public String getRelativeUrl() {
         return relativeUrl;
     }
@@ -66,6 +98,13 @@ public class EndpointMethod {
         return userTrackMethod;
     }
 
+    /**
+     * @return false if parameters are named as reflection names them (argN), since declared names are unavailable
+     */
+    public boolean isParameterNamesResolved() {
+        return isParameterNamesResolved;
+    }
+
     public Map<String, Parameter> getParametersToRealName() {
         return parametersToRealName;
     }
@@ -105,17 +144,15 @@ public class EndpointMethod {
             .collect(Collectors.toSet());
     }
 
-    Map<Class<?>, Set<String>> getRequestedParameters() {
-        Map<Class<?>, Set<String>> result = new HashMap<>();
+    List<RequestParameter> getRequestedParameters() {
+        List<RequestParameter> result = new ArrayList<>();
         parametersToRealName.entrySet().stream()
             .filter(entry -> IS_PARAMETER_ANNOTATED.test(entry.getValue()))
             .forEach(entry -> {
                 String parameterName = entry.getKey();
                 Parameter parameter = entry.getValue();
-                RequestMappingUtils.getRequestParameterAnnotationClass(parameter).ifPresent(annotationType -> {
-                    result.computeIfAbsent(annotationType, value -> new HashSet<>())
-                        .add(parameter.getType().getSimpleName() + ' ' + parameterName);
-                });
+                RequestMappingUtils.getRequestParameterAnnotationClass(parameter).ifPresent(annotationType ->
+                    result.add(new RequestParameter(annotationType.getName(), parameter.getType().getSimpleName(), parameterName)));
             });
         return result;
     }
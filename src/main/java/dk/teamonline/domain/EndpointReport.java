@@ -0,0 +1,144 @@
+package dk.teamonline.domain;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Verification result of endpoint as plain data: printed output and module summary data.
+ * Has no reflective references, so can be stored in analysis cache and replayed.
+ */
+public class EndpointReport implements Serializable {
+    private static final long serialVersionUID = 2L;
+    private static final Logger LOGGER = LoggerFactory.getLogger(EndpointMethod.class);
+
+    private final String controllerName;
+    private final String methodName;
+    private final String relativeUrl;
+    private final List<String> httpMethods;
+    private final String action;
+    private final List<String> userTrackParameters;
+    private final String endpoint;
+    private final String userTracking;
+    private final List<Finding> findings;
+    private final List<String> trackedEntities;
+    private final List<RequestParameter> requestedParameters;
+
+    public EndpointReport(EndpointMethod endpointMethod, ErrorCollector errorCollector) {
+        UserTrackMethod userTrackMethod = endpointMethod.getUserTrackMethod();
+        this.controllerName = endpointMethod.getControllerName();
+        this.methodName = endpointMethod.getMethodName();
+        this.relativeUrl = endpointMethod.getRelativeUrl();
+        this.httpMethods = endpointMethod.getHttpMethods().stream()
+            .map(Enum::name)
+            .sorted()
+            .collect(Collectors.toList());
+        this.action = userTrackMethod.getAction().name();
+        this.userTrackParameters = userTrackMethod.getUserTrackParameters().stream()
+            .map(UserTrackValue::toString)
+            .collect(Collectors.toList());
+        this.endpoint = endpointMethod.toString();
+        this.userTracking = String.valueOf(userTrackMethod);
+        this.findings = new ArrayList<>(errorCollector.getFindings());
+        this.trackedEntities = endpointMethod.getTrackedEntities().stream()
+            .map(Class::getName)
+            .sorted()
+            .collect(Collectors.toList());
+        this.requestedParameters = endpointMethod.getRequestedParameters();
+    }
+
+    /**
+     * @param trackedEntities names of @UserTrackParameter types which are entities
+     */
+    public EndpointReport(DeclaredEndpoint<?> endpoint, ErrorCollector errorCollector, Collection<String> trackedEntities) {
+        this.controllerName = endpoint.getControllerName();
+        this.methodName = endpoint.getMethodName();
+        this.relativeUrl = endpoint.getRelativeUrl();
+        this.httpMethods = endpoint.getHttpMethods().stream()
+            .map(Enum::name)
+            .sorted()
+            .collect(Collectors.toList());
+        this.action = endpoint.getAction().name();
+        this.userTrackParameters = endpoint.getUserTrackParameters().stream()
+            .map(DeclaredEndpoint.TrackParameter::toString)
+            .collect(Collectors.toList());
+        this.endpoint = endpoint.toString();
+        this.userTracking = endpoint.getUserTracking();
+        this.findings = new ArrayList<>(errorCollector.getFindings());
+        this.trackedEntities = trackedEntities.stream()
+            .sorted()
+            .collect(Collectors.toList());
+        this.requestedParameters = endpoint.getRequestedParameters();
+    }
+
+    public String getControllerName() {
+        return controllerName;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public String getRelativeUrl() {
+        return relativeUrl;
+    }
+
+    public List<String> getHttpMethods() {
+        return Collections.unmodifiableList(httpMethods);
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public List<String> getUserTrackParameters() {
+        return Collections.unmodifiableList(userTrackParameters);
+    }
+
+    public List<Finding> getFindings() {
+        return Collections.unmodifiableList(findings);
+    }
+
+    public List<String> getTrackedEntityNames() {
+        return Collections.unmodifiableList(trackedEntities);
+    }
+
+    public Set<Class<?>> getTrackedEntities(ClassLoader classLoader) {
+        return trackedEntities.stream()
+            .map(className -> loadClass(className, classLoader))
+            .collect(Collectors.toSet());
+    }
+
+    public List<RequestParameter> getRequestedParameters() {
+        return Collections.unmodifiableList(requestedParameters);
+    }
+
+    public void print() {
+        printEndpointInfo();
+        printEndpointSummary();
+    }
+
+    public void printEndpointInfo() {
+        LOGGER.info("\n{}\n{}", endpoint, userTracking);
+    }
+
+    public void printEndpointSummary() {
+        String decoration = StringUtils.repeat('=', 20);
+        LOGGER.info("{} Method Summary {}", decoration, decoration);
+        LOGGER.error("---ERRORS---\n{}", ErrorCollector.format(findings, Finding.Severity.ERROR));
+        LOGGER.error("\n---WARNINGS---\n{}", ErrorCollector.format(findings, Finding.Severity.WARNING));
+        LOGGER.info("{}", StringUtils.repeat(decoration, 3));
+    }
+
+    private static Class<?> loadClass(String className, ClassLoader classLoader) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Class of endpoint report is not found: " + className, e);
+        }
+    }
+}
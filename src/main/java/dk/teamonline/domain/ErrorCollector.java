@@ -6,41 +6,83 @@ import dk.teamonline.enums.UserTrackWarning;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static java.util.Collections.emptySet;
-
+/**
+ * Findings of 1 endpoint. Messages are kept as pattern and arguments (see {@link Finding})
+ * and formatted only when text of errors or warnings is requested.
+ * Codes are {@link UserTrackError} and {@link UserTrackWarning}, custom rules may use codes of their own enums.
+ */
 public class ErrorCollector {
-    private final Map<UserTrackError, StringBuilder> errors = new EnumMap<>(UserTrackError.class);
-    private final Map<UserTrackWarning, StringBuilder> warnings = new EnumMap<>(UserTrackWarning.class);
+    private static final Comparator<Enum<?>> CODE_ORDER = Comparator.<Enum<?>, Boolean>comparing(code ->
+            !(code instanceof UserTrackError || code instanceof UserTrackWarning))
+        .thenComparing(code -> code.getDeclaringClass().getName())
+        .thenComparingInt(Enum::ordinal);
+
+    private final String endpoint;
+    private final List<Finding> findings = new ArrayList<>();
+    private final Map<Enum<?>, Integer> errorCounts = new LinkedHashMap<>();
+    private final Map<Enum<?>, Integer> warningCounts = new LinkedHashMap<>();
+
+    public ErrorCollector(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public void appendError(Enum<?> error, String messagePattern, Object... arguments) {
+        findings.add(new Finding(Finding.Severity.ERROR, error, endpoint, messagePattern, arguments));
+        errorCounts.merge(error, 1, Integer::sum);
+    }
 
-    public void appendError(UserTrackError error, String message) {
-        errors.computeIfAbsent(error, messages -> new StringBuilder()).append('\n').append(message);
+    public void appendWarning(Enum<?> warning, String messagePattern, Object... arguments) {
+        findings.add(new Finding(Finding.Severity.WARNING, warning, endpoint, messagePattern, arguments));
+        warningCounts.merge(warning, 1, Integer::sum);
     }
 
-    public void appendWarning(UserTrackWarning warning, String message) {
-        warnings.computeIfAbsent(warning, messages -> new StringBuilder().append('\n').append(message));
+    /**
+     * Appends findings of other collector, e.g. of single rule, after findings of this one.
+     */
+    public void appendAll(ErrorCollector other) {
+        findings.addAll(other.findings);
+        other.errorCounts.forEach((error, count) -> errorCounts.merge(error, count, Integer::sum));
+        other.warningCounts.forEach((warning, count) -> warningCounts.merge(warning, count, Integer::sum));
     }
 
-    public Map<UserTrackError, StringBuilder> getErrors() {
-        return Collections.unmodifiableMap(errors);
+    /**
+     * @return all errors and warnings in order they were found
+     */
+    public List<Finding> getFindings() {
+        return Collections.unmodifiableList(findings);
     }
 
-    public Map<UserTrackWarning, StringBuilder> getWarnings() {
-        return Collections.unmodifiableMap(warnings);
+    public Map<Enum<?>, Integer> getErrorCounts() {
+        return Collections.unmodifiableMap(errorCounts);
+    }
+
+    public Map<Enum<?>, Integer> getWarningCounts() {
+        return Collections.unmodifiableMap(warningCounts);
     }
 
     public String getErrorsAsString(UserTrackError... errorTypes) {
-        Set<UserTrackError> targetErrorTypes = Optional.ofNullable(errorTypes).map(Set::of).orElse(emptySet());
-        return errors.entrySet().stream()
-            .filter(e -> targetErrorTypes.isEmpty() || targetErrorTypes.contains(e.getKey()))
-            .map(e -> e.getKey() + ":" + e.getValue())
-            .collect(Collectors.joining());
+        return format(findings, Finding.Severity.ERROR, errorTypes);
     }
 
     public String getWarningsAsString(UserTrackWarning... warningTypes) {
-        Set<UserTrackWarning> targetWarningTypes = Optional.ofNullable(warningTypes).map(Set::of).orElse(emptySet());
-        return warnings.entrySet().stream()
-            .filter(e -> targetWarningTypes.isEmpty() || targetWarningTypes.contains(e.getKey()))
-            .map(e -> e.getKey() + ":" + e.getValue())
+        return format(findings, Finding.Severity.WARNING, warningTypes);
+    }
+
+    /**
+     * Formats messages of findings grouped by code in order codes are declared (codes of custom enums go after built-in ones):
+     * CODE:\nmessage\nmessage...
+     *
+     * @param codes codes to format, all codes if empty
+     */
+    public static String format(List<Finding> findings, Finding.Severity severity, Enum<?>... codes) {
+        Set<Enum<?>> targetCodes = codes == null ? Collections.emptySet() : new HashSet<>(Arrays.asList(codes));
+        Map<Enum<?>, List<Finding>> findingsByCode = new TreeMap<>(CODE_ORDER);
+        findings.stream()
+            .filter(finding -> finding.getSeverity() == severity)
+            .filter(finding -> targetCodes.isEmpty() || targetCodes.contains(finding.getCode()))
+            .forEach(finding -> findingsByCode.computeIfAbsent(finding.getCode(), code -> new ArrayList<>()).add(finding));
+        return findingsByCode.entrySet().stream()
+            .map(e -> e.getKey() + ":" + e.getValue().stream().map(finding -> "\n" + finding.getMessage()).collect(Collectors.joining()))
             .collect(Collectors.joining());
     }
 }
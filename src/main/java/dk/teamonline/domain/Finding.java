@@ -0,0 +1,59 @@
+package dk.teamonline.domain;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Single error or warning found for endpoint: code, endpoint reference and message arguments.
+ * Message is formatted only when it is requested, e.g. when report is rendered.
+ * Arguments other than strings, numbers and enums are kept as their text, so finding has no reflective references.
+ */
+public class Finding implements Serializable {
+    private static final long serialVersionUID = 2L;
+
+    public enum Severity {
+        ERROR,
+        WARNING
+    }
+
+    private final Severity severity;
+    private final Enum<?> code;
+    private final String endpoint;
+    private final String messagePattern;
+    private final Object[] arguments;
+
+    public Finding(Severity severity, Enum<?> code, String endpoint, String messagePattern, Object... arguments) {
+        this.severity = severity;
+        this.code = code;
+        this.endpoint = endpoint;
+        this.messagePattern = messagePattern;
+        this.arguments = Arrays.stream(arguments)
+            .map(argument -> argument instanceof String || argument instanceof Number || argument instanceof Enum
+                ? argument : String.valueOf(argument))
+            .toArray();
+    }
+
+    public Severity getSeverity() {
+        return severity;
+    }
+
+    public Enum<?> getCode() {
+        return code;
+    }
+
+    /**
+     * @return controller class name and method name of endpoint, e.g. dk.teamonline.x.ui.XController#show
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public String getMessage() {
+        return arguments.length == 0 ? messagePattern : String.format(messagePattern, arguments);
+    }
+
+    @Override
+    public String toString() {
+        return severity + " " + code + ": " + getMessage();
+    }
+}
@@ -0,0 +1,74 @@
+package dk.teamonline.domain;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Reference of verified endpoint in {@link EndpointIndex}: module, controller, method and URL.
+ * The same instance is shared by all index entries of endpoint and by indexes it's merged to.
+ */
+public class IndexedEndpoint implements Comparable<IndexedEndpoint> {
+    private static final Comparator<IndexedEndpoint> ORDER = Comparator.comparing(IndexedEndpoint::getModuleName)
+        .thenComparing(IndexedEndpoint::getControllerName)
+        .thenComparing(IndexedEndpoint::getMethodName)
+        .thenComparing(IndexedEndpoint::getRelativeUrl);
+
+    private final String moduleName;
+    private final String controllerName;
+    private final String methodName;
+    private final String relativeUrl;
+
+    public IndexedEndpoint(String moduleName, String controllerName, String methodName, String relativeUrl) {
+        this.moduleName = moduleName;
+        this.controllerName = controllerName;
+        this.methodName = methodName;
+        this.relativeUrl = relativeUrl;
+    }
+
+    public String getModuleName() {
+        return moduleName;
+    }
+
+    public String getControllerName() {
+        return controllerName;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public String getRelativeUrl() {
+        return relativeUrl;
+    }
+
+    @Override
+    public int compareTo(IndexedEndpoint other) {
+        return ORDER.compare(this, other);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        IndexedEndpoint that = (IndexedEndpoint) o;
+        return moduleName.equals(that.moduleName) && controllerName.equals(that.controllerName)
+            && methodName.equals(that.methodName) && relativeUrl.equals(that.relativeUrl);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(moduleName, controllerName, methodName, relativeUrl);
+    }
+
+    /**
+     * @return e.g. patient: dk.teamonline.patient.ui.PatientController#show patient/patients/{{id}}
+     */
+    @Override
+    public String toString() {
+        return moduleName + ": " + controllerName + '#' + methodName + ' ' + relativeUrl;
+    }
+}
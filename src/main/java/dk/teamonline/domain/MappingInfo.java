@@ -0,0 +1,55 @@
+package dk.teamonline.domain;
+
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Request mapping of controller class or endpoint method, read from its mapping annotation
+ * (@RequestMapping, @GetMapping etc), see {@link dk.teamonline.utils.RequestMappingUtils#getMappingInfo(java.lang.reflect.Method)}.
+ */
+public class MappingInfo {
+    private final Class<? extends Annotation> annotationType;
+    private final List<String> paths;
+    private final Set<RequestMethod> httpMethods;
+    private final List<String> consumes;
+    private final List<String> produces;
+
+    public MappingInfo(Class<? extends Annotation> annotationType, String[] paths, Set<RequestMethod> httpMethods,
+                       String[] consumes, String[] produces) {
+        this.annotationType = annotationType;
+        this.paths = List.of(paths);
+        this.httpMethods = Set.copyOf(httpMethods);
+        this.consumes = List.of(consumes);
+        this.produces = List.of(produces);
+    }
+
+    public Class<? extends Annotation> getAnnotationType() {
+        return annotationType;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * @return first path of mapping, empty string if mapping has no path
+     */
+    public String getPath() {
+        return paths.isEmpty() ? "" : paths.get(0);
+    }
+
+    public Set<RequestMethod> getHttpMethods() {
+        return httpMethods;
+    }
+
+    public List<String> getConsumes() {
+        return consumes;
+    }
+
+    public List<String> getProduces() {
+        return produces;
+    }
+}
@@ -6,54 +6,118 @@ import org.slf4j.LoggerFactory;
 
 import javax.persistence.Table;
 import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
+/**
+ * Aggregates tracked entities, request parameters and amount of findings over all endpoints of module.
+ * Entities and parameters are kept in {@link EndpointIndex} of module, which can be queried and merged to cross-module one.
+ * Merges are thread-safe, so several module types can be scanned concurrently;
+ * printed summary is sorted, so it's independent of merge order.
+ */
 public class ModuleSummary {
     private static final Logger LOGGER = LoggerFactory.getLogger(ModuleSummary.class);
     private final String moduleName;
 
-    private final Set<Class<?>> entityClasses = new TreeSet<>(Comparator.comparing(Class::getName));
-    private final Map<Class<?>, SortedSet<String>> moduleParameters = new HashMap<>();
+    private final EndpointIndex endpointIndex = new EndpointIndex();
+    private final Map<String, LongAdder> findingCounts = new ConcurrentSkipListMap<>();
 
     public ModuleSummary(String moduleName) {
         this.moduleName = moduleName;
     }
 
-    public void mergeParameters(EndpointMethod endpointMethod) {
-        Map<Class<?>, Set<String>> endpointParameters = endpointMethod.getRequestedParameters();
-        endpointParameters.forEach((annotationClazz, params) ->
-            moduleParameters.computeIfAbsent(annotationClazz, value -> new TreeSet<>()).addAll(params));
+    /**
+     * Indexes verified endpoint by its tracked entities and request parameters.
+     *
+     * @param trackedEntities classes of @UserTrackParameter types which are entities
+     */
+    public void mergeEndpoint(EndpointReport endpointReport, Collection<Class<?>> trackedEntities) {
+        Map<String, String> tableNames = new HashMap<>();
+        trackedEntities.forEach(entityClass -> tableNames.put(entityClass.getName(), getTableName(entityClass)));
+        IndexedEndpoint endpoint = new IndexedEndpoint(moduleName, endpointReport.getControllerName(),
+            endpointReport.getMethodName(), endpointReport.getRelativeUrl());
+        endpointIndex.add(endpoint, tableNames, endpointReport.getRequestedParameters());
     }
 
-    public void mergeEntityClasses(EndpointMethod endpointMethod) {
-        Set<Class<?>> methodTrackedEntities = endpointMethod.getTrackedEntities();
-        entityClasses.addAll(methodTrackedEntities);
+    public void mergeFindingCounts(Map<? extends Enum<?>, Integer> endpointFindingCounts) {
+        endpointFindingCounts.forEach((code, count) -> countFinding(code, count));
+    }
+
+    public void mergeFindings(Collection<Finding> endpointFindings) {
+        endpointFindings.forEach(finding -> countFinding(finding.getCode(), 1));
+    }
+
+    /**
+     * Zero count doesn't create entry of code, so summary lists only codes which were found.
+     */
+    public void countFinding(Enum<?> code, int count) {
+        if (count == 0) {
+            return;
+        }
+        findingCounts.computeIfAbsent(code.name(), name -> new LongAdder()).add(count);
+    }
+
+    public String getModuleName() {
+        return moduleName;
+    }
+
+    public EndpointIndex getEndpointIndex() {
+        return endpointIndex;
+    }
+
+    /**
+     * @return table names of tracked entities by their class names, sorted by class name
+     */
+    public SortedMap<String, String> getTrackedEntities() {
+        return new TreeMap<>(endpointIndex.getTableNames());
+    }
+
+    /**
+     * @return request parameters by simple name of their annotation, e.g. RequestParam
+     */
+    public SortedMap<String, SortedSet<RequestParameter>> getRequestParameters() {
+        SortedMap<String, SortedSet<RequestParameter>> parameters = new TreeMap<>();
+        endpointIndex.getParameters().forEach(parameter ->
+            parameters.computeIfAbsent(parameter.getAnnotationSimpleName(), name -> new TreeSet<>()).add(parameter));
+        return parameters;
+    }
+
+    /**
+     * @return amount of findings by code, e.g. INCORRECT_EXPRESSION
+     */
+    public Map<String, Long> getFindingCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        findingCounts.forEach((code, count) -> counts.put(code, count.sum()));
+        return counts;
     }
 
     public void printModuleSummary() {
         String decoration = StringUtils.repeat('~', 20);
         LOGGER.info("\n{} Module '{}' summary {}:", decoration, moduleName, decoration);
-        String entityClassesToTableName = entityClasses.stream()
-            .map(c -> c.getName() + "(tableName = " + getTableName(c) + ")")
+        String entityClassesToTableName = getTrackedEntities().entrySet().stream()
+            .map(e -> e.getKey() + "(tableName = " + e.getValue() + ")")
             .collect(Collectors.joining("\n"));
         LOGGER.info("Tracked Entities:\n{}", entityClassesToTableName);
-        moduleParameters.forEach((annotationClazz, params) ->
-            LOGGER.info("\n{}:\n{}", annotationClazz.getSimpleName(), getAggregatedParams(params)));
+        getRequestParameters().forEach((annotationName, params) ->
+            LOGGER.info("\n{}:\n{}", annotationName, getAggregatedParams(params)));
+        String findings = getFindingCounts().entrySet().stream()
+            .map(e -> e.getKey() + ": " + e.getValue())
+            .collect(Collectors.joining("\n"));
+        LOGGER.info("\nFindings:\n{}", findings);
     }
 
-    private String getTableName(Class<?> entityClass) {
+    public static String getTableName(Class<?> entityClass) {
         Table tableAnnotation = entityClass.getAnnotation(Table.class);
         return tableAnnotation == null ? entityClass.getSimpleName() : tableAnnotation.name();
     }
 
-    private String getAggregatedParams(Set<String> params) {
-        Map<String, Set<String>> aggregatedParams = new TreeMap<>();
-        params.stream()
-            .map(p -> p.split("\\s"))
-            .forEach(pair -> aggregatedParams.computeIfAbsent(pair[0], names -> new HashSet<>()).add(pair[1]));
+    // parameters are sorted by type, then by name
+    private static String getAggregatedParams(SortedSet<RequestParameter> params) {
+        Map<String, List<String>> aggregatedParams = new LinkedHashMap<>();
+        params.forEach(param -> aggregatedParams.computeIfAbsent(param.getTypeName(), names -> new ArrayList<>()).add(param.getName()));
         return aggregatedParams.entrySet().stream()
-            .map(e -> new AbstractMap.SimpleEntry<>(e.getKey(), String.join(", ", e.getValue())))
-            .map(e -> e.getKey() + ": " + e.getValue())
+            .map(e -> e.getKey() + ": " + String.join(", ", e.getValue()))
             .collect(Collectors.joining("\n"));
     }
 }
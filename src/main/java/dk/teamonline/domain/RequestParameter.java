@@ -0,0 +1,76 @@
+package dk.teamonline.domain;
+
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Endpoint parameter bound from request: its request annotation (@RequestParam, @PathVariable...), simple type name and name.
+ * Kept as separate values, so module summary and {@link EndpointIndex} never parse them back from text.
+ */
+public class RequestParameter implements Serializable, Comparable<RequestParameter> {
+    private static final long serialVersionUID = 1L;
+    private static final Comparator<RequestParameter> ORDER = Comparator.comparing(RequestParameter::getAnnotationName)
+        .thenComparing(RequestParameter::getTypeName)
+        .thenComparing(RequestParameter::getName);
+
+    private final String annotationName;
+    private final String typeName;
+    private final String name;
+
+    /**
+     * @param annotationName class name of request annotation
+     * @param typeName simple name of parameter type
+     */
+    public RequestParameter(String annotationName, String typeName, String name) {
+        this.annotationName = annotationName;
+        this.typeName = typeName;
+        this.name = name;
+    }
+
+    public String getAnnotationName() {
+        return annotationName;
+    }
+
+    public String getAnnotationSimpleName() {
+        return annotationName.substring(annotationName.lastIndexOf('.') + 1);
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int compareTo(RequestParameter other) {
+        return ORDER.compare(this, other);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        RequestParameter that = (RequestParameter) o;
+        return annotationName.equals(that.annotationName) && typeName.equals(that.typeName) && name.equals(that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(annotationName, typeName, name);
+    }
+
+    /**
+     * @return "Type name", e.g. Long patientId
+     */
+    @Override
+    public String toString() {
+        return typeName + ' ' + name;
+    }
+}
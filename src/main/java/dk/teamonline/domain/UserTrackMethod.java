@@ -2,7 +2,6 @@ package dk.teamonline.domain;
 
 import dk.eg.sensum.userTrack.domain.UserTrackAction;
 import dk.eg.sensum.userTrack.domain.UserTracking;
-import org.apache.commons.collections4.CollectionUtils;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -19,14 +18,6 @@ public class UserTrackMethod {
             .collect(Collectors.toList());
     }
 
-    public boolean hasRedundantParameters() {
-        return action == UserTrackAction.IGNORE && !userTrackParameters.isEmpty();
-    }
-
-    public boolean hasDuplicatedParameters() {
-        return new HashSet<>(userTrackParameters).size() < userTrackParameters.size();
-    }
-
     public UserTrackAction getAction() {
         return action;
     }
@@ -39,10 +30,6 @@ public class UserTrackMethod {
         return !userTrackParameters.isEmpty();
     }
 
-    public Set<UserTrackValue> getDuplicates() {
-        return new HashSet<>(CollectionUtils.subtract(userTrackParameters, new HashSet<>(userTrackParameters)));
-    }
-
     @Override
     public String toString() {
         return "@UserTracking(" +
@@ -1,13 +1,16 @@
 package dk.teamonline.domain;
 
 import dk.eg.sensum.userTrack.domain.UserTracking;
+import dk.teamonline.metrics.Counter;
+import dk.teamonline.metrics.Metrics;
+import dk.teamonline.metrics.Phase;
+import dk.teamonline.metrics.PhaseTimer;
 import dk.teamonline.utils.RequestMappingUtils;
 import dk.teamonline.annotation.ExternalWebService;
 import dk.teamonline.resolvers.MethodParamNamesResolver;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.web.bind.annotation.*;
 
 import java.lang.reflect.Method;
 import java.util.*;
@@ -18,13 +21,7 @@ import static dk.teamonline.enums.UserTrackError.MISSED_USER_TRACKING;
 public class WebController {
     private static final Logger LOGGER = LoggerFactory.getLogger(WebController.class);
 
-    private static final Predicate<Method> IS_ENDPOINT_METHOD = m ->
-        m.isAnnotationPresent(RequestMapping.class)
-            || m.isAnnotationPresent(GetMapping.class)
-            || m.isAnnotationPresent(PostMapping.class)
-            || m.isAnnotationPresent(PutMapping.class)
-            || m.isAnnotationPresent(DeleteMapping.class)
-            || m.isAnnotationPresent(PatchMapping.class);
+    private static final Predicate<Method> IS_ENDPOINT_METHOD = m -> RequestMappingUtils.getMappingInfo(m).isPresent();
 
     public static final Predicate<Method> HAS_USERTRACKING = m -> m.isAnnotationPresent(UserTracking.class);
 
@@ -32,6 +29,7 @@ public class WebController {
     private final boolean isExternalWebService;
     private final String relativeUrl;
     private final List<EndpointMethod> endpoints = new ArrayList<>();
+    private final List<Method> methodsWithoutUserTracking = new ArrayList<>();
 
     public WebController(Class<?> clazz) {
         this.clazz = clazz;
@@ -41,10 +39,15 @@ public class WebController {
 
     private String resolveUrlFromModuleAndClass() {
         String classLocation = clazz.getProtectionDomain().getCodeSource().getLocation().getPath();
+        return resolveUrl(classLocation, RequestMappingUtils.getClassRelativeUrl(clazz), isExternalWebService);
+    }
+
+    /**
+     * @param classLocation path of class file or of its jar, module name is taken from it
+     */
+    public static String resolveUrl(String classLocation, String classRelativeUrl, boolean isExternalWebService) {
         String moduleName = classLocation.substring(classLocation.indexOf("atlas") + 6).split("/")[0];
-        RequestMapping requestMapping = clazz.getAnnotation(RequestMapping.class);
-        String relativeUrl = RequestMappingUtils.getClassRelativeUrl(requestMapping);
-        return (isExternalWebService ? "/wsapi" : moduleName) + '/' + relativeUrl;
+        return (isExternalWebService ? "/wsapi" : moduleName) + '/' + classRelativeUrl;
     }
 
     public Class<?> getClazz() {
@@ -63,24 +66,52 @@ public class WebController {
         return Collections.unmodifiableList(endpoints);
     }
 
+    public List<Method> getMethodsWithoutUserTracking() {
+        return Collections.unmodifiableList(methodsWithoutUserTracking);
+    }
+
     public void setupEndpoints(MethodParamNamesResolver namesResolver) {
-        Arrays.stream(clazz.getDeclaredMethods())
-            .filter(IS_ENDPOINT_METHOD)
-            .peek(this::verifyForMissingUserTracking)
-            .filter(HAS_USERTRACKING)
-            .map(m -> new EndpointMethod(m, relativeUrl, namesResolver))
-            .forEach(endpoints::add);
+        PhaseTimer timer = Metrics.start(Phase.SETUP_ENDPOINTS);
+        try {
+            Arrays.stream(clazz.getDeclaredMethods())
+                .filter(IS_ENDPOINT_METHOD)
+                .peek(m -> {
+                    if (!HAS_USERTRACKING.test(m)) {
+                        methodsWithoutUserTracking.add(m);
+                    }
+                })
+                .filter(HAS_USERTRACKING)
+                .map(m -> new EndpointMethod(m, relativeUrl, namesResolver))
+                .forEach(endpoints::add);
+        } finally {
+            timer.stop();
+        }
+        Metrics.count(Counter.ENDPOINTS, endpoints.size());
+        Metrics.count(Counter.METHODS_WITHOUT_USER_TRACKING, methodsWithoutUserTracking.size());
     }
 
     public void verifyForMissingUserTracking(Method method) {
         if (!HAS_USERTRACKING.test(method)) {
-            LOGGER.error("{} - the following method is supposed to have @UserTracking:\n{}", MISSED_USER_TRACKING, method);
+            printMissingUserTracking(method.toString());
         }
     }
 
+    static void printMissingUserTracking(String method) {
+        LOGGER.error("{} - the following method is supposed to have @UserTracking:\n{}", MISSED_USER_TRACKING, method);
+    }
+
+    // reported separately from setup, so endpoints can be set up on worker thread and printed later
+    public void printMissingUserTracking() {
+        methodsWithoutUserTracking.forEach(this::verifyForMissingUserTracking);
+    }
+
     public void printHead() {
+        printHead(clazz.getSimpleName());
+    }
+
+    static void printHead(String controllerName) {
         String decoration = StringUtils.repeat('#', 20);
-        LOGGER.info("\n{} {} {}", decoration, clazz.getSimpleName(), decoration);
+        LOGGER.info("\n{} {} {}", decoration, controllerName, decoration);
     }
 
     public void printFooter() {
@@ -6,5 +6,6 @@ public enum UserTrackError {
     MISSED_USER_TRACKING,
     MISSED_PARAMETERS,
     REDUNDANT_PARAMETERS,
-    DUPLICATED_PARAMETER
+    DUPLICATED_PARAMETER,
+    PARAMETER_NAMES_UNAVAILABLE
 }
@@ -0,0 +1,27 @@
+package dk.teamonline.metrics;
+
+/**
+ * Counted events of analysis, counters of the same group make hit rate, e.g. {@link #ANALYSIS_CACHE_HITS}
+ * and {@link #ANALYSIS_CACHE_MISSES}.
+ */
+public enum Counter {
+    CONTROLLERS,
+    ENDPOINTS,
+    METHODS_WITHOUT_USER_TRACKING,
+    FINDINGS,
+    RULES_APPLIED,
+    RULES_SKIPPED,
+    CLASS_FILES_READ,
+    SOURCE_FILES_PARSED,
+    PARAM_NAMES_RESOLVED,
+    PARAM_NAMES_UNRESOLVED,
+    PARAM_NAMES_FROM_SOURCE,
+    INDEX_HITS,
+    INDEX_MISSES,
+    ANALYSIS_CACHE_HITS,
+    ANALYSIS_CACHE_MISSES,
+    PACKAGE_CACHE_HITS,
+    PACKAGE_CACHE_MISSES,
+    EXPRESSION_CACHE_HITS,
+    EXPRESSION_CACHE_MISSES
+}
@@ -0,0 +1,139 @@
+package dk.teamonline.metrics;
+
+import dk.teamonline.report.JsonRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Phase timings and counters of run, turned on with System property metrics.enabled=true, default - off.
+ *
+ * When on, every phase is timed (wall and CPU time of its thread) and emitted as Flight Recorder event
+ * {@link PhaseEvent} if recording is running (e.g. -XX:StartFlightRecording); at the end of run summary is printed
+ * and written as JSON to userTrack-metrics_{runName}.json in userTrack.log.path.
+ * When off, timers and counters are no-ops behind constant flag, so JIT removes them from hot paths.
+ */
+public class Metrics {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Metrics.class);
+    private static final boolean ENABLED = Boolean.getBoolean("metrics.enabled");
+    private static final Map<Phase, PhaseStats> PHASES = new EnumMap<>(Phase.class);
+    private static final Map<Counter, LongAdder> COUNTERS = new EnumMap<>(Counter.class);
+
+    static {
+        for (Phase phase : Phase.values()) {
+            PHASES.put(phase, new PhaseStats());
+        }
+        for (Counter counter : Counter.values()) {
+            COUNTERS.put(counter, new LongAdder());
+        }
+    }
+
+    private Metrics() {
+        throw new UnsupportedOperationException("Utils class is not supposed to have instances");
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static PhaseTimer start(Phase phase) {
+        if (!ENABLED) {
+            return PhaseTimer.DISABLED;
+        }
+        PhaseEvent event = new PhaseEvent();
+        event.begin();
+        return new PhaseTimer(phase, System.nanoTime(), currentThreadCpuNanos(), event);
+    }
+
+    public static void count(Counter counter) {
+        count(counter, 1);
+    }
+
+    public static void count(Counter counter, long amount) {
+        if (ENABLED) {
+            COUNTERS.get(counter).add(amount);
+        }
+    }
+
+    /**
+     * Prints summary of metrics collected so far and writes it to JSON file, does nothing if metrics are off.
+     */
+    public static void writeSummary(String runName) {
+        if (!ENABLED) {
+            return;
+        }
+        Map<String, Object> phases = new LinkedHashMap<>();
+        PHASES.forEach((phase, stats) -> {
+            if (stats.count.sum() > 0) {
+                Map<String, Object> phaseSummary = new LinkedHashMap<>();
+                phaseSummary.put("count", stats.count.sum());
+                phaseSummary.put("wallMillis", TimeUnit.NANOSECONDS.toMillis(stats.wallNanos.sum()));
+                phaseSummary.put("cpuMillis", TimeUnit.NANOSECONDS.toMillis(stats.cpuNanos.sum()));
+                phases.put(phase.name(), phaseSummary);
+            }
+        });
+        Map<String, Object> counters = new LinkedHashMap<>();
+        COUNTERS.forEach((counter, value) -> counters.put(counter.name(), value.sum()));
+        Map<String, Object> hitRates = new LinkedHashMap<>();
+        hitRates.put("index", hitRate(Counter.INDEX_HITS, Counter.INDEX_MISSES));
+        hitRates.put("analysisCache", hitRate(Counter.ANALYSIS_CACHE_HITS, Counter.ANALYSIS_CACHE_MISSES));
+        hitRates.put("packageCache", hitRate(Counter.PACKAGE_CACHE_HITS, Counter.PACKAGE_CACHE_MISSES));
+        hitRates.put("expressionCache", hitRate(Counter.EXPRESSION_CACHE_HITS, Counter.EXPRESSION_CACHE_MISSES));
+        hitRates.put("paramNames", hitRate(Counter.PARAM_NAMES_RESOLVED, Counter.PARAM_NAMES_UNRESOLVED));
+
+        LOGGER.info("Metrics of {}:\nphases: {}\ncounters: {}\nhit rates: {}", runName, phases, counters, hitRates);
+        Path file = Paths.get(System.getProperty("userTrack.log.path", "."), "userTrack-metrics_" + runName + ".json");
+        String json = new JsonRecord("metrics")
+            .field("run", runName)
+            .field("phases", phases)
+            .field("counters", counters)
+            .field("hitRates", hitRates)
+            .toString();
+        try {
+            Files.writeString(file, json + System.lineSeparator());
+        } catch (IOException e) {
+            LOGGER.warn("Metrics summary {} can't be written: {}", file, e.toString());
+        }
+    }
+
+    static void record(Phase phase, long wallNanos, long cpuNanos) {
+        PhaseStats stats = PHASES.get(phase);
+        stats.count.increment();
+        stats.wallNanos.add(wallNanos);
+        stats.cpuNanos.add(cpuNanos);
+    }
+
+    static long currentThreadCpuNanos() {
+        return CpuTime.SUPPORTED ? CpuTime.THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    // null if nothing was counted, so absent data isn't taken for 0% hit rate
+    private static Double hitRate(Counter hits, Counter misses) {
+        long hitCount = COUNTERS.get(hits).sum();
+        long total = hitCount + COUNTERS.get(misses).sum();
+        return total == 0 ? null : (double) hitCount / total;
+    }
+
+    // management classes are loaded only when metrics are on
+    private static class CpuTime {
+        private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+        private static final boolean SUPPORTED = THREADS.isCurrentThreadCpuTimeSupported();
+    }
+
+    private static class PhaseStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder wallNanos = new LongAdder();
+        private final LongAdder cpuNanos = new LongAdder();
+    }
+}
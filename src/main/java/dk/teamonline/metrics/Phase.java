@@ -0,0 +1,16 @@
+package dk.teamonline.metrics;
+
+/**
+ * Timed phases of analysis. Phases can nest: {@link #PARAM_NAMES} is part of {@link #SETUP_ENDPOINTS},
+ * which together with the others is part of {@link #MODULE}.
+ */
+public enum Phase {
+    MODULE,
+    CLASSPATH_SCAN,
+    INDEX_LOAD,
+    SOURCE_PARSE,
+    SETUP_ENDPOINTS,
+    PARAM_NAMES,
+    VERIFY,
+    REPORT
+}
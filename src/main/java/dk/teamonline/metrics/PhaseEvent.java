@@ -0,0 +1,26 @@
+package dk.teamonline.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event of 1 timed phase, duration of event is wall time of phase.
+ */
+@Name("dk.teamonline.userTrack.Phase")
+@Label("UserTrack Phase")
+@Category("UserTrack Analyzer")
+@Description("Timed phase of UserTrack analysis")
+@StackTrace(false)
+class PhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("CPU Time")
+    @Timespan
+    long cpuTime;
+}
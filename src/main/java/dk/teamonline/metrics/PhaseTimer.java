@@ -0,0 +1,35 @@
+package dk.teamonline.metrics;
+
+/**
+ * Measures wall and CPU time of phase on current thread until stopped, is supposed to be stopped in finally block.
+ * When metrics are off the single shared timer is returned, which measures nothing.
+ */
+public class PhaseTimer {
+    static final PhaseTimer DISABLED = new PhaseTimer(null, 0, 0, null);
+
+    private final Phase phase;
+    private final long startNanos;
+    private final long startCpuNanos;
+    private final PhaseEvent event;
+
+    PhaseTimer(Phase phase, long startNanos, long startCpuNanos, PhaseEvent event) {
+        this.phase = phase;
+        this.startNanos = startNanos;
+        this.startCpuNanos = startCpuNanos;
+        this.event = event;
+    }
+
+    public void stop() {
+        if (phase == null) {
+            return;
+        }
+        long cpuNanos = Metrics.currentThreadCpuNanos() - startCpuNanos;
+        Metrics.record(phase, System.nanoTime() - startNanos, cpuNanos);
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase.name();
+            event.cpuTime = cpuNanos;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package dk.teamonline.pipeline;
+
+import com.google.common.base.Throwables;
+import dk.teamonline.DeclaredEndpointVerifier;
+import dk.teamonline.UserTrackVerifier;
+import dk.teamonline.cache.AnalysisCache;
+import dk.teamonline.classfile.ClassFileController;
+import dk.teamonline.classfile.ClassFileType;
+import dk.teamonline.domain.ControllerReport;
+import dk.teamonline.domain.DeclaredEndpoint;
+import dk.teamonline.domain.EndpointMethod;
+import dk.teamonline.domain.EndpointReport;
+import dk.teamonline.domain.ModuleSummary;
+import dk.teamonline.domain.WebController;
+import dk.teamonline.metrics.Metrics;
+import dk.teamonline.metrics.Phase;
+import dk.teamonline.metrics.PhaseTimer;
+import dk.teamonline.report.LogReportSink;
+import dk.teamonline.report.ReportSink;
+import dk.teamonline.resolvers.MethodParamNamesResolver;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static dk.teamonline.enums.UserTrackError.MISSED_USER_TRACKING;
+
+/**
+ * Staged analysis of module packages: discover -> build endpoints -> verify -> render.
+ *
+ * Stages are joined by bounded queues:
+ * 1) discover - scans packages for controllers (each package on its own worker if parallel discovery is on);
+ * 2) build endpoints - sets up endpoints of every controller and submits them for verification;
+ * 3) verify - runs {@link UserTrackVerifier} on configurable pool or virtual threads;
+ * 4) render - hands every item over to {@link ReportSink} in discovery order, so report is deterministic.
+ *
+ * Render queue keeps verification results in submission order and limits amount of endpoints in flight:
+ * when renderer falls behind builder is blocked, so verification can't run away from report output.
+ * Controllers unchanged since previous run are replayed from {@link AnalysisCache} instead of being verified,
+ * unchanged packages are replayed without being scanned (see {@link CachedControllerScan}).
+ * Controllers discovered from class files are verified by {@link DeclaredEndpointVerifier} and are not loaded.
+ */
+public class AnalysisPipeline {
+    private static final DiscoveredController END_OF_DISCOVERY = new DiscoveredController(null, null, null, null, null, null);
+    private static final CompletableFuture<Runnable> END_OF_REPORT = CompletableFuture.completedFuture(() -> {
+    });
+
+    private final Function<String, PackageScan> discoverer;
+    private final ModuleSummary moduleSummary;
+    private final AnalysisCache cache;
+    private final ReportSink reportSink;
+    private final boolean parallelDiscovery;
+    private final BlockingQueue<DiscoveredController> discoveredControllers;
+    private final BlockingQueue<CompletableFuture<Runnable>> reportItems;
+    private final Executor verifyExecutor;
+    // null if verify executor is shared
+    private final ExecutorService ownedVerifyExecutor;
+    private volatile Throwable stageFailure;
+
+    public AnalysisPipeline(Function<String, PackageScan> discoverer, ModuleSummary moduleSummary, PipelineSettings settings) {
+        this(discoverer, moduleSummary, AnalysisCache.disabled(), new LogReportSink(), settings);
+    }
+
+    public AnalysisPipeline(Function<String, PackageScan> discoverer, ModuleSummary moduleSummary, AnalysisCache cache,
+                            ReportSink reportSink, PipelineSettings settings) {
+        this.discoverer = discoverer;
+        this.moduleSummary = moduleSummary;
+        this.cache = cache;
+        this.reportSink = reportSink;
+        this.parallelDiscovery = settings.isParallelDiscovery();
+        this.discoveredControllers = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+        this.reportItems = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+        this.ownedVerifyExecutor = settings.getSharedVerifyExecutor() == null ? settings.createVerifyExecutor() : null;
+        this.verifyExecutor = ownedVerifyExecutor != null ? ownedVerifyExecutor : settings.getSharedVerifyExecutor();
+    }
+
+    /**
+     * Runs all stages and renders report on caller thread; returns when report of all packages is handed over to sink.
+     * Sink is not closed, so module summary can be added to it afterwards.
+     * Failures of packages and controllers are reported, anything else that stops a stage is rethrown once report is rendered.
+     */
+    public void run(List<String> packagesToScan) {
+        Thread discoverStage = new Thread(() -> discover(packagesToScan), "userTrack-discover");
+        Thread buildStage = new Thread(this::buildEndpoints, "userTrack-build");
+        for (Thread stage : List.of(discoverStage, buildStage)) {
+            stage.setDaemon(true);
+            stage.setUncaughtExceptionHandler((thread, failure) -> stageFailure = failure);
+            stage.start();
+        }
+        try {
+            render();
+            discoverStage.join();
+            buildStage.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (ownedVerifyExecutor != null) {
+                ownedVerifyExecutor.shutdown();
+            }
+        }
+        if (stageFailure != null) {
+            Throwables.throwIfUnchecked(stageFailure);
+            throw new IllegalStateException("Analysis stage failed", stageFailure);
+        }
+    }
+
+    private void discover(List<String> packagesToScan) {
+        ExecutorService discoverExecutor = parallelDiscovery
+            ? Executors.newFixedThreadPool(Math.min(packagesToScan.size(), Runtime.getRuntime().availableProcessors()))
+            : null;
+        try {
+            List<CompletableFuture<PackageScan>> scans = packagesToScan.stream()
+                .map(packageToScan -> discoverExecutor != null
+                    ? CompletableFuture.supplyAsync(() -> discoverer.apply(packageToScan), discoverExecutor)
+                    : null)
+                .collect(Collectors.toList());
+            for (int i = 0; i < packagesToScan.size(); i++) {
+                String packageToScan = packagesToScan.get(i);
+                discoveredControllers.put(new DiscoveredController(packageToScan, null, null, null, null, null));
+                try {
+                    PackageScan scan = scans.get(i) != null ? scans.get(i).join() : discoverer.apply(packageToScan);
+                    for (Class<?> controllerClass : scan.getControllerClasses()) {
+                        discoveredControllers.put(new DiscoveredController(packageToScan, controllerClass, null, scan.getNamesResolver(),
+                            null, null));
+                    }
+                    for (ClassFileController controller : scan.getClassFileControllers()) {
+                        discoveredControllers.put(new DiscoveredController(packageToScan, null, controller, scan.getNamesResolver(),
+                            null, null));
+                    }
+                    for (ControllerReport cachedReport : scan.getCachedReports()) {
+                        discoveredControllers.put(new DiscoveredController(packageToScan, null, null, null, cachedReport,
+                            scan.getClassLoader()));
+                    }
+                } catch (RuntimeException | LinkageError e) {
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    discoveredControllers.put(DiscoveredController.failed(packageToScan, cause));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (discoverExecutor != null) {
+                discoverExecutor.shutdownNow();
+            }
+            putQuietly(discoveredControllers, END_OF_DISCOVERY);
+        }
+    }
+
+    private void buildEndpoints() {
+        try {
+            DiscoveredController discovered;
+            while ((discovered = discoveredControllers.take()) != END_OF_DISCOVERY) {
+                String packageToScan = discovered.packageName;
+                if (discovered.failure != null) {
+                    Throwable failure = discovered.failure;
+                    reportItems.put(CompletableFuture.completedFuture(() -> reportSink.packageFailed(packageToScan, failure)));
+                } else if (discovered.cachedReport != null) {
+                    replayController(discovered.cachedReport, discovered.classLoader);
+                } else if (discovered.classFileController != null) {
+                    buildClassFileController(discovered);
+                } else if (discovered.controllerClass == null) {
+                    reportItems.put(CompletableFuture.completedFuture(() -> reportSink.packageStarted(packageToScan)));
+                } else {
+                    buildController(discovered);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            putQuietly(reportItems, END_OF_REPORT);
+        }
+    }
+
+    private void buildController(DiscoveredController discovered) throws InterruptedException {
+        Optional<ControllerReport> cachedReport = cache.get(discovered.controllerClass);
+        if (cachedReport.isPresent()) {
+            replayController(cachedReport.get(), discovered.controllerClass.getClassLoader());
+            return;
+        }
+        WebController controller;
+        try {
+            controller = new WebController(discovered.controllerClass);
+            controller.setupEndpoints(discovered.namesResolver);
+        } catch (RuntimeException | LinkageError e) {
+            reportItems.put(CompletableFuture.completedFuture(() ->
+                reportSink.controllerFailed(discovered.controllerClass.getName(), discovered.packageName, e)));
+            return;
+        }
+        moduleSummary.countFinding(MISSED_USER_TRACKING, controller.getMethodsWithoutUserTracking().size());
+        ControllerReport head = new ControllerReport(controller, Collections.emptyList());
+        reportItems.put(CompletableFuture.completedFuture(() -> reportSink.controller(head)));
+        List<CompletableFuture<UserTrackVerifier>> verifications = new ArrayList<>();
+        List<CompletableFuture<EndpointReport>> endpointReports = new ArrayList<>();
+        ClassLoader classLoader = controller.getClazz().getClassLoader();
+        for (EndpointMethod endpoint : controller.getEndpoints()) {
+            CompletableFuture<UserTrackVerifier> verification = CompletableFuture.supplyAsync(() -> verify(endpoint), verifyExecutor);
+            CompletableFuture<EndpointReport> endpointReport = verification.thenApply(verifier -> {
+                EndpointReport report = verifier.toReport();
+                moduleSummary.mergeEndpoint(report, report.getTrackedEntities(classLoader));
+                return report;
+            });
+            verifications.add(verification);
+            endpointReports.add(endpointReport);
+            reportItems.put(endpointReport.thenApply(report -> () -> reportSink.endpoint(report)));
+        }
+        if (cache.isEnabled()) {
+            // goes through render queue as well, so all controllers are cached when report is printed;
+            // controller with failed endpoint is not cached, failure is rendered by item of endpoint
+            reportItems.put(CompletableFuture.allOf(endpointReports.toArray(new CompletableFuture<?>[0]))
+                .handle((ignored, failure) -> failure != null
+                    ? () -> { }
+                    : () -> cacheController(controller, verifications, endpointReports, discovered.namesResolver)));
+        }
+    }
+
+    private UserTrackVerifier verify(EndpointMethod endpoint) {
+        UserTrackVerifier verifier = new UserTrackVerifier(endpoint, verifyExecutor);
+        verifier.verify();
+        moduleSummary.mergeFindingCounts(verifier.getErrorCollector().getErrorCounts());
+        moduleSummary.mergeFindingCounts(verifier.getErrorCollector().getWarningCounts());
+        return verifier;
+    }
+
+    private void cacheController(WebController controller, List<CompletableFuture<UserTrackVerifier>> verifications,
+                                 List<CompletableFuture<EndpointReport>> endpointReports,
+                                 MethodParamNamesResolver namesResolver) {
+        Set<Class<?>> reachedTypes = new HashSet<>();
+        verifications.forEach(verification -> reachedTypes.addAll(verification.join().getReachedTypes()));
+        List<EndpointReport> reports = endpointReports.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        cache.put(controller.getClazz(), new ControllerReport(controller, reports), reachedTypes, namesResolver);
+    }
+
+    private void buildClassFileController(DiscoveredController discovered) throws InterruptedException {
+        ClassFileController controller = discovered.classFileController;
+        ClassLoader classLoader = controller.getTypes().getClassLoader();
+        Optional<ControllerReport> cachedReport = cache.get(controller.getName(), classLoader);
+        if (cachedReport.isPresent()) {
+            replayController(cachedReport.get(), classLoader);
+            return;
+        }
+        try {
+            controller.setupEndpoints(discovered.namesResolver);
+        } catch (RuntimeException | LinkageError e) {
+            reportItems.put(CompletableFuture.completedFuture(() ->
+                reportSink.controllerFailed(controller.getName(), discovered.packageName, e)));
+            return;
+        }
+        moduleSummary.countFinding(MISSED_USER_TRACKING, controller.getMethodsWithoutUserTracking().size());
+        ControllerReport head = new ControllerReport(controller.getName(), controller.getSimpleName(), controller.getRelativeUrl(),
+            controller.getMethodsWithoutUserTracking(), Collections.emptyList());
+        reportItems.put(CompletableFuture.completedFuture(() -> reportSink.controller(head)));
+        Set<String> reachedTypeNames = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<EndpointReport>> endpointReports = new ArrayList<>();
+        for (DeclaredEndpoint<ClassFileType> endpoint : controller.getEndpoints()) {
+            CompletableFuture<EndpointReport> endpointReport = CompletableFuture.supplyAsync(() -> {
+                EndpointReport report = verify(endpoint, controller, reachedTypeNames);
+                mergeSummary(report, classLoader);
+                return report;
+            }, verifyExecutor);
+            endpointReports.add(endpointReport);
+            reportItems.put(endpointReport.thenApply(report -> () -> reportSink.endpoint(report)));
+        }
+        if (cache.isEnabled()) {
+            reportItems.put(CompletableFuture.allOf(endpointReports.toArray(new CompletableFuture<?>[0]))
+                .handle((ignored, failure) -> failure != null ? () -> { } : () -> {
+                    List<EndpointReport> reports = endpointReports.stream().map(CompletableFuture::join).collect(Collectors.toList());
+                    cache.put(controller.getName(), classLoader, new ControllerReport(controller.getName(), controller.getSimpleName(),
+                        controller.getRelativeUrl(), controller.getMethodsWithoutUserTracking(), reports), reachedTypeNames,
+                        discovered.namesResolver);
+                }));
+        }
+    }
+
+    private EndpointReport verify(DeclaredEndpoint<ClassFileType> endpoint, ClassFileController controller,
+                                  Set<String> reachedTypeNames) {
+        DeclaredEndpointVerifier<ClassFileType> verifier = new DeclaredEndpointVerifier<>(endpoint, controller.getTypes(), verifyExecutor);
+        verifier.verify();
+        verifier.getReachedTypes().forEach(type -> reachedTypeNames.add(type.getName()));
+        List<String> trackedEntities = verifier.getTrackedEntities().stream()
+            .map(ClassFileType::getName)
+            .collect(Collectors.toList());
+        return new EndpointReport(endpoint, verifier.getErrorCollector(), trackedEntities);
+    }
+
+    // entity classes are loaded (not initialized) only for table names of module summary
+    private void mergeSummary(EndpointReport endpointReport, ClassLoader classLoader) {
+        moduleSummary.mergeFindings(endpointReport.getFindings());
+        moduleSummary.mergeEndpoint(endpointReport, endpointReport.getTrackedEntities(classLoader));
+    }
+
+    private void replayController(ControllerReport report, ClassLoader classLoader) throws InterruptedException {
+        moduleSummary.countFinding(MISSED_USER_TRACKING, report.getMethodsWithoutUserTracking().size());
+        reportItems.put(CompletableFuture.completedFuture(() -> reportSink.controller(report)));
+        for (EndpointReport endpointReport : report.getEndpoints()) {
+            mergeSummary(endpointReport, classLoader);
+            reportItems.put(CompletableFuture.completedFuture(() -> reportSink.endpoint(endpointReport)));
+        }
+    }
+
+    private void render() {
+        try {
+            CompletableFuture<Runnable> reportItem;
+            while ((reportItem = reportItems.take()) != END_OF_REPORT) {
+                Runnable item;
+                try {
+                    item = reportItem.join();
+                } catch (CompletionException e) {
+                    reportSink.endpointFailed(e.getCause());
+                    continue;
+                }
+                PhaseTimer timer = Metrics.start(Phase.REPORT);
+                try {
+                    item.run();
+                } finally {
+                    timer.stop();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // end markers have to be delivered even if stage was interrupted, otherwise next stage waits forever
+    private static <T> void putQuietly(BlockingQueue<T> queue, T item) {
+        boolean interrupted = Thread.interrupted();
+        while (true) {
+            try {
+                queue.put(item);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Item of discover -> build queue: package head (no controller), controller to build (class or class file),
+     * controller to replay from cache or discovery failure.
+     */
+    private static class DiscoveredController {
+        private final String packageName;
+        private final Class<?> controllerClass;
+        private final ClassFileController classFileController;
+        private final MethodParamNamesResolver namesResolver;
+        private final ControllerReport cachedReport;
+        private final ClassLoader classLoader;
+        private final Throwable failure;
+
+        private DiscoveredController(String packageName, Class<?> controllerClass, ClassFileController classFileController,
+                                     MethodParamNamesResolver namesResolver, ControllerReport cachedReport, ClassLoader classLoader) {
+            this(packageName, controllerClass, classFileController, namesResolver, cachedReport, classLoader, null);
+        }
+
+        private DiscoveredController(String packageName, Class<?> controllerClass, ClassFileController classFileController,
+                                     MethodParamNamesResolver namesResolver, ControllerReport cachedReport, ClassLoader classLoader,
+                                     Throwable failure) {
+            this.packageName = packageName;
+            this.controllerClass = controllerClass;
+            this.classFileController = classFileController;
+            this.namesResolver = namesResolver;
+            this.cachedReport = cachedReport;
+            this.classLoader = classLoader;
+            this.failure = failure;
+        }
+
+        private static DiscoveredController failed(String packageName, Throwable failure) {
+            return new DiscoveredController(packageName, null, null, null, null, null, failure);
+        }
+    }
+}
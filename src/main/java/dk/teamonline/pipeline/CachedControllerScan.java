@@ -0,0 +1,39 @@
+package dk.teamonline.pipeline;
+
+import dk.teamonline.cache.AnalysisCache;
+import dk.teamonline.domain.ControllerReport;
+import dk.teamonline.resolvers.ControllerSourceParser;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Asks {@link AnalysisCache} for package before it's scanned: package unchanged since previous run is replayed
+ * from cache, so neither its classes are scanned for controllers nor are controllers loaded.
+ * Other packages are discovered by wrapped scan, their controllers are recorded for next run.
+ */
+public class CachedControllerScan implements ControllerScan {
+    private final AnalysisCache cache;
+    private final ControllerScan scan;
+
+    public CachedControllerScan(AnalysisCache cache, ControllerScan scan) {
+        this.cache = cache;
+        this.scan = scan;
+    }
+
+    @Override
+    public PackageScan scan(String packageToScan, ControllerSourceParser sourceParser) {
+        Optional<List<ControllerReport>> cachedReports = cache.getPackage(packageToScan, getClassLoader());
+        if (cachedReports.isPresent()) {
+            return PackageScan.ofCachedReports(packageToScan, cachedReports.get(), getClassLoader());
+        }
+        PackageScan packageScan = scan.scan(packageToScan, sourceParser);
+        cache.putPackage(packageToScan, getClassLoader(), packageScan.getControllerNames());
+        return packageScan;
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return scan.getClassLoader();
+    }
+}
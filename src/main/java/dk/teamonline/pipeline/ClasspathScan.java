@@ -0,0 +1,123 @@
+package dk.teamonline.pipeline;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import dk.teamonline.annotation.ExternalWebService;
+import dk.teamonline.metrics.Counter;
+import dk.teamonline.metrics.Metrics;
+import dk.teamonline.metrics.Phase;
+import dk.teamonline.metrics.PhaseTimer;
+import dk.teamonline.resolvers.BytecodeMethodParamNamesResolver;
+import dk.teamonline.resolvers.CompositeMethodParamNamesResolver;
+import dk.teamonline.resolvers.ControllerSourceParser;
+import dk.teamonline.resolvers.MethodParamNamesResolver;
+import dk.teamonline.resolvers.ThoughtworksMethodParamNamesResolver;
+import org.reflections.Reflections;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.scanners.TypeAnnotationsScanner;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Single classpath scan shared by all module types of run.
+ *
+ * Jars are scanned once for all packages (on parallel executor) and only with scanners required to find controllers;
+ * every module type then takes its slice of controllers by package name.
+ * Scan is performed lazily on first request and is safe to query from several discovery workers.
+ * If shared scan fails, every package is scanned on its own, so only packages whose own scan fails are reported as failed.
+ * Controllers found through several annotations (or as subtypes of differently annotated controllers) are taken once.
+ */
+public class ClasspathScan implements ControllerScan {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClasspathScan.class);
+
+    private final ClassLoader classLoader;
+    private final Supplier<Optional<List<Class<?>>>> controllerClasses;
+
+    public ClasspathScan(List<String> packagesToScan) {
+        this(packagesToScan, null);
+    }
+
+    /**
+     * @param classLoader loader controllers are loaded by, e.g. loader of 1 module; default loaders of Reflections if null
+     */
+    public ClasspathScan(List<String> packagesToScan, ClassLoader classLoader) {
+        this.classLoader = classLoader;
+        this.controllerClasses = Suppliers.memoize(() -> {
+            try {
+                return Optional.of(scanControllers(packagesToScan, classLoader));
+            } catch (RuntimeException e) {
+                LOGGER.warn("Shared scan of {} failed, packages are scanned one by one: {}", packagesToScan, e.toString());
+                return Optional.empty();
+            }
+        });
+    }
+
+    @Override
+    public PackageScan scan(String packageToScan, ControllerSourceParser sourceParser) {
+        List<MethodParamNamesResolver> resolvers = new ArrayList<>();
+        resolvers.add(new BytecodeMethodParamNamesResolver());
+        if (sourceParser != null) {
+            // only for classes compiled without -parameters and debug info
+            resolvers.add(new ThoughtworksMethodParamNamesResolver(sourceParser));
+        }
+        MethodParamNamesResolver namesResolver = new CompositeMethodParamNamesResolver(resolvers);
+        return new PackageScan(packageToScan, getControllerClasses(packageToScan), namesResolver);
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return classLoader != null ? classLoader : ClasspathScan.class.getClassLoader();
+    }
+
+    /**
+     * @return controllers (@Controller, @RestController, @ExternalWebService) of package sorted by simple name
+     */
+    public List<Class<?>> getControllerClasses(String packageToScan) {
+        String packagePrefix = packageToScan + '.';
+        return controllerClasses.get().orElseGet(() -> scanControllers(List.of(packageToScan), classLoader)).stream()
+            .filter(clazz -> clazz.getName().startsWith(packagePrefix))
+            .collect(Collectors.toList());
+    }
+
+    private static List<Class<?>> scanControllers(List<String> packagesToScan, ClassLoader classLoader) {
+        PhaseTimer timer = Metrics.start(Phase.CLASSPATH_SCAN);
+        try {
+            List<Class<?>> controllers = findControllers(packagesToScan, classLoader);
+            Metrics.count(Counter.CONTROLLERS, controllers.size());
+            return controllers;
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private static List<Class<?>> findControllers(List<String> packagesToScan, ClassLoader classLoader) {
+        String[] packages = packagesToScan.toArray(new String[0]);
+        ConfigurationBuilder configuration = new ConfigurationBuilder();
+        if (classLoader != null) {
+            configuration.addClassLoader(classLoader);
+        }
+        Reflections scanner = new Reflections(configuration
+            .forPackages(packages)
+            .filterInputsBy(new FilterBuilder().includePackage(packages))
+            // SubTypesScanner is required by getTypesAnnotatedWith to collect subtypes of annotated classes;
+            // subtypes of Object are kept, otherwise scanner has no store at all if no class extends other one and scan fails
+            .setScanners(new TypeAnnotationsScanner(), new SubTypesScanner(false))
+            .useParallelExecutor());
+        return Stream.of(Controller.class, RestController.class, ExternalWebService.class)
+            .flatMap(annotation -> scanner.getTypesAnnotatedWith(annotation).stream())
+            .distinct()
+            .sorted(Comparator.comparing(Class::getSimpleName))
+            .collect(Collectors.toList());
+    }
+}
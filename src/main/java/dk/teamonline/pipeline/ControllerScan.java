@@ -0,0 +1,19 @@
+package dk.teamonline.pipeline;
+
+import dk.teamonline.resolvers.ControllerSourceParser;
+
+/**
+ * Discovery of controllers for all packages of run: by reflection ({@link ClasspathScan})
+ * or straight from class files ({@link dk.teamonline.classfile.ClassFileScan}).
+ */
+public interface ControllerScan {
+    /**
+     * @param sourceParser parser of package sources for fallback names resolution, null if fallback is off
+     */
+    PackageScan scan(String packageToScan, ControllerSourceParser sourceParser);
+
+    /**
+     * @return loader class files of scanned packages are read from
+     */
+    ClassLoader getClassLoader();
+}
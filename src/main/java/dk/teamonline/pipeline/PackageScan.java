@@ -0,0 +1,88 @@
+package dk.teamonline.pipeline;
+
+import dk.teamonline.classfile.ClassFileController;
+import dk.teamonline.domain.ControllerReport;
+import dk.teamonline.resolvers.MethodParamNamesResolver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of discovery stage for 1 package: controllers in report order and resolver for their parameter names.
+ * Controllers are either loaded classes or, if they are discovered from class files, {@link ClassFileController}s.
+ * Package unchanged since previous run has reports of its controllers from {@link dk.teamonline.cache.AnalysisCache}
+ * instead, then it's neither scanned nor are its controllers set up.
+ */
+public class PackageScan {
+    private final String packageName;
+    private final List<Class<?>> controllerClasses;
+    private final List<ClassFileController> classFileControllers;
+    private final MethodParamNamesResolver namesResolver;
+    private final List<ControllerReport> cachedReports;
+    private final ClassLoader classLoader;
+
+    public PackageScan(String packageName, List<Class<?>> controllerClasses, MethodParamNamesResolver namesResolver) {
+        this(packageName, controllerClasses, Collections.emptyList(), namesResolver, Collections.emptyList(), null);
+    }
+
+    private PackageScan(String packageName, List<Class<?>> controllerClasses, List<ClassFileController> classFileControllers,
+                        MethodParamNamesResolver namesResolver, List<ControllerReport> cachedReports, ClassLoader classLoader) {
+        this.packageName = packageName;
+        this.controllerClasses = controllerClasses;
+        this.classFileControllers = classFileControllers;
+        this.namesResolver = namesResolver;
+        this.cachedReports = cachedReports;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * @param namesResolver resolver by signature for methods whose class files have no parameter names
+     */
+    public static PackageScan ofClassFiles(String packageName, List<ClassFileController> controllers,
+                                           MethodParamNamesResolver namesResolver) {
+        return new PackageScan(packageName, Collections.emptyList(), controllers, namesResolver, Collections.emptyList(), null);
+    }
+
+    /**
+     * @param classLoader loader of package, entities of tracked tables are loaded by it
+     */
+    public static PackageScan ofCachedReports(String packageName, List<ControllerReport> reports, ClassLoader classLoader) {
+        return new PackageScan(packageName, Collections.emptyList(), Collections.emptyList(), null, reports, classLoader);
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public List<Class<?>> getControllerClasses() {
+        return Collections.unmodifiableList(controllerClasses);
+    }
+
+    public List<ClassFileController> getClassFileControllers() {
+        return Collections.unmodifiableList(classFileControllers);
+    }
+
+    public MethodParamNamesResolver getNamesResolver() {
+        return namesResolver;
+    }
+
+    public List<ControllerReport> getCachedReports() {
+        return Collections.unmodifiableList(cachedReports);
+    }
+
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    /**
+     * @return names of controllers in report order
+     */
+    public List<String> getControllerNames() {
+        List<String> names = new ArrayList<>();
+        controllerClasses.forEach(controllerClass -> names.add(controllerClass.getName()));
+        classFileControllers.forEach(controller -> names.add(controller.getName()));
+        cachedReports.forEach(report -> names.add(report.getControllerName()));
+        return names;
+    }
+}
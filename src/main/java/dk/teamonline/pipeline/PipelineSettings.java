@@ -0,0 +1,94 @@
+package dk.teamonline.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pipeline configuration, by default taken from System properties:
+ *      scan.parallel - if true each module type is discovered on its own worker, default - false
+ *      verify.threads - size of verification pool, default - amount of available processors
+ *      verify.virtualThreads - if true endpoints are verified on virtual threads (JVM should support them), default - false
+ *      pipeline.queue.capacity - capacity of every queue between stages, default - 256
+ */
+public class PipelineSettings {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelineSettings.class);
+    private static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    private final boolean parallelDiscovery;
+    private final int verifyThreads;
+    private final boolean virtualThreads;
+    private final int queueCapacity;
+    // executor shared by several pipelines, is not owned (and not shut down) by pipeline
+    private final Executor sharedVerifyExecutor;
+
+    public PipelineSettings(boolean parallelDiscovery, int verifyThreads, boolean virtualThreads, int queueCapacity) {
+        this(parallelDiscovery, verifyThreads, virtualThreads, queueCapacity, null);
+    }
+
+    private PipelineSettings(boolean parallelDiscovery, int verifyThreads, boolean virtualThreads, int queueCapacity,
+                             Executor sharedVerifyExecutor) {
+        if (verifyThreads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Amount of verify threads and queue capacity should be positive");
+        }
+        this.parallelDiscovery = parallelDiscovery;
+        this.verifyThreads = verifyThreads;
+        this.virtualThreads = virtualThreads;
+        this.queueCapacity = queueCapacity;
+        this.sharedVerifyExecutor = sharedVerifyExecutor;
+    }
+
+    public static PipelineSettings fromSystemProperties() {
+        return new PipelineSettings(
+            Boolean.getBoolean("scan.parallel"),
+            Integer.getInteger("verify.threads", Runtime.getRuntime().availableProcessors()),
+            Boolean.getBoolean("verify.virtualThreads"),
+            Integer.getInteger("pipeline.queue.capacity", DEFAULT_QUEUE_CAPACITY)
+        );
+    }
+
+    public boolean isParallelDiscovery() {
+        return parallelDiscovery;
+    }
+
+    public int getVerifyThreads() {
+        return verifyThreads;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * @return same settings, but pipelines verify endpoints on given executor instead of creating their own one
+     */
+    public PipelineSettings withSharedVerifyExecutor(Executor executor) {
+        return new PipelineSettings(parallelDiscovery, verifyThreads, virtualThreads, queueCapacity, executor);
+    }
+
+    /**
+     * @return shared executor, null if pipeline creates its own one
+     */
+    Executor getSharedVerifyExecutor() {
+        return sharedVerifyExecutor;
+    }
+
+    ExecutorService createVerifyExecutor() {
+        if (virtualThreads) {
+            // looked up reflectively to keep analyzer runnable on JVMs without virtual threads
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                LOGGER.warn("Virtual threads are not supported by current JVM, pool of {} threads is used instead", verifyThreads);
+            }
+        }
+        return Executors.newFixedThreadPool(verifyThreads);
+    }
+}
@@ -0,0 +1,180 @@
+package dk.teamonline.processor;
+
+import dk.teamonline.DeclaredEndpointVerifier;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.beans.Introspector;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Types of expression path nodes in compiler type model, mirrors runtime rules of {@link dk.teamonline.utils.TypeProperties}:
+ * properties are bean getters or fields (getter wins), property of collection or array is looked up in its element type,
+ * generics are resolved against owner type with {@link Types#asMemberOf}.
+ */
+class ElementPathTypes implements DeclaredEndpointVerifier.Types<TypeMirror> {
+    private static final String ENTITY_ANNOTATION = "javax.persistence.Entity";
+
+    private final Types types;
+    private final TypeElement objectElement;
+    private final TypeElement collectionElement;
+    private final TypeElement listElement;
+    private final TypeElement mapElement;
+
+    ElementPathTypes(Elements elements, Types types) {
+        this.types = types;
+        this.objectElement = elements.getTypeElement(Object.class.getName());
+        this.collectionElement = elements.getTypeElement(Collection.class.getName());
+        this.listElement = elements.getTypeElement(List.class.getName());
+        this.mapElement = elements.getTypeElement(Map.class.getName());
+    }
+
+    @Override
+    public boolean isEntity(TypeMirror type) {
+        return type instanceof DeclaredType && ((DeclaredType) type).asElement().getAnnotationMirrors().stream()
+            .anyMatch(annotation -> ENTITY_ANNOTATION.equals(UserTrackProcessor.getAnnotationName(annotation)));
+    }
+
+    @Override
+    public Optional<TypeMirror> getPropertyType(TypeMirror ownerType, String propertyName) {
+        TypeMirror type = getElementType(ownerType);
+        if (type.getKind() != TypeKind.DECLARED) {
+            return Optional.empty();
+        }
+        DeclaredType owner = (DeclaredType) type;
+        Optional<TypeMirror> getterType = getMethods(owner)
+            .filter(method -> method.getParameters().isEmpty() && propertyName.equals(getGetterPropertyName(method)))
+            .findFirst()
+            .map(method -> ((ExecutableType) types.asMemberOf(owner, method)).getReturnType());
+        if (getterType.isPresent()) {
+            return getterType;
+        }
+        // subclass fields hide superclass ones, private fields of superclasses are properties as well
+        for (TypeElement clazz = (TypeElement) owner.asElement(); clazz != null && !clazz.equals(objectElement); clazz = getSuperclass(clazz)) {
+            for (VariableElement field : ElementFilter.fieldsIn(clazz.getEnclosedElements())) {
+                if (!field.getModifiers().contains(Modifier.STATIC) && field.getSimpleName().contentEquals(propertyName)) {
+                    return Optional.of(types.asMemberOf(owner, field));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<TypeMirror> getIndexedType(TypeMirror type) {
+        TypeMirror resolvedType = getUpperBound(type);
+        if (resolvedType.getKind() == TypeKind.ARRAY) {
+            return Optional.of(((ArrayType) resolvedType).getComponentType());
+        }
+        Optional<TypeMirror> listElementType = getTypeArgument(resolvedType, listElement, 0);
+        return listElementType.isPresent() ? listElementType : getTypeArgument(resolvedType, mapElement, 1);
+    }
+
+    @Override
+    public Optional<TypeMirror> getReturnType(TypeMirror ownerType, String methodName, int argumentCount) {
+        TypeMirror type = getUpperBound(ownerType);
+        if (type.getKind() != TypeKind.DECLARED) {
+            return Optional.empty();
+        }
+        DeclaredType owner = (DeclaredType) type;
+        return getMethods(owner)
+            .filter(method -> method.getSimpleName().contentEquals(methodName) && method.getParameters().size() == argumentCount)
+            .findFirst()
+            .map(method -> ((ExecutableType) types.asMemberOf(owner, method)).getReturnType());
+    }
+
+    @Override
+    public TypeMirror getUncheckedType() {
+        return types.getNoType(TypeKind.NONE);
+    }
+
+    private TypeMirror getElementType(TypeMirror type) {
+        TypeMirror resolvedType = getUpperBound(type);
+        if (resolvedType.getKind() == TypeKind.ARRAY) {
+            return getElementType(((ArrayType) resolvedType).getComponentType());
+        }
+        return getTypeArgument(resolvedType, collectionElement, 0).map(this::getElementType).orElse(resolvedType);
+    }
+
+    // public instance methods, declared or inherited, as Class.getMethods() returns them
+    private Stream<ExecutableElement> getMethods(DeclaredType owner) {
+        return collectMethods((TypeElement) owner.asElement()).stream()
+            .filter(method -> method.getModifiers().contains(Modifier.PUBLIC) && !method.getModifiers().contains(Modifier.STATIC));
+    }
+
+    private List<ExecutableElement> collectMethods(TypeElement clazz) {
+        List<ExecutableElement> methods = new ArrayList<>(ElementFilter.methodsIn(clazz.getEnclosedElements()));
+        for (TypeMirror supertype : types.directSupertypes(clazz.asType())) {
+            Element superElement = types.asElement(supertype);
+            // methods of Object are inherited by classes only, supertypes of interfaces include Object nevertheless
+            if (superElement instanceof TypeElement
+                && (!superElement.equals(objectElement) || clazz.getKind() != ElementKind.INTERFACE)) {
+                methods.addAll(collectMethods((TypeElement) superElement));
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * @return type argument of supertype of type, e.g. E of List&lt;E&gt; for ArrayList&lt;Patient&gt;; Object if supertype is raw
+     */
+    private Optional<TypeMirror> getTypeArgument(TypeMirror type, TypeElement superElement, int index) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return Optional.empty();
+        }
+        if (types.asElement(type).equals(superElement)) {
+            List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+            return Optional.of(arguments.isEmpty() ? objectElement.asType() : getUpperBound(arguments.get(index)));
+        }
+        for (TypeMirror supertype : types.directSupertypes(type)) {
+            Optional<TypeMirror> argument = getTypeArgument(supertype, superElement, index);
+            if (argument.isPresent()) {
+                return argument;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private TypeMirror getUpperBound(TypeMirror type) {
+        if (type.getKind() == TypeKind.TYPEVAR) {
+            return getUpperBound(((TypeVariable) type).getUpperBound());
+        }
+        if (type.getKind() == TypeKind.WILDCARD) {
+            TypeMirror extendsBound = ((WildcardType) type).getExtendsBound();
+            return extendsBound != null ? getUpperBound(extendsBound) : objectElement.asType();
+        }
+        if (type.getKind() == TypeKind.INTERSECTION) {
+            return getUpperBound(((IntersectionType) type).getBounds().get(0));
+        }
+        return type;
+    }
+
+    private TypeElement getSuperclass(TypeElement clazz) {
+        TypeMirror superclass = clazz.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) types.asElement(superclass) : null;
+    }
+
+    private static String getGetterPropertyName(ExecutableElement method) {
+        if (method.getKind() != ElementKind.METHOD) {
+            return null;
+        }
+        String name = method.getSimpleName().toString();
+        TypeKind returnKind = method.getReturnType().getKind();
+        if (name.startsWith("get") && name.length() > 3 && returnKind != TypeKind.VOID) {
+            return Introspector.decapitalize(name.substring(3));
+        }
+        if (name.startsWith("is") && name.length() > 2 && returnKind == TypeKind.BOOLEAN) {
+            return Introspector.decapitalize(name.substring(2));
+        }
+        return null;
+    }
+}
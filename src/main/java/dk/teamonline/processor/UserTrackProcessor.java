@@ -0,0 +1,190 @@
+package dk.teamonline.processor;
+
+import dk.eg.sensum.userTrack.domain.UserTrackAction;
+import dk.teamonline.DeclaredEndpointVerifier;
+import dk.teamonline.domain.DeclaredEndpoint;
+import dk.teamonline.domain.DeclaredEndpoint.Parameter;
+import dk.teamonline.domain.DeclaredEndpoint.TrackParameter;
+import dk.teamonline.domain.ErrorCollector;
+import dk.teamonline.domain.Finding;
+import dk.teamonline.rules.UserTrackRule;
+import dk.teamonline.rules.UserTrackRules;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.util.*;
+
+import static dk.teamonline.enums.UserTrackError.MISSED_USER_TRACKING;
+
+/**
+ * Verifies UserTrack of controllers while they are compiled, so module classes don't have to be scanned and loaded
+ * after build and parameter names are always the declared ones (no -parameters or sources fallback is needed).
+ *
+ * Endpoints of @Controller, @RestController and @ExternalWebService types are checked by rules of analyzer in compiler
+ * model, see {@link DeclaredEndpointVerifier} and {@link ElementPathTypes}; findings are reported as compiler diagnostics on endpoint method
+ * and are incremental as compilation is: only recompiled controllers are verified.
+ * Custom rules (see {@link UserTrackRule}) on annotation processor path are applied as well; rules run one after another,
+ * as compiler model is not thread-safe.
+ *
+ * Usage: processor is opt-in, it isn't registered as service, so analyzer on classpath of module doesn't run it.
+ * Add analyzer to annotation processor path of module and name processor explicitly, e.g.
+ *      annotationProcessor project(':userTrackVerifier')
+ *      compileJava.options.compilerArgs += ['-processor', 'dk.teamonline.processor.UserTrackProcessor']
+ * -processor turns off discovery of processors, other processors of module have to be listed there as well.
+ * Options:
+ *      -AuserTrack.errors=warning - errors are reported as warnings and don't fail compilation, default - error
+ */
+@SupportedAnnotationTypes({
+    "org.springframework.stereotype.Controller",
+    "org.springframework.web.bind.annotation.RestController",
+    "dk.teamonline.annotation.ExternalWebService"
+})
+@SupportedOptions(UserTrackProcessor.ERRORS_OPTION)
+public class UserTrackProcessor extends AbstractProcessor {
+    static final String ERRORS_OPTION = "userTrack.errors";
+    private static final String USER_TRACKING = "dk.eg.sensum.userTrack.domain.UserTracking";
+    private static final String REQUEST_MAPPING = "org.springframework.web.bind.annotation.RequestMapping";
+    // the same priority as in RequestMappingUtils: @RequestMapping wins, then @GetMapping, @PostMapping etc.
+    private static final Map<String, RequestMethod> MAPPING_ANNOTATIONS = new LinkedHashMap<>();
+
+    static {
+        MAPPING_ANNOTATIONS.put(REQUEST_MAPPING, null);
+        MAPPING_ANNOTATIONS.put("org.springframework.web.bind.annotation.GetMapping", RequestMethod.GET);
+        MAPPING_ANNOTATIONS.put("org.springframework.web.bind.annotation.PostMapping", RequestMethod.POST);
+        MAPPING_ANNOTATIONS.put("org.springframework.web.bind.annotation.PutMapping", RequestMethod.PUT);
+        MAPPING_ANNOTATIONS.put("org.springframework.web.bind.annotation.DeleteMapping", RequestMethod.DELETE);
+        MAPPING_ANNOTATIONS.put("org.springframework.web.bind.annotation.PatchMapping", RequestMethod.PATCH);
+    }
+
+    private ElementPathTypes pathTypes;
+    private UserTrackRules rules;
+    private Diagnostic.Kind errorKind;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.pathTypes = new ElementPathTypes(processingEnv.getElementUtils(), processingEnv.getTypeUtils());
+        this.rules = UserTrackRules.load(UserTrackProcessor.class.getClassLoader(), false);
+        this.errorKind = "warning".equalsIgnoreCase(processingEnv.getOptions().get(ERRORS_OPTION))
+            ? Diagnostic.Kind.WARNING
+            : Diagnostic.Kind.ERROR;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> controllers = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation)).stream()
+                .filter(type -> type.getKind() == ElementKind.CLASS)
+                .forEach(controllers::add);
+        }
+        controllers.forEach(this::verifyController);
+        // annotations are Spring ones, other processors may need them too
+        return false;
+    }
+
+    private void verifyController(TypeElement controller) {
+        for (ExecutableElement method : ElementFilter.methodsIn(controller.getEnclosedElements())) {
+            Optional<Set<RequestMethod>> httpMethods = getHttpMethods(method);
+            if (httpMethods.isEmpty()) {
+                continue;
+            }
+            Optional<? extends AnnotationMirror> userTracking = findAnnotation(method, USER_TRACKING);
+            if (userTracking.isEmpty()) {
+                processingEnv.getMessager().printMessage(errorKind,
+                    MISSED_USER_TRACKING + ": the following method is supposed to have @UserTracking", method);
+                continue;
+            }
+            Map<String, AnnotationValue> values = getValues(userTracking.get());
+            UserTrackAction action = UserTrackAction.valueOf(((VariableElement) values.get("action").getValue()).getSimpleName().toString());
+            List<TrackParameter<TypeMirror>> userTrackParameters = new ArrayList<>();
+            for (AnnotationValue parameter : getList(values.get("parameters"))) {
+                Map<String, AnnotationValue> parameterValues = getValues((AnnotationMirror) parameter.getValue());
+                TypeMirror type = (TypeMirror) parameterValues.get("type").getValue();
+                userTrackParameters.add(new TrackParameter<>((String) parameterValues.get("expression").getValue(), type,
+                    type.toString(), getSimpleName(type)));
+            }
+            List<Parameter<TypeMirror>> parameters = new ArrayList<>();
+            for (VariableElement parameter : method.getParameters()) {
+                List<String> annotationNames = new ArrayList<>();
+                parameter.getAnnotationMirrors().forEach(annotation -> annotationNames.add(getAnnotationName(annotation)));
+                parameters.add(new Parameter<>(parameter.getSimpleName().toString(), parameter.asType(), parameter.asType().toString(),
+                    getSimpleName(parameter.asType()), annotationNames));
+            }
+            // URL and return type are only printed in report, diagnostics don't need them
+            DeclaredEndpoint<TypeMirror> endpoint = new DeclaredEndpoint<>(controller.getQualifiedName().toString(),
+                method.getSimpleName().toString(), getSimpleName(method.getReturnType()), "", httpMethods.get(), action,
+                parameters, userTrackParameters);
+            ErrorCollector errorCollector = new DeclaredEndpointVerifier<>(endpoint, pathTypes, rules).verify();
+            report(errorCollector, method, userTracking.get());
+        }
+    }
+
+    private void report(ErrorCollector errorCollector, ExecutableElement method, AnnotationMirror userTracking) {
+        for (Finding finding : errorCollector.getFindings()) {
+            Diagnostic.Kind kind = finding.getSeverity() == Finding.Severity.ERROR ? errorKind : Diagnostic.Kind.WARNING;
+            processingEnv.getMessager().printMessage(kind, finding.getCode() + ": " + finding.getMessage(), method, userTracking);
+        }
+    }
+
+    /**
+     * @return HTTP methods of mapping of method, empty if method is not endpoint
+     */
+    private Optional<Set<RequestMethod>> getHttpMethods(ExecutableElement method) {
+        for (Map.Entry<String, RequestMethod> mapping : MAPPING_ANNOTATIONS.entrySet()) {
+            Optional<? extends AnnotationMirror> annotation = findAnnotation(method, mapping.getKey());
+            if (annotation.isPresent()) {
+                if (mapping.getValue() != null) {
+                    return Optional.of(Set.of(mapping.getValue()));
+                }
+                Set<RequestMethod> httpMethods = EnumSet.noneOf(RequestMethod.class);
+                for (AnnotationValue httpMethod : getList(getValues(annotation.get()).get("method"))) {
+                    httpMethods.add(RequestMethod.valueOf(((VariableElement) httpMethod.getValue()).getSimpleName().toString()));
+                }
+                return Optional.of(httpMethods);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<? extends AnnotationMirror> findAnnotation(Element element, String annotationName) {
+        return element.getAnnotationMirrors().stream()
+            .filter(annotation -> annotationName.equals(getAnnotationName(annotation)))
+            .findFirst();
+    }
+
+    static String getAnnotationName(AnnotationMirror annotation) {
+        return annotation.getAnnotationType().asElement().toString();
+    }
+
+    private static String getSimpleName(TypeMirror type) {
+        return type instanceof DeclaredType ? ((DeclaredType) type).asElement().getSimpleName().toString() : type.toString();
+    }
+
+    private Map<String, AnnotationValue> getValues(AnnotationMirror annotation) {
+        Map<String, AnnotationValue> values = new HashMap<>();
+        processingEnv.getElementUtils().getElementValuesWithDefaults(annotation)
+            .forEach((name, value) -> values.put(name.getSimpleName().toString(), value));
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<? extends AnnotationValue> getList(AnnotationValue value) {
+        return value == null ? Collections.emptyList() : (List<? extends AnnotationValue>) value.getValue();
+    }
+}
@@ -0,0 +1,58 @@
+package dk.teamonline.report;
+
+import dk.teamonline.domain.ControllerReport;
+import dk.teamonline.domain.EndpointReport;
+import dk.teamonline.domain.ModuleSummary;
+
+import java.util.List;
+
+/**
+ * Hands every report item over to all sinks in order they are specified.
+ */
+public class CompositeReportSink implements ReportSink {
+    private final List<ReportSink> sinks;
+
+    public CompositeReportSink(List<ReportSink> sinks) {
+        this.sinks = List.copyOf(sinks);
+    }
+
+    @Override
+    public void packageStarted(String packageName) {
+        sinks.forEach(sink -> sink.packageStarted(packageName));
+    }
+
+    @Override
+    public void packageFailed(String packageName, Throwable failure) {
+        sinks.forEach(sink -> sink.packageFailed(packageName, failure));
+    }
+
+    @Override
+    public void controller(ControllerReport controller) {
+        sinks.forEach(sink -> sink.controller(controller));
+    }
+
+    @Override
+    public void controllerFailed(String controllerName, String packageName, Throwable failure) {
+        sinks.forEach(sink -> sink.controllerFailed(controllerName, packageName, failure));
+    }
+
+    @Override
+    public void endpoint(EndpointReport endpoint) {
+        sinks.forEach(sink -> sink.endpoint(endpoint));
+    }
+
+    @Override
+    public void endpointFailed(Throwable failure) {
+        sinks.forEach(sink -> sink.endpointFailed(failure));
+    }
+
+    @Override
+    public void moduleSummary(ModuleSummary moduleSummary) {
+        sinks.forEach(sink -> sink.moduleSummary(moduleSummary));
+    }
+
+    @Override
+    public void close() {
+        sinks.forEach(ReportSink::close);
+    }
+}
@@ -0,0 +1,178 @@
+package dk.teamonline.report;
+
+import com.google.common.base.Throwables;
+import dk.teamonline.domain.ControllerReport;
+import dk.teamonline.domain.EndpointReport;
+import dk.teamonline.domain.Finding;
+import dk.teamonline.domain.ModuleSummary;
+import dk.teamonline.domain.RequestParameter;
+import dk.teamonline.enums.UserTrackError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Report as JSON Lines: 1 record per package, controller, endpoint and finding (error or warning) plus module summary.
+ *
+ * Every record is serialized right away on report thread and written to file by background writer
+ * through bounded queue, so report thread doesn't wait for disk and only records in queue are kept in memory.
+ * Every record has type and module fields, records of controller items have controller field to be grouped by.
+ */
+public class JsonLinesReportSink implements ReportSink {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonLinesReportSink.class);
+    private static final String END_OF_RECORDS = "";
+    private static final int QUEUE_CAPACITY = 1024;
+
+    private final String moduleName;
+    private final Path file;
+    private final BlockingQueue<String> records = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+    private volatile IOException writeFailure;
+
+    public JsonLinesReportSink(String moduleName, Path file) throws IOException {
+        this.moduleName = moduleName;
+        this.file = file;
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Writer output = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        this.writer = new Thread(() -> write(output), "userTrack-report-" + moduleName);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void packageStarted(String packageName) {
+        put(record("package")
+            .field("package", packageName));
+    }
+
+    @Override
+    public void packageFailed(String packageName, Throwable failure) {
+        put(record("failure")
+            .field("package", packageName)
+            .field("message", Throwables.getStackTraceAsString(failure)));
+    }
+
+    @Override
+    public void controller(ControllerReport controller) {
+        put(record("controller")
+            .field("controller", controller.getControllerName())
+            .field("url", controller.getRelativeUrl()));
+        for (String method : controller.getMethodsWithoutUserTracking()) {
+            put(record("finding")
+                .field("controller", controller.getControllerName())
+                .field("method", method)
+                .field("severity", Finding.Severity.ERROR)
+                .field("code", UserTrackError.MISSED_USER_TRACKING)
+                .field("message", "Method is supposed to have @UserTracking"));
+        }
+    }
+
+    @Override
+    public void controllerFailed(String controllerName, String packageName, Throwable failure) {
+        put(record("failure")
+            .field("package", packageName)
+            .field("controller", controllerName)
+            .field("message", Throwables.getStackTraceAsString(failure)));
+    }
+
+    @Override
+    public void endpoint(EndpointReport endpoint) {
+        long errors = endpoint.getFindings().stream().filter(finding -> finding.getSeverity() == Finding.Severity.ERROR).count();
+        put(record("endpoint")
+            .field("controller", endpoint.getControllerName())
+            .field("method", endpoint.getMethodName())
+            .field("url", endpoint.getRelativeUrl())
+            .field("httpMethods", endpoint.getHttpMethods())
+            .field("action", endpoint.getAction())
+            .field("userTrackParameters", endpoint.getUserTrackParameters())
+            .field("trackedEntities", endpoint.getTrackedEntityNames())
+            .field("errors", errors)
+            .field("warnings", endpoint.getFindings().size() - errors));
+        for (Finding finding : endpoint.getFindings()) {
+            put(record("finding")
+                .field("controller", endpoint.getControllerName())
+                .field("method", endpoint.getMethodName())
+                .field("severity", finding.getSeverity())
+                .field("code", finding.getCode())
+                .field("message", finding.getMessage()));
+        }
+    }
+
+    @Override
+    public void endpointFailed(Throwable failure) {
+        put(record("failure")
+            .field("message", Throwables.getStackTraceAsString(failure)));
+    }
+
+    @Override
+    public void moduleSummary(ModuleSummary moduleSummary) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        moduleSummary.getRequestParameters().forEach((annotationName, params) -> parameters.put(annotationName,
+            params.stream().map(RequestParameter::toString).collect(Collectors.toList())));
+        put(record("summary")
+            .field("entities", moduleSummary.getTrackedEntities())
+            .field("parameters", parameters)
+            .field("findings", moduleSummary.getFindingCounts()));
+    }
+
+    @Override
+    public void close() {
+        put(END_OF_RECORDS);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writeFailure != null) {
+            LOGGER.warn("JSON report {} is incomplete: {}", file, writeFailure.toString());
+        }
+    }
+
+    private JsonRecord record(String type) {
+        return new JsonRecord(type).field("module", moduleName);
+    }
+
+    private void put(Object record) {
+        try {
+            records.put(record.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(Writer output) {
+        try (Writer out = output) {
+            String record;
+            while ((record = records.take()) != END_OF_RECORDS) {
+                out.write(record);
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            writeFailure = e;
+            drain();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // report thread must not block on full queue after writer has failed
+    private void drain() {
+        try {
+            while (records.take() != END_OF_RECORDS) {
+                // records are dropped
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package dk.teamonline.report;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Single line JSON object. Values can be strings, numbers, booleans, collections and maps of them.
+ */
+public class JsonRecord {
+    private final StringBuilder json = new StringBuilder().append('{');
+    private boolean isEmpty = true;
+
+    public JsonRecord(String type) {
+        field("type", type);
+    }
+
+    public JsonRecord field(String name, Object value) {
+        if (!isEmpty) {
+            json.append(',');
+        }
+        isEmpty = false;
+        appendString(json, name);
+        json.append(':');
+        appendValue(json, value);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return json + "}";
+    }
+
+    private static void appendValue(StringBuilder json, Object value) {
+        if (value == null) {
+            json.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            json.append(value);
+        } else if (value instanceof Collection) {
+            json.append('[');
+            boolean isFirst = true;
+            for (Object item : (Collection<?>) value) {
+                if (!isFirst) {
+                    json.append(',');
+                }
+                isFirst = false;
+                appendValue(json, item);
+            }
+            json.append(']');
+        } else if (value instanceof Map) {
+            json.append('{');
+            boolean isFirst = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!isFirst) {
+                    json.append(',');
+                }
+                isFirst = false;
+                appendString(json, String.valueOf(entry.getKey()));
+                json.append(':');
+                appendValue(json, entry.getValue());
+            }
+            json.append('}');
+        } else {
+            appendString(json, value.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,59 @@
+package dk.teamonline.report;
+
+import dk.teamonline.domain.ControllerReport;
+import dk.teamonline.domain.EndpointReport;
+import dk.teamonline.domain.ModuleSummary;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Human-readable report printed into log, the same as analyzer has always produced.
+ */
+public class LogReportSink implements ReportSink {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogReportSink.class);
+
+    @Override
+    public void packageStarted(String packageName) {
+        String decoration = StringUtils.repeat('*', 20 + packageName.length());
+        LOGGER.info("\n{}", StringUtils.repeat(decoration, 3));
+        LOGGER.info("{} Scan {} {}", decoration, packageName, decoration);
+        LOGGER.info(StringUtils.repeat(decoration, 3));
+    }
+
+    @Override
+    public void packageFailed(String packageName, Throwable failure) {
+        LOGGER.error("FATAL\tCan't scan specified package {}. " +
+            "Make module was added to dependencies and specified correctly:\n{}", packageName, failure);
+    }
+
+    @Override
+    public void controller(ControllerReport controller) {
+        controller.printHead();
+    }
+
+    @Override
+    public void controllerFailed(String controllerName, String packageName, Throwable failure) {
+        LOGGER.error("FATAL\tCan't set up endpoints of {} in package {}:\n{}", controllerName, packageName, failure);
+    }
+
+    @Override
+    public void endpoint(EndpointReport endpoint) {
+        endpoint.print();
+    }
+
+    @Override
+    public void endpointFailed(Throwable failure) {
+        LOGGER.error("FATAL\tCan't verify endpoint:\n{}", failure);
+    }
+
+    @Override
+    public void moduleSummary(ModuleSummary moduleSummary) {
+        moduleSummary.printModuleSummary();
+    }
+
+    @Override
+    public void close() {
+        // log is flushed by its appenders
+    }
+}
@@ -0,0 +1,37 @@
+package dk.teamonline.report;
+
+import dk.teamonline.domain.ControllerReport;
+import dk.teamonline.domain.EndpointReport;
+import dk.teamonline.domain.ModuleSummary;
+
+/**
+ * Receiver of module report items, called in report order by a single thread.
+ *
+ * Items are handed over one by one as soon as they are rendered, so sink is not supposed to keep them:
+ * memory of sink stays constant however big module is.
+ */
+public interface ReportSink extends AutoCloseable {
+
+    void packageStarted(String packageName);
+
+    void packageFailed(String packageName, Throwable failure);
+
+    /**
+     * @param controller report of controller without endpoints, endpoints follow with {@link #endpoint(EndpointReport)}
+     */
+    void controller(ControllerReport controller);
+
+    void controllerFailed(String controllerName, String packageName, Throwable failure);
+
+    void endpoint(EndpointReport endpoint);
+
+    void endpointFailed(Throwable failure);
+
+    void moduleSummary(ModuleSummary moduleSummary);
+
+    /**
+     * Flushes all written items; sink can't be used afterwards.
+     */
+    @Override
+    void close();
+}
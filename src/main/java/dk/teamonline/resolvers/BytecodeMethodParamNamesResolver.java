@@ -0,0 +1,175 @@
+package dk.teamonline.resolvers;
+
+import dk.teamonline.metrics.Counter;
+import dk.teamonline.metrics.Metrics;
+import javassist.bytecode.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves parameter names straight from class file of declaring class, no sources are required:
+ * 1) MethodParameters attribute (class compiled with -parameters);
+ * 2) LocalVariableTable (class compiled with -g) - only slots of parameters are taken, not other local variables.
+ *
+ * Class file is read once per class; methods without any of these attributes are resolved to empty list.
+ */
+public class BytecodeMethodParamNamesResolver implements MethodParamNamesResolver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BytecodeMethodParamNamesResolver.class);
+    private static final Map<Class<?>, Character> PRIMITIVE_DESCRIPTORS = Map.of(
+        boolean.class, 'Z',
+        byte.class, 'B',
+        char.class, 'C',
+        short.class, 'S',
+        int.class, 'I',
+        long.class, 'J',
+        float.class, 'F',
+        double.class, 'D',
+        void.class, 'V'
+    );
+
+    private final Map<Class<?>, Map<String, List<String>>> parameterNamesByClass = new ConcurrentHashMap<>();
+
+    @Override
+    public List<String> getParameterNames(Method method) {
+        Class<?> clazz = method.getDeclaringClass();
+        Map<String, List<String>> index = parameterNamesByClass.get(clazz);
+        if (index == null) {
+            index = parameterNamesByClass.computeIfAbsent(clazz, BytecodeMethodParamNamesResolver::indexClass);
+        }
+        if (index.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return index.getOrDefault(method.getName() + getDescriptor(method), Collections.emptyList());
+    }
+
+    private static Map<String, List<String>> indexClass(Class<?> clazz) {
+        Optional<ClassFile> classFile = readClassFile(clazz.getName(), clazz.getClassLoader());
+        if (classFile.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, List<String>> index = new HashMap<>();
+        for (MethodInfo methodInfo : classFile.get().getMethods()) {
+            List<String> names = getParameterNames(methodInfo);
+            if (names != null) {
+                index.put(methodInfo.getName() + methodInfo.getDescriptor(), names);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return true if class file of class has names of parameters of all its methods, so sources of class are not needed
+     */
+    public static boolean hasParameterNames(String className, ClassLoader classLoader) {
+        return readClassFile(className, classLoader)
+            .map(classFile -> classFile.getMethods().stream().allMatch(methodInfo -> getParameterNames(methodInfo) != null))
+            .orElse(false);
+    }
+
+    private static Optional<ClassFile> readClassFile(String className, ClassLoader classLoader) {
+        String classFileName = className.replace('.', '/') + ".class";
+        ClassLoader loader = classLoader != null ? classLoader : ClassLoader.getSystemClassLoader();
+        try (InputStream classFile = loader.getResourceAsStream(classFileName)) {
+            if (classFile == null) {
+                LOGGER.debug("Class file {} is not found", classFileName);
+                return Optional.empty();
+            }
+            Metrics.count(Counter.CLASS_FILES_READ);
+            return Optional.of(new ClassFile(new DataInputStream(classFile)));
+        } catch (IOException e) {
+            LOGGER.warn("Can't read class file {}: {}", classFileName, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return names of parameters of method read from class file, null if class file has no names of method parameters
+     */
+    public static List<String> getParameterNames(MethodInfo methodInfo) {
+        int parametersCount = Descriptor.numOfParameters(methodInfo.getDescriptor());
+        if (parametersCount == 0) {
+            return Collections.emptyList();
+        }
+        List<String> names = getNamesFromMethodParameters(methodInfo, parametersCount);
+        return names != null ? names : getNamesFromLocalVariableTable(methodInfo, parametersCount);
+    }
+
+    private static List<String> getNamesFromMethodParameters(MethodInfo methodInfo, int parametersCount) {
+        MethodParametersAttribute attribute = (MethodParametersAttribute) methodInfo.getAttribute(MethodParametersAttribute.tag);
+        if (attribute == null || attribute.size() != parametersCount) {
+            return null;
+        }
+        String[] names = new String[parametersCount];
+        for (int i = 0; i < parametersCount; i++) {
+            int nameIndex = attribute.name(i);
+            if (nameIndex == 0) {
+                return null;
+            }
+            names[i] = methodInfo.getConstPool().getUtf8Info(nameIndex);
+        }
+        return List.of(names);
+    }
+
+    // parameters occupy first slots of local variables (after 'this'), long and double take 2 slots
+    private static List<String> getNamesFromLocalVariableTable(MethodInfo methodInfo, int parametersCount) {
+        CodeAttribute code = methodInfo.getCodeAttribute();
+        LocalVariableAttribute localVariables = code == null ? null : (LocalVariableAttribute) code.getAttribute(LocalVariableAttribute.tag);
+        if (localVariables == null) {
+            return null;
+        }
+        Map<Integer, String> namesBySlot = new HashMap<>();
+        for (int i = 0; i < localVariables.tableLength(); i++) {
+            if (localVariables.startPc(i) == 0) {
+                namesBySlot.put(localVariables.index(i), localVariables.variableName(i));
+            }
+        }
+        String descriptor = methodInfo.getDescriptor();
+        int slot = (methodInfo.getAccessFlags() & AccessFlag.STATIC) != 0 ? 0 : 1;
+        String[] names = new String[parametersCount];
+        int descriptorIndex = 1;
+        for (int i = 0; i < parametersCount; i++) {
+            names[i] = namesBySlot.get(slot);
+            if (names[i] == null) {
+                return null;
+            }
+            char type = descriptor.charAt(descriptorIndex);
+            slot += type == 'J' || type == 'D' ? 2 : 1;
+            descriptorIndex = nextParameterIndex(descriptor, descriptorIndex);
+        }
+        return List.of(names);
+    }
+
+    private static int nextParameterIndex(String descriptor, int index) {
+        while (descriptor.charAt(index) == '[') {
+            index++;
+        }
+        return descriptor.charAt(index) == 'L' ? descriptor.indexOf(';', index) + 1 : index + 1;
+    }
+
+    private static String getDescriptor(Method method) {
+        StringBuilder descriptor = new StringBuilder("(");
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            appendDescriptor(descriptor, parameterType);
+        }
+        descriptor.append(')');
+        appendDescriptor(descriptor, method.getReturnType());
+        return descriptor.toString();
+    }
+
+    private static void appendDescriptor(StringBuilder descriptor, Class<?> type) {
+        if (type.isPrimitive()) {
+            descriptor.append(PRIMITIVE_DESCRIPTORS.get(type));
+        } else if (type.isArray()) {
+            descriptor.append(type.getName().replace('.', '/'));
+        } else {
+            descriptor.append('L').append(type.getName().replace('.', '/')).append(';');
+        }
+    }
+}
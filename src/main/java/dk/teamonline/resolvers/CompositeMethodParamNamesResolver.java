@@ -0,0 +1,50 @@
+package dk.teamonline.resolvers;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Chain of resolvers: names are taken from first resolver that knows all parameters of method,
+ * so next resolvers (e.g. source based ones) are asked only for methods previous ones failed to resolve.
+ */
+public class CompositeMethodParamNamesResolver implements MethodParamNamesResolver {
+    private final List<MethodParamNamesResolver> resolvers;
+
+    public CompositeMethodParamNamesResolver(List<MethodParamNamesResolver> resolvers) {
+        this.resolvers = List.copyOf(resolvers);
+    }
+
+    @Override
+    public List<String> getParameterNames(Method method) {
+        int parameterCount = method.getParameterCount();
+        for (MethodParamNamesResolver resolver : resolvers) {
+            List<String> names = resolver.getParameterNames(method);
+            if (names.size() == parameterCount) {
+                return names;
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<String> getParameterNames(String className, String erasedSignature) {
+        for (MethodParamNamesResolver resolver : resolvers) {
+            List<String> names = resolver.getParameterNames(className, erasedSignature);
+            if (!names.isEmpty()) {
+                return names;
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Optional<Path> getSourceFile(String className) {
+        return resolvers.stream()
+            .map(resolver -> resolver.getSourceFile(className))
+            .flatMap(Optional::stream)
+            .findFirst();
+    }
+}
@@ -0,0 +1,188 @@
+package dk.teamonline.resolvers;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.parser.ParseException;
+import dk.teamonline.metrics.Counter;
+import dk.teamonline.metrics.Metrics;
+import dk.teamonline.metrics.Phase;
+import dk.teamonline.metrics.PhaseTimer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Parses sources of package with QDox file by file and only on demand: source file of class is parsed
+ * the first time names of its methods are requested, every file is parsed once on its own builder.
+ *
+ * {@link #prefetch()} starts parsing of files declaring controllers in background, so that parsing goes
+ * in parallel with classpath scanning; files are picked by textual match of controller annotations.
+ * Files of classes whose class files have parameter names are not prefetched, they are parsed only if requested.
+ */
+public class ControllerSourceParser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ControllerSourceParser.class);
+    private static final Pattern CONTROLLER_ANNOTATION = Pattern.compile("@(Controller|RestController|ExternalWebService)\\b");
+
+    private final String packageName;
+    private final Path packageDir;
+    private final Executor executor;
+    private final ClassLoader classLoader;
+    private final Map<Path, CompletableFuture<JavaProjectBuilder>> parsedFiles = new ConcurrentHashMap<>();
+
+    public ControllerSourceParser(String packageName, Path packageDir, Executor executor) {
+        this(packageName, packageDir, executor, null);
+    }
+
+    /**
+     * @param classLoader loader of module classes referenced by sources, if they are not on classpath of analyzer
+     */
+    public ControllerSourceParser(String packageName, Path packageDir, Executor executor, ClassLoader classLoader) {
+        this.packageName = packageName;
+        this.packageDir = packageDir;
+        this.executor = executor;
+        this.classLoader = classLoader;
+    }
+
+    public void prefetch() {
+        CompletableFuture.runAsync(() -> {
+            if (!Files.isDirectory(packageDir)) {
+                return;
+            }
+            try (Stream<Path> files = Files.walk(packageDir)) {
+                files.filter(file -> file.toString().endsWith(".java"))
+                    .filter(ControllerSourceParser::isControllerSource)
+                    .filter(file -> !BytecodeMethodParamNamesResolver.hasParameterNames(getClassName(file), getClassLoader()))
+                    .collect(Collectors.toList())
+                    .forEach(this::parse);
+            } catch (IOException | UncheckedIOException e) {
+                LOGGER.warn("Can't prefetch sources of {}: {}", packageDir, e.toString());
+            }
+        }, executor);
+    }
+
+    /**
+     * @return parsed class or null if there is no source of class in package
+     */
+    public JavaClass getJavaClass(Class<?> clazz) {
+        return parseJavaClass(clazz).join();
+    }
+
+    /**
+     * Lookup by binary name for classes which are not loaded, nested classes are expected to be named Outer$Nested.
+     */
+    public JavaClass getJavaClass(String className) {
+        return parseJavaClass(className).join();
+    }
+
+    /**
+     * The same as {@link #getJavaClass(Class)}, but doesn't wait for parse of source.
+     */
+    public CompletableFuture<JavaClass> parseJavaClass(Class<?> clazz) {
+        Class<?> topLevelClass = clazz;
+        while (topLevelClass.getDeclaringClass() != null) {
+            topLevelClass = topLevelClass.getDeclaringClass();
+        }
+        return parseJavaClass(clazz.getName(), topLevelClass.getName());
+    }
+
+    /**
+     * The same as {@link #getJavaClass(String)}, but doesn't wait for parse of source.
+     */
+    public CompletableFuture<JavaClass> parseJavaClass(String className) {
+        return parseJavaClass(className, getTopLevelClassName(className));
+    }
+
+    /**
+     * Forgets parsed source of class, so it's parsed again on next request, e.g. after source is changed.
+     */
+    public void invalidate(String topLevelClassName) {
+        if (topLevelClassName.startsWith(packageName + '.')) {
+            parsedFiles.remove(getSourceFile(topLevelClassName).toAbsolutePath().normalize());
+        }
+    }
+
+    /**
+     * @return file source of class is supposed to be in, empty if class is not in package
+     */
+    public Optional<Path> findSourceFile(String className) {
+        if (!className.startsWith(packageName + '.')) {
+            return Optional.empty();
+        }
+        return Optional.of(getSourceFile(getTopLevelClassName(className)).toAbsolutePath().normalize());
+    }
+
+    private CompletableFuture<JavaClass> parseJavaClass(String className, String topLevelClassName) {
+        if (!className.startsWith(packageName + '.')) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Path sourceFile = getSourceFile(topLevelClassName);
+        if (!Files.isRegularFile(sourceFile)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return parse(sourceFile).thenApply(builder -> {
+            JavaClass javaClass = builder.getClassByName(className);
+            // builder falls back to class loader for unknown classes, such classes have no real parameter names
+            return javaClass.getSource() != null ? javaClass : null;
+        });
+    }
+
+    private CompletableFuture<JavaProjectBuilder> parse(Path sourceFile) {
+        return parsedFiles.computeIfAbsent(sourceFile.toAbsolutePath().normalize(), file -> CompletableFuture.supplyAsync(() -> {
+            JavaProjectBuilder builder = new JavaProjectBuilder();
+            if (classLoader != null) {
+                builder.addClassLoader(classLoader);
+            }
+            PhaseTimer timer = Metrics.start(Phase.SOURCE_PARSE);
+            try {
+                builder.addSource(file.toFile());
+                Metrics.count(Counter.SOURCE_FILES_PARSED);
+            } catch (IOException | ParseException e) {
+                // e.g. syntax QDox doesn't support or file being saved, names of its classes are unavailable
+                LOGGER.warn("Can't parse source {}: {}", file, e.toString());
+            } finally {
+                timer.stop();
+            }
+            return builder;
+        }, executor));
+    }
+
+    private Path getSourceFile(String topLevelClassName) {
+        String relativeName = topLevelClassName.substring(packageName.length() + 1);
+        return packageDir.resolve(relativeName.replace('.', '/') + ".java");
+    }
+
+    private static String getTopLevelClassName(String className) {
+        int nestedIndex = className.indexOf('$', className.lastIndexOf('.') + 1);
+        return nestedIndex < 0 ? className : className.substring(0, nestedIndex);
+    }
+
+    private String getClassName(Path sourceFile) {
+        String relativePath = packageDir.relativize(sourceFile).toString();
+        return packageName + '.' + relativePath.substring(0, relativePath.length() - ".java".length()).replace(File.separatorChar, '.');
+    }
+
+    private ClassLoader getClassLoader() {
+        return classLoader != null ? classLoader : ControllerSourceParser.class.getClassLoader();
+    }
+
+    private static boolean isControllerSource(Path file) {
+        try {
+            return CONTROLLER_ANNOTATION.matcher(Files.readString(file)).find();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -1,9 +1,29 @@
 package dk.teamonline.resolvers;
 
 import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 public interface MethodParamNamesResolver {
 
     List<String> getParameterNames(Method method);
+
+    /**
+     * Lookup of method which is not loaded, e.g. read from class file.
+     *
+     * @param erasedSignature name and erased parameter types of method, e.g. find(java.lang.String,int[])
+     * @return names of parameters, empty list if resolver can't resolve method without reflection
+     */
+    default List<String> getParameterNames(String className, String erasedSignature) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * @return source file names of methods of class were looked up in, empty if resolver hasn't read sources of class
+     */
+    default Optional<Path> getSourceFile(String className) {
+        return Optional.empty();
+    }
 }
@@ -1,21 +1,50 @@
 package dk.teamonline.resolvers;
 
 import com.thoughtworks.qdox.JavaProjectBuilder;
-import com.thoughtworks.qdox.model.JavaMethod;
-import com.thoughtworks.qdox.model.JavaParameter;
-import com.thoughtworks.qdox.model.JavaType;
-import org.apache.commons.collections4.CollectionUtils;
+import com.thoughtworks.qdox.model.*;
+import dk.teamonline.metrics.Counter;
+import dk.teamonline.metrics.Metrics;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Resolves parameter names from sources parsed by QDox.
+ *
+ * Parsed methods of class are indexed once by erased JVM signature (name + erased parameter types in declared order)
+ * and matched to declared methods of class, so every next lookup is a plain hash lookup by {@link Method}.
+ * Sources are taken either from builder with already added sources or from {@link ControllerSourceParser},
+ * which parses only source files of requested classes.
+ * Methods which are not loaded are looked up by class name and erased signature in the same index of parsed methods.
+ * Index of class is cached as future of its parse, so lookups of different classes don't wait for each other.
+ */
 public class ThoughtworksMethodParamNamesResolver implements MethodParamNamesResolver {
-    private final JavaProjectBuilder builder;
+    private final Function<Class<?>, CompletableFuture<JavaClass>> javaClasses;
+    private final Function<String, CompletableFuture<JavaClass>> javaClassesByName;
+    // QDox model is lazily populated and is not thread-safe: model of builder is guarded by lock of its own
+    private final Function<JavaClass, Object> modelLocks;
+    private final Function<String, Optional<Path>> sourceFiles;
+    private final Map<Class<?>, CompletableFuture<Map<Method, List<String>>>> parameterNamesByClass = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Map<String, List<String>>>> parameterNamesByClassName = new ConcurrentHashMap<>();
 
     public ThoughtworksMethodParamNamesResolver(JavaProjectBuilder builder) {
-        this.builder = builder;
+        this.javaClasses = clazz -> CompletableFuture.completedFuture(builder.getClassByName(clazz.getName()));
+        this.javaClassesByName = className -> CompletableFuture.completedFuture(builder.getClassByName(className));
+        this.modelLocks = javaClass -> builder;
+        this.sourceFiles = className -> Optional.empty();
+    }
+
+    // every source file is parsed on builder of its own
+    public ThoughtworksMethodParamNamesResolver(ControllerSourceParser sourceParser) {
+        this.javaClasses = sourceParser::parseJavaClass;
+        this.javaClassesByName = sourceParser::parseJavaClass;
+        this.modelLocks = JavaClass::getSource;
+        this.sourceFiles = sourceParser::findSourceFile;
     }
 
     @Override
@@ -24,26 +53,144 @@ public class ThoughtworksMethodParamNamesResolver implements MethodParamNamesRes
     }
 
     public List<String> getParameterNames(Class<?> clazz, Method method) {
-        Optional<JavaMethod> javaMethod = builder.getClassByName(clazz.getName()).getMethods()
-            .stream()
-            .filter(m -> m.getName().equals(method.getName()))
-            .filter(m -> isTheSameSignature(method, m))
+        CompletableFuture<Map<Method, List<String>>> index = parameterNamesByClass.get(clazz);
+        if (index == null) {
+            index = parameterNamesByClass.computeIfAbsent(clazz,
+                key -> javaClasses.apply(key).thenApply(javaClass -> indexClass(key, javaClass)));
+        }
+        List<String> names = index.join().getOrDefault(method, Collections.emptyList());
+        if (!names.isEmpty()) {
+            Metrics.count(Counter.PARAM_NAMES_FROM_SOURCE);
+        }
+        return names;
+    }
+
+    @Override
+    public List<String> getParameterNames(String className, String erasedSignature) {
+        List<String> names = parameterNamesByClassName
+            .computeIfAbsent(className, name -> javaClassesByName.apply(name).thenApply(this::indexJavaClass))
+            .join()
+            .getOrDefault(erasedSignature, Collections.emptyList());
+        if (!names.isEmpty()) {
+            Metrics.count(Counter.PARAM_NAMES_FROM_SOURCE);
+        }
+        return names;
+    }
+
+    /**
+     * Lookup of loaded method by name of its class and its erased signature: index of names isn't bound to loaded class,
+     * so it stays valid for the same class loaded by other class loaders.
+     */
+    public List<String> getParameterNamesByName(Method method) {
+        return getParameterNames(method.getDeclaringClass().getName(), getErasedSignature(method));
+    }
+
+    /**
+     * @return source file of class if names of its methods were requested, whether source file exists or not
+     */
+    @Override
+    public Optional<Path> getSourceFile(String className) {
+        boolean isRequested = parameterNamesByClassName.containsKey(className)
+            || parameterNamesByClass.keySet().stream().anyMatch(clazz -> clazz.getName().equals(className));
+        return isRequested ? sourceFiles.apply(className) : Optional.empty();
+    }
+
+    /**
+     * Forgets names of class and its nested classes, e.g. after its source is changed.
+     */
+    public void invalidate(String topLevelClassName) {
+        String nestedPrefix = topLevelClassName + '$';
+        parameterNamesByClassName.keySet()
+            .removeIf(className -> className.equals(topLevelClassName) || className.startsWith(nestedPrefix));
+        parameterNamesByClass.keySet()
+            .removeIf(clazz -> clazz.getName().equals(topLevelClassName) || clazz.getName().startsWith(nestedPrefix));
+    }
+
+    private Map<Method, List<String>> indexClass(Class<?> clazz, JavaClass javaClass) {
+        Map<String, List<String>> parsedNamesBySignature = indexJavaClass(javaClass);
+        if (parsedNamesBySignature.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Method, List<String>> index = new HashMap<>();
+        for (Method method : clazz.getDeclaredMethods()) {
+            List<String> names = parsedNamesBySignature.get(getErasedSignature(method));
+            if (names != null) {
+                index.put(method, names);
+            }
+        }
+        return index;
+    }
+
+    private Map<String, List<String>> indexJavaClass(JavaClass javaClass) {
+        if (javaClass == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, List<String>> parsedNamesBySignature = new HashMap<>();
+        synchronized (modelLocks.apply(javaClass)) {
+            for (JavaMethod javaMethod : javaClass.getMethods()) {
+                List<String> names = javaMethod.getParameters().stream()
+                    .map(JavaParameter::getName)
+                    .collect(Collectors.toUnmodifiableList());
+                parsedNamesBySignature.put(getErasedSignature(javaMethod), names);
+            }
+        }
+        return parsedNamesBySignature;
+    }
+
+    private static String getErasedSignature(Method method) {
+        StringBuilder signature = new StringBuilder(method.getName()).append('(');
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            int dimensions = 0;
+            while (parameterType.isArray()) {
+                parameterType = parameterType.getComponentType();
+                dimensions++;
+            }
+            appendType(signature, parameterType.getName(), dimensions);
+        }
+        return signature.append(')').toString();
+    }
+
+    private static String getErasedSignature(JavaMethod javaMethod) {
+        StringBuilder signature = new StringBuilder(javaMethod.getName()).append('(');
+        for (JavaParameter parameter : javaMethod.getParameters()) {
+            JavaClass parameterClass = parameter.getJavaClass();
+            int dimensions = parameterClass.getDimensions() + (parameter.isVarArgs() ? 1 : 0);
+            appendType(signature, getErasedBinaryName(parameterClass.getBinaryName(), javaMethod), dimensions);
+        }
+        return signature.append(')').toString();
+    }
+
+    private static void appendType(StringBuilder signature, String binaryName, int dimensions) {
+        if (signature.charAt(signature.length() - 1) != '(') {
+            signature.append(',');
+        }
+        signature.append(binaryName);
+        for (int i = 0; i < dimensions; i++) {
+            signature.append("[]");
+        }
+    }
+
+    // type variables are erased to their first bound, as javac does
+    private static String getErasedBinaryName(String binaryName, JavaMethod javaMethod) {
+        Optional<JavaTypeVariable<JavaGenericDeclaration>> typeVariable = findTypeVariable(binaryName, javaMethod);
+        if (typeVariable.isEmpty()) {
+            return binaryName;
+        }
+        List<JavaType> bounds = typeVariable.get().getBounds();
+        if (bounds == null || bounds.isEmpty()) {
+            return Object.class.getName();
+        }
+        String boundName = bounds.get(0).getBinaryName();
+        return boundName.equals(binaryName) ? Object.class.getName() : getErasedBinaryName(boundName, javaMethod);
+    }
+
+    private static Optional<JavaTypeVariable<JavaGenericDeclaration>> findTypeVariable(String name, JavaMethod javaMethod) {
+        List<JavaTypeVariable<JavaGenericDeclaration>> typeVariables = new ArrayList<>(javaMethod.getTypeParameters());
+        for (JavaClass clazz = javaMethod.getDeclaringClass(); clazz != null; clazz = clazz.getDeclaringClass()) {
+            typeVariables.addAll(clazz.getTypeParameters());
+        }
+        return typeVariables.stream()
+            .filter(typeVariable -> typeVariable.getName().equals(name))
             .findFirst();
-        return javaMethod.map(m -> m.getParameters().stream().map(JavaParameter::getName).collect(Collectors.toList()))
-            .orElseGet(Collections::emptyList);
-    }
-
-    private boolean isTheSameSignature(Method method, JavaMethod javaMethod) {
-        List<String> originalParamTypes = Arrays.stream(method.getParameters())
-            .map(Parameter::getType)
-            .map(Class::getName)
-            .collect(Collectors.toList());
-
-        List<String> parsedParamTypes = javaMethod.getParameters().stream()
-            .map(JavaParameter::getType)
-            .map(JavaType::getFullyQualifiedName)
-            .collect(Collectors.toList());
-        return originalParamTypes.size() == parsedParamTypes.size()
-            && CollectionUtils.isEqualCollection(originalParamTypes, parsedParamTypes);
     }
 }
@@ -0,0 +1,48 @@
+package dk.teamonline.rules;
+
+import dk.eg.sensum.userTrack.domain.UserTrackAction;
+import dk.teamonline.domain.DeclaredEndpoint;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.Map;
+import java.util.Set;
+
+import static dk.eg.sensum.userTrack.domain.UserTrackAction.*;
+import static dk.teamonline.enums.UserTrackWarning.INCORRECT_ACTION;
+
+/**
+ * Action is expected to match HTTP methods of endpoint, e.g. EDIT is done by PUT.
+ */
+public class ActionRule implements UserTrackRule {
+    private static final Map<UserTrackAction, RequestMethod> ACTION_TO_METHOD = Map.of(
+        SHOW, RequestMethod.GET,
+        EDIT, RequestMethod.PUT,
+        DELETE, RequestMethod.DELETE,
+        SAVE, RequestMethod.POST,
+        SEARCH, RequestMethod.GET,
+        INSERT, RequestMethod.POST,
+        COPY, RequestMethod.POST,
+        AUTOSAVE, RequestMethod.POST
+    );
+
+    @Override
+    public Set<EndpointFeature> getRequiredFeatures() {
+        return Set.of(EndpointFeature.TRACKING);
+    }
+
+    @Override
+    public <T> void verify(RuleContext<T> context) {
+        DeclaredEndpoint<T> endpoint = context.getEndpoint();
+        if (!isActionCorrect(endpoint.getAction(), endpoint.getHttpMethods())) {
+            context.getErrorCollector().appendWarning(INCORRECT_ACTION,
+                "Probably UserTrack has incorrect action: %s, Http methods: %s", endpoint.getAction(), endpoint.getHttpMethods());
+        }
+    }
+
+    /**
+     * @return true if endpoint with such HTTP methods (any if empty) is expected to do action
+     */
+    public static boolean isActionCorrect(UserTrackAction action, Set<RequestMethod> httpMethods) {
+        return httpMethods.isEmpty() || httpMethods.contains(ACTION_TO_METHOD.getOrDefault(action, RequestMethod.GET));
+    }
+}
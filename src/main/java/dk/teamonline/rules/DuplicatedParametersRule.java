@@ -0,0 +1,36 @@
+package dk.teamonline.rules;
+
+import dk.teamonline.domain.DeclaredEndpoint.TrackParameter;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static dk.teamonline.enums.UserTrackError.DUPLICATED_PARAMETER;
+
+/**
+ * The same @UserTrackParameter (expression and type) must not be repeated.
+ */
+public class DuplicatedParametersRule implements UserTrackRule {
+    @Override
+    public Set<EndpointFeature> getRequiredFeatures() {
+        return Set.of(EndpointFeature.TRACKING, EndpointFeature.USER_TRACK_PARAMETERS);
+    }
+
+    @Override
+    public <T> void verify(RuleContext<T> context) {
+        // parameters are compared by expression and fully qualified name of type, printed with simple name of type
+        Set<List<String>> parameters = new HashSet<>();
+        Set<String> duplicates = new LinkedHashSet<>();
+        for (TrackParameter<T> parameter : context.getEndpoint().getUserTrackParameters()) {
+            if (!parameters.add(List.of(parameter.getExpression(), parameter.getTypeName()))) {
+                duplicates.add(parameter.toString());
+            }
+        }
+        if (!duplicates.isEmpty()) {
+            context.getErrorCollector().appendError(DUPLICATED_PARAMETER,
+                "The following @UserTrackParameters are duplicated:%n%s", duplicates);
+        }
+    }
+}
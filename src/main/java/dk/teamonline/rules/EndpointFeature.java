@@ -0,0 +1,87 @@
+package dk.teamonline.rules;
+
+import dk.eg.sensum.userTrack.domain.UserTrackAction;
+import dk.teamonline.domain.DeclaredEndpoint;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Features of endpoint rules depend on, see {@link UserTrackRule#getRequiredFeatures()}.
+ * Features of endpoint are computed once as bitmask, so applicability of every rule is 1 bitwise check.
+ */
+public enum EndpointFeature {
+    /**
+     * Action is not IGNORE.
+     */
+    TRACKING,
+    /**
+     * Action is IGNORE.
+     */
+    IGNORING,
+    USER_TRACK_PARAMETERS,
+    NO_USER_TRACK_PARAMETERS,
+    PARAMETERS,
+    /**
+     * Any of parameters is bound from request: @PathVariable, @RequestParam, @ModelAttribute or @RequestBody.
+     */
+    REQUEST_PARAMETERS,
+    PATH_VARIABLE,
+    REQUEST_PARAM,
+    MODEL_ATTRIBUTE,
+    REQUEST_BODY,
+    /**
+     * Mapping doesn't restrict HTTP methods.
+     */
+    ANY_HTTP_METHOD,
+    GET,
+    HEAD,
+    POST,
+    PUT,
+    PATCH,
+    DELETE,
+    OPTIONS,
+    TRACE;
+
+    private static final Map<String, EndpointFeature> PARAMETER_KINDS = Map.of(
+        "org.springframework.web.bind.annotation.PathVariable", PATH_VARIABLE,
+        "org.springframework.web.bind.annotation.RequestParam", REQUEST_PARAM,
+        "org.springframework.web.bind.annotation.ModelAttribute", MODEL_ATTRIBUTE,
+        "org.springframework.web.bind.annotation.RequestBody", REQUEST_BODY);
+
+    public int getBit() {
+        return 1 << ordinal();
+    }
+
+    public static int maskOf(Collection<EndpointFeature> features) {
+        int mask = 0;
+        for (EndpointFeature feature : features) {
+            mask |= feature.getBit();
+        }
+        return mask;
+    }
+
+    public static int maskOf(DeclaredEndpoint<?> endpoint) {
+        int mask = (endpoint.getAction() == UserTrackAction.IGNORE ? IGNORING : TRACKING).getBit();
+        mask |= (endpoint.getUserTrackParameters().isEmpty() ? NO_USER_TRACK_PARAMETERS : USER_TRACK_PARAMETERS).getBit();
+        if (!endpoint.getParameters().isEmpty()) {
+            mask |= PARAMETERS.getBit();
+        }
+        for (DeclaredEndpoint.Parameter<?> parameter : endpoint.getParameters()) {
+            for (String annotationName : parameter.getAnnotationNames()) {
+                EndpointFeature parameterKind = PARAMETER_KINDS.get(annotationName);
+                if (parameterKind != null) {
+                    mask |= parameterKind.getBit() | REQUEST_PARAMETERS.getBit();
+                }
+            }
+        }
+        if (endpoint.getHttpMethods().isEmpty()) {
+            mask |= ANY_HTTP_METHOD.getBit();
+        }
+        for (RequestMethod httpMethod : endpoint.getHttpMethods()) {
+            mask |= valueOf(httpMethod.name()).getBit();
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,83 @@
+package dk.teamonline.rules;
+
+import dk.teamonline.domain.DeclaredEndpoint;
+import dk.teamonline.domain.DeclaredEndpoint.Parameter;
+import dk.teamonline.domain.DeclaredEndpoint.TrackParameter;
+import dk.teamonline.domain.ErrorCollector;
+import dk.teamonline.utils.SpelExpressions;
+import dk.teamonline.utils.SpelExpressions.ParsedExpression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static dk.teamonline.enums.UserTrackError.INCORRECT_EXPRESSION;
+import static dk.teamonline.enums.UserTrackError.INCORRECT_TYPE;
+import static dk.teamonline.enums.UserTrackError.PARAMETER_NAMES_UNAVAILABLE;
+
+/**
+ * Every @UserTrackParameter has to be valid SpEL expression rooted at endpoint parameter,
+ * path of expression has to match parameter type and type of @UserTrackParameter has to be @Entity.
+ * Expression of String, primitive or wrapper parameter has to be its name only.
+ * Expression rooted at operator, e.g. #a + #b, has to have every operand rooted at parameter, operands are checked the same way.
+ * If declared parameter names are unavailable, that is reported once instead.
+ */
+public class ExpressionRule implements UserTrackRule {
+    @Override
+    public Set<EndpointFeature> getRequiredFeatures() {
+        return Set.of(EndpointFeature.TRACKING, EndpointFeature.USER_TRACK_PARAMETERS);
+    }
+
+    @Override
+    public <T> void verify(RuleContext<T> context) {
+        // every expression would miss its parameter, so 1 finding tells what is actually wrong
+        if (!context.getEndpoint().isParameterNamesResolved()) {
+            context.getErrorCollector().appendError(PARAMETER_NAMES_UNAVAILABLE,
+                "Parameter names are unavailable, so expressions can't be verified: compile module with -parameters " +
+                    "or debug info, or provide its sources");
+            return;
+        }
+        context.getEndpoint().getUserTrackParameters().forEach(userTrackParam -> verify(userTrackParam, context));
+    }
+
+    private static <T> void verify(TrackParameter<T> userTrackParam, RuleContext<T> context) {
+        DeclaredEndpoint<T> endpoint = context.getEndpoint();
+        ErrorCollector errorCollector = context.getErrorCollector();
+        ParsedExpression expression = SpelExpressions.parse(userTrackParam.getExpression());
+        if (expression.getSyntaxError() != null) {
+            errorCollector.appendError(INCORRECT_EXPRESSION,
+                "Incorrect SpEL expression for %s: %s", userTrackParam, expression.getSyntaxError());
+            return;
+        }
+        List<ParsedExpression> operands = expression.getOperands().isEmpty() ? List.of(expression) : expression.getOperands();
+        List<Parameter<T>> parameters = new ArrayList<>();
+        for (ParsedExpression operand : operands) {
+            Optional<Parameter<T>> parameter = operand.getRootName() == null
+                ? Optional.empty()
+                : endpoint.getParameter(operand.getRootName());
+            if (parameter.isEmpty()) {
+                errorCollector.appendError(INCORRECT_EXPRESSION,
+                    "No parameter found for UserTrack expression = %s", userTrackParam.getExpression());
+                return;
+            }
+            parameters.add(parameter.get());
+        }
+        context.reachType(userTrackParam.getType());
+        if (!context.getTypes().isEntity(userTrackParam.getType())) {
+            errorCollector.appendError(INCORRECT_TYPE,
+                "Incorrect type for %s - should be @Entity", userTrackParam);
+        }
+        for (int i = 0; i < operands.size(); i++) {
+            Parameter<T> parameter = parameters.get(i);
+            context.reachType(parameter.getType());
+            boolean isMatched = parameter.isPlainValue()
+                ? operands.get(i).isRootOnly()
+                : operands.get(i).typeCheck(parameter.getType(), context.getTypes(), context::reachType).isPresent();
+            if (!isMatched) {
+                errorCollector.appendError(INCORRECT_EXPRESSION,
+                    "Incorrect expression for %s does not match method parameter name: %s", userTrackParam, parameter);
+            }
+        }
+    }
+}
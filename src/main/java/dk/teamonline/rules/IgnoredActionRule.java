@@ -0,0 +1,20 @@
+package dk.teamonline.rules;
+
+import java.util.Set;
+
+import static dk.teamonline.enums.UserTrackError.REDUNDANT_PARAMETERS;
+
+/**
+ * UserTracking with IGNORE action must not have @UserTrackParameters.
+ */
+public class IgnoredActionRule implements UserTrackRule {
+    @Override
+    public Set<EndpointFeature> getRequiredFeatures() {
+        return Set.of(EndpointFeature.IGNORING, EndpointFeature.USER_TRACK_PARAMETERS);
+    }
+
+    @Override
+    public <T> void verify(RuleContext<T> context) {
+        context.getErrorCollector().appendError(REDUNDANT_PARAMETERS, "UserTracking with 'IGNORE' action should not have @UserTrackParameters");
+    }
+}
@@ -0,0 +1,29 @@
+package dk.teamonline.rules;
+
+import dk.teamonline.domain.DeclaredEndpoint.Parameter;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static dk.teamonline.enums.UserTrackError.MISSED_PARAMETERS;
+
+/**
+ * Endpoint with parameters bound from request has to track at least 1 of them.
+ */
+public class MissedParametersRule implements UserTrackRule {
+    @Override
+    public Set<EndpointFeature> getRequiredFeatures() {
+        return Set.of(EndpointFeature.TRACKING, EndpointFeature.NO_USER_TRACK_PARAMETERS, EndpointFeature.REQUEST_PARAMETERS);
+    }
+
+    @Override
+    public <T> void verify(RuleContext<T> context) {
+        List<String> paramsForTracking = context.getEndpoint().getParameters().stream()
+            .filter(Parameter::isRequestParameter)
+            .map(Parameter::getName)
+            .collect(Collectors.toList());
+        context.getErrorCollector().appendError(MISSED_PARAMETERS,
+            "At Least 1 @UserTrackParameter is required cause method has annotated parameters:%n%s", paramsForTracking);
+    }
+}
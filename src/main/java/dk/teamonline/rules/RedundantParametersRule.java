@@ -0,0 +1,24 @@
+package dk.teamonline.rules;
+
+import java.util.Set;
+
+import static dk.teamonline.enums.UserTrackWarning.REDUNDANT_PARAMETER;
+
+/**
+ * More than {@link #MAX_USER_TRACK_PARAMETERS} @UserTrackParameters are likely redundant.
+ */
+public class RedundantParametersRule implements UserTrackRule {
+    public static final int MAX_USER_TRACK_PARAMETERS = 2;
+
+    @Override
+    public Set<EndpointFeature> getRequiredFeatures() {
+        return Set.of(EndpointFeature.TRACKING, EndpointFeature.USER_TRACK_PARAMETERS);
+    }
+
+    @Override
+    public <T> void verify(RuleContext<T> context) {
+        if (context.getEndpoint().getUserTrackParameters().size() > MAX_USER_TRACK_PARAMETERS) {
+            context.getErrorCollector().appendWarning(REDUNDANT_PARAMETER, "Seems not all of @UserTrackParameters are required");
+        }
+    }
+}
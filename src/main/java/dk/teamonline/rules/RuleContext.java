@@ -0,0 +1,43 @@
+package dk.teamonline.rules;
+
+import dk.teamonline.DeclaredEndpointVerifier.Types;
+import dk.teamonline.domain.DeclaredEndpoint;
+import dk.teamonline.domain.ErrorCollector;
+
+import java.util.function.Consumer;
+
+/**
+ * Endpoint rule is applied to: endpoint, its type model and collector of findings of rule.
+ */
+public class RuleContext<T> {
+    private final DeclaredEndpoint<T> endpoint;
+    private final Types<T> types;
+    private final ErrorCollector errorCollector;
+    private final Consumer<T> typeVisitor;
+
+    RuleContext(DeclaredEndpoint<T> endpoint, Types<T> types, ErrorCollector errorCollector, Consumer<T> typeVisitor) {
+        this.endpoint = endpoint;
+        this.types = types;
+        this.errorCollector = errorCollector;
+        this.typeVisitor = typeVisitor;
+    }
+
+    public DeclaredEndpoint<T> getEndpoint() {
+        return endpoint;
+    }
+
+    public Types<T> getTypes() {
+        return types;
+    }
+
+    public ErrorCollector getErrorCollector() {
+        return errorCollector;
+    }
+
+    /**
+     * Registers type verification result depends on, so analysis cache entry is invalidated when type changes.
+     */
+    public void reachType(T type) {
+        typeVisitor.accept(type);
+    }
+}
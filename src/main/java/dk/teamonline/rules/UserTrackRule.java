@@ -0,0 +1,34 @@
+package dk.teamonline.rules;
+
+import java.util.Set;
+
+/**
+ * Check of endpoint under @UserTracking, applied by {@link UserTrackRules}.
+ * Besides built-in rules, rules are found by {@link java.util.ServiceLoader}: rule of any jar on analyzer (or annotation processor)
+ * classpath listed in META-INF/services/dk.teamonline.rules.UserTrackRule is applied as well.
+ *
+ * Rule is applied only to endpoints which have all its required features. Rule has to be stateless:
+ * it's applied to several endpoints at the same time.
+ */
+public interface UserTrackRule {
+    /**
+     * @return features endpoint must have all of for rule to be applied, empty if rule applies to any endpoint
+     */
+    Set<EndpointFeature> getRequiredFeatures();
+
+    <T> void verify(RuleContext<T> context);
+
+    /**
+     * @return false if rule can't run concurrently with other rules of the same endpoint
+     */
+    default boolean isIndependent() {
+        return true;
+    }
+
+    /**
+     * @return name rule is disabled by, see rules.disabled
+     */
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,144 @@
+package dk.teamonline.rules;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import dk.teamonline.DeclaredEndpointVerifier.Types;
+import dk.teamonline.domain.DeclaredEndpoint;
+import dk.teamonline.domain.ErrorCollector;
+import dk.teamonline.metrics.Counter;
+import dk.teamonline.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
+/**
+ * Rules endpoints are verified by: built-in rules followed by rules found by {@link ServiceLoader}, see {@link UserTrackRule}.
+ *
+ * Mask of required features is computed once per rule and mask of endpoint features once per endpoint,
+ * so rule which doesn't apply to endpoint is skipped by 1 bitwise check.
+ * If rules are parallel and executor is given, independent rules of endpoint run concurrently on it (in analyzer -
+ * on verify executor of pipeline): findings are collected per rule and merged in rule order, so they don't depend on scheduling.
+ *
+ * Default rules are configured with System properties:
+ *      rules.disabled - names of rules which are not applied separated by comma, e.g. ActionRule
+ *      rules.parallel - if true independent rules of endpoint run concurrently on verify threads, default - false
+ */
+public class UserTrackRules {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserTrackRules.class);
+    private static final List<UserTrackRule> BUILT_IN_RULES = List.of(
+        new IgnoredActionRule(),
+        // warnings
+        new ActionRule(),
+        new RedundantParametersRule(),
+        // errors
+        new MissedParametersRule(),
+        new DuplicatedParametersRule(),
+        new ExpressionRule());
+    private static final Supplier<UserTrackRules> DEFAULT_RULES = Suppliers.memoize(() ->
+        load(UserTrackRules.class.getClassLoader(), Boolean.getBoolean("rules.parallel")));
+
+    private final List<UserTrackRule> rules;
+    private final int[] requiredMasks;
+    private final boolean parallel;
+
+    private UserTrackRules(List<UserTrackRule> rules, boolean parallel) {
+        this.rules = List.copyOf(rules);
+        this.requiredMasks = rules.stream().mapToInt(rule -> EndpointFeature.maskOf(rule.getRequiredFeatures())).toArray();
+        this.parallel = parallel;
+    }
+
+    public static UserTrackRules getDefault() {
+        return DEFAULT_RULES.get();
+    }
+
+    /**
+     * @param classLoader class loader rules of {@link ServiceLoader} are found by
+     */
+    public static UserTrackRules load(ClassLoader classLoader, boolean parallel) {
+        List<UserTrackRule> rules = new ArrayList<>(BUILT_IN_RULES);
+        try {
+            ServiceLoader.load(UserTrackRule.class, classLoader).forEach(rules::add);
+        } catch (ServiceConfigurationError e) {
+            LOGGER.error("Custom UserTrack rules can't be loaded, only built-in rules are applied:\n{}", e.toString());
+            rules = new ArrayList<>(BUILT_IN_RULES);
+        }
+        Set<String> disabledRules = new HashSet<>(Arrays.asList(System.getProperty("rules.disabled", "").split(",\\s*")));
+        rules.removeIf(rule -> disabledRules.contains(rule.getName()));
+        LOGGER.debug("UserTrack rules: {}", rules.stream().map(UserTrackRule::getName).toArray());
+        return new UserTrackRules(rules, parallel);
+    }
+
+    public List<UserTrackRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Applies rules which apply to endpoint one after another.
+     */
+    public <T> void verify(DeclaredEndpoint<T> endpoint, Types<T> types, ErrorCollector errorCollector, Consumer<T> typeVisitor) {
+        verify(endpoint, types, errorCollector, typeVisitor, null);
+    }
+
+    /**
+     * Applies rules which apply to endpoint.
+     *
+     * @param typeVisitor  receives types verification result depends on, has to be thread-safe if rules are parallel
+     * @param ruleExecutor executor independent rules run on if rules are parallel, null - rules run one after another
+     */
+    public <T> void verify(DeclaredEndpoint<T> endpoint, Types<T> types, ErrorCollector errorCollector, Consumer<T> typeVisitor,
+                           Executor ruleExecutor) {
+        int features = EndpointFeature.maskOf(endpoint);
+        List<UserTrackRule> applicableRules = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            if ((features & requiredMasks[i]) == requiredMasks[i]) {
+                applicableRules.add(rules.get(i));
+            }
+        }
+        Metrics.count(Counter.RULES_APPLIED, applicableRules.size());
+        Metrics.count(Counter.RULES_SKIPPED, rules.size() - applicableRules.size());
+        if (!parallel || ruleExecutor == null || applicableRules.size() < 2) {
+            applicableRules.forEach(rule -> rule.verify(new RuleContext<>(endpoint, types, errorCollector, typeVisitor)));
+            return;
+        }
+        verifyConcurrently(applicableRules, endpoint, types, errorCollector, typeVisitor, ruleExecutor);
+    }
+
+    private static <T> void verifyConcurrently(List<UserTrackRule> applicableRules, DeclaredEndpoint<T> endpoint, Types<T> types,
+                                               ErrorCollector errorCollector, Consumer<T> typeVisitor, Executor ruleExecutor) {
+        String endpointName = endpoint.getControllerName() + '#' + endpoint.getMethodName();
+        List<ErrorCollector> ruleCollectors = new ArrayList<>(applicableRules.size());
+        List<FutureTask<Void>> verifications = new ArrayList<>();
+        for (UserTrackRule rule : applicableRules) {
+            ErrorCollector ruleCollector = new ErrorCollector(endpointName);
+            ruleCollectors.add(ruleCollector);
+            RuleContext<T> context = new RuleContext<>(endpoint, types, ruleCollector, typeVisitor);
+            if (rule.isIndependent()) {
+                FutureTask<Void> verification = new FutureTask<>(() -> rule.verify(context), null);
+                ruleExecutor.execute(verification);
+                verifications.add(verification);
+            } else {
+                rule.verify(context);
+            }
+        }
+        // caller is verify thread itself: it runs rules no other thread has taken yet instead of waiting for them in queue,
+        // so endpoint never waits for busy executor
+        verifications.forEach(FutureTask::run);
+        for (FutureTask<Void> verification : verifications) {
+            try {
+                verification.get();
+            } catch (ExecutionException e) {
+                throw new CompletionException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }
+        ruleCollectors.forEach(errorCollector::appendAll);
+    }
+}
@@ -0,0 +1,195 @@
+package dk.teamonline.server;
+
+import com.google.common.io.CharStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dk.teamonline.domain.Finding;
+import dk.teamonline.report.JsonRecord;
+import dk.teamonline.watch.WatchSession;
+import dk.teamonline.watch.WatchSession.ControllerFindings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Local HTTP service answering findings of module controllers from {@link WatchSession}, e.g. for IDE and pre-commit hooks.
+ * Module is verified once on start, then findings, dependencies of controllers and caches of library types stay warm,
+ * so queries are answered from memory and requests are handled concurrently.
+ *
+ * Requests (server is bound to loopback address only):
+ *      GET /findings - findings of all controllers
+ *      POST /findings - body is list of class names and files (class files or sources of module packages, absolute
+ *      or relative to project dir), 1 per line; findings of given controllers and of controllers depending on given classes
+ *      are returned. Files changed since they were verified last are verified again first, only controllers affected by them are.
+ * Response is JSON object: {"type":"findings","controllers":[{"controller":..,"failure":..,"findings":[{"severity":..,
+ * "code":..,"endpoint":..,"message":..}]}],"millis":..}
+ */
+public class QueryServer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryServer.class);
+    private static final String FINDINGS_PATH = "/findings";
+
+    private final WatchSession session;
+    private final Map<Path, Long> verifiedModifications = new ConcurrentHashMap<>();
+    private long startTime;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public QueryServer(WatchSession session) {
+        this.session = session;
+    }
+
+    /**
+     * Verifies module and starts to accept requests, returns right away; server runs until it's stopped.
+     *
+     * @param threads number of requests handled at the same time
+     */
+    public void start(int port, int threads) throws IOException {
+        startTime = System.currentTimeMillis();
+        session.start();
+        executor = Executors.newFixedThreadPool(threads);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(FINDINGS_PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+        LOGGER.info("Findings are served on http://{}:{}{}", server.getAddress().getHostString(), server.getAddress().getPort(),
+            FINDINGS_PATH);
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            long start = System.nanoTime();
+            SortedMap<String, ControllerFindings> findings;
+            if ("GET".equals(exchange.getRequestMethod())) {
+                findings = session.getFindings();
+            } else if ("POST".equals(exchange.getRequestMethod())) {
+                findings = query(readLines(exchange));
+            } else {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            String json = new JsonRecord("findings")
+                .field("controllers", findings.entrySet().stream().map(QueryServer::toJson).collect(Collectors.toList()))
+                .field("millis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .toString();
+            send(exchange, 200, json);
+        } catch (RuntimeException e) {
+            LOGGER.error("Request {} {} failed", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            send(exchange, 500, new JsonRecord("failure").field("message", e.toString()).toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private SortedMap<String, ControllerFindings> query(List<String> lines) {
+        Set<String> classNames = new TreeSet<>();
+        Set<Path> files = new HashSet<>();
+        for (String line : lines) {
+            if (line.endsWith(".java") || line.endsWith(".class")) {
+                files.add(Paths.get(line).toAbsolutePath().normalize());
+            } else {
+                classNames.add(line);
+            }
+        }
+        if (!files.isEmpty()) {
+            update(files);
+            classNames.addAll(session.getClassNames(files));
+        }
+        return session.getFindings(classNames);
+    }
+
+    // files are verified again only if they changed since they were verified last, so repeated queries are answered from memory
+    // without any lock; changes are verified under lock of session, which updates of session hold anyway, so GET requests
+    // (findings are read without lock) aren't blocked, and concurrent requests with the same changes wait for 1 verification
+    private void update(Set<Path> files) {
+        if (getModifications(files).isEmpty()) {
+            return;
+        }
+        synchronized (session) {
+            // verified again, changes may have been verified by concurrent request in the meantime
+            Map<Path, Long> modifications = getModifications(files);
+            if (!modifications.isEmpty()) {
+                session.update(modifications.keySet());
+                verifiedModifications.putAll(modifications);
+            }
+        }
+    }
+
+    private Map<Path, Long> getModifications(Set<Path> files) {
+        Map<Path, Long> modifications = new HashMap<>();
+        for (Path file : files) {
+            long lastModified = getLastModified(file);
+            Long verifiedModification = verifiedModifications.get(file);
+            boolean isChanged = verifiedModification != null
+                ? lastModified != verifiedModification
+                : lastModified > startTime || lastModified < 0;
+            if (isChanged) {
+                modifications.put(file, lastModified);
+            }
+        }
+        return modifications;
+    }
+
+    // deleted file is changed as well
+    private static long getLastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static Map<String, Object> toJson(Map.Entry<String, ControllerFindings> controller) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("controller", controller.getKey());
+        json.put("failure", controller.getValue().getFailure());
+        json.put("findings", controller.getValue().getFindings().stream().map(QueryServer::toJson).collect(Collectors.toList()));
+        return json;
+    }
+
+    private static Map<String, Object> toJson(Finding finding) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("severity", finding.getSeverity());
+        json.put("code", finding.getCode());
+        json.put("endpoint", finding.getEndpoint());
+        json.put("message", finding.getMessage());
+        return json;
+    }
+
+    private static List<String> readLines(HttpExchange exchange) throws IOException {
+        try (InputStreamReader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            return CharStreams.readLines(reader).stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty())
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+}
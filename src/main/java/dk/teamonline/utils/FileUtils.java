@@ -0,0 +1,26 @@
+package dk.teamonline.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+public class FileUtils {
+
+    private FileUtils() {
+        throw new UnsupportedOperationException("Utils class is not supposed to have instances");
+    }
+
+    /**
+     * Creates temporary file next to file, which is written and then moved over file atomically.
+     * Temporary files are readable by owner only (rw-------), so the file gets rw-r--r-- as files written in place do,
+     * where file system supports POSIX permissions; otherwise readers would lose access to file after move.
+     */
+    public static Path createTempSibling(Path file) throws IOException {
+        Path tempFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        if (tempFile.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.setPosixFilePermissions(tempFile, PosixFilePermissions.fromString("rw-r--r--"));
+        }
+        return tempFile;
+    }
+}
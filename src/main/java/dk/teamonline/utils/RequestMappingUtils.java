@@ -1,18 +1,34 @@
 package dk.teamonline.utils;
 
 
+import dk.teamonline.domain.MappingInfo;
 import org.springframework.web.bind.annotation.*;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
-import java.util.Arrays;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.util.Collections.emptySet;
 
 public class RequestMappingUtils {
+    private static final List<Class<? extends Annotation>> MAPPING_ANNOTATIONS = List.of(
+        RequestMapping.class, GetMapping.class, PostMapping.class, PutMapping.class, DeleteMapping.class, PatchMapping.class);
+
+    // class values are dropped together with classes, so cached mappings don't keep class loaders of analyzed code
+    private static final ClassValue<Map<Method, Optional<MappingInfo>>> METHOD_MAPPINGS = new ClassValue<>() {
+        @Override
+        protected Map<Method, Optional<MappingInfo>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private static final ClassValue<Optional<MappingInfo>> CLASS_MAPPINGS = new ClassValue<>() {
+        @Override
+        protected Optional<MappingInfo> computeValue(Class<?> type) {
+            return readMappingInfo(type.getAnnotations());
+        }
+    };
 
     private RequestMappingUtils() {
         throw new UnsupportedOperationException("Utils class is not supposed to have instances");
@@ -22,45 +38,69 @@ public class RequestMappingUtils {
         return requestMapping == null || requestMapping.value().length == 0 ? "" : requestMapping.value()[0];
     }
 
+    public static String getClassRelativeUrl(Class<?> clazz) {
+        return CLASS_MAPPINGS.get(clazz).map(MappingInfo::getPath).orElse("");
+    }
+
     public static String getMethodRelativeUrl(Method method) {
-        RequestMapping mapping = method.getAnnotation(RequestMapping.class);
-        if (mapping != null) {
-            return mapping.value().length == 0 ? "" : mapping.value()[0];
-        } else if (method.isAnnotationPresent(GetMapping.class)) {
-            GetMapping getMapping = method.getAnnotation(GetMapping.class);
-            return getMapping.value().length == 0 ? "" : getMapping.value()[0];
-        } else if (method.isAnnotationPresent(PostMapping.class)) {
-            PostMapping getMapping = method.getAnnotation(PostMapping.class);
-            return getMapping.value().length == 0 ? "" : getMapping.value()[0];
-        } else if (method.isAnnotationPresent(PutMapping.class)) {
-            PutMapping putMapping = method.getAnnotation(PutMapping.class);
-            return putMapping.value().length == 0 ? "" : putMapping.value()[0];
-        } else if (method.isAnnotationPresent(DeleteMapping.class)) {
-            DeleteMapping deleteMapping = method.getAnnotation(DeleteMapping.class);
-            return deleteMapping.value().length == 0 ? "" : deleteMapping.value()[0];
-        } else if (method.isAnnotationPresent(PatchMapping.class)) {
-            PatchMapping patchMapping = method.getAnnotation(PatchMapping.class);
-            return patchMapping.value().length == 0 ? "" : patchMapping.value()[0];
-        }
-        return "";
+        return getMappingInfo(method).map(MappingInfo::getPath).orElse("");
     }
 
     public static Set<RequestMethod> getHttpMethods(Method method) {
-        RequestMapping requestMapping = method.getAnnotation(RequestMapping.class);
-        if (requestMapping != null) {
-            return Set.of(requestMapping.method());
-        } else if (method.isAnnotationPresent(GetMapping.class)) {
-            return Set.of(RequestMethod.GET);
-        } else if (method.isAnnotationPresent(PostMapping.class)) {
-            return Set.of(RequestMethod.POST);
-        } else if (method.isAnnotationPresent(PutMapping.class)) {
-            return Set.of(RequestMethod.PUT);
-        } else if (method.isAnnotationPresent(DeleteMapping.class)) {
-            return Set.of(RequestMethod.DELETE);
-        } else if (method.isAnnotationPresent(PatchMapping.class)) {
-            return Set.of(RequestMethod.PATCH);
+        return getMappingInfo(method).map(MappingInfo::getHttpMethods).orElse(emptySet());
+    }
+
+    /**
+     * Mapping of method is read once and shared by endpoint discovery and endpoint setup.
+     * If method has several mapping annotations, @RequestMapping wins, then @GetMapping, @PostMapping etc.
+     *
+     * @return mapping of method, empty if method is not endpoint
+     */
+    public static Optional<MappingInfo> getMappingInfo(Method method) {
+        return METHOD_MAPPINGS.get(method.getDeclaringClass())
+            .computeIfAbsent(method, m -> readMappingInfo(m.getAnnotations()));
+    }
+
+    public static Optional<MappingInfo> getMappingInfo(Class<?> clazz) {
+        return CLASS_MAPPINGS.get(clazz);
+    }
+
+    private static Optional<MappingInfo> readMappingInfo(Annotation[] annotations) {
+        Annotation mapping = null;
+        int mappingPriority = MAPPING_ANNOTATIONS.size();
+        for (Annotation annotation : annotations) {
+            int priority = MAPPING_ANNOTATIONS.indexOf(annotation.annotationType());
+            if (priority >= 0 && priority < mappingPriority) {
+                mapping = annotation;
+                mappingPriority = priority;
+            }
+        }
+        if (mapping instanceof RequestMapping) {
+            RequestMapping requestMapping = (RequestMapping) mapping;
+            return Optional.of(new MappingInfo(RequestMapping.class, requestMapping.value(), Set.of(requestMapping.method()),
+                requestMapping.consumes(), requestMapping.produces()));
+        } else if (mapping instanceof GetMapping) {
+            GetMapping getMapping = (GetMapping) mapping;
+            return Optional.of(new MappingInfo(GetMapping.class, getMapping.value(), Set.of(RequestMethod.GET),
+                getMapping.consumes(), getMapping.produces()));
+        } else if (mapping instanceof PostMapping) {
+            PostMapping postMapping = (PostMapping) mapping;
+            return Optional.of(new MappingInfo(PostMapping.class, postMapping.value(), Set.of(RequestMethod.POST),
+                postMapping.consumes(), postMapping.produces()));
+        } else if (mapping instanceof PutMapping) {
+            PutMapping putMapping = (PutMapping) mapping;
+            return Optional.of(new MappingInfo(PutMapping.class, putMapping.value(), Set.of(RequestMethod.PUT),
+                putMapping.consumes(), putMapping.produces()));
+        } else if (mapping instanceof DeleteMapping) {
+            DeleteMapping deleteMapping = (DeleteMapping) mapping;
+            return Optional.of(new MappingInfo(DeleteMapping.class, deleteMapping.value(), Set.of(RequestMethod.DELETE),
+                deleteMapping.consumes(), deleteMapping.produces()));
+        } else if (mapping instanceof PatchMapping) {
+            PatchMapping patchMapping = (PatchMapping) mapping;
+            return Optional.of(new MappingInfo(PatchMapping.class, patchMapping.value(), Set.of(RequestMethod.PATCH),
+                patchMapping.consumes(), patchMapping.produces()));
         }
-        return emptySet();
+        return Optional.empty();
     }
 
     public static Optional<? extends Class<? extends Annotation>> getRequestParameterAnnotationClass(Parameter parameter) {
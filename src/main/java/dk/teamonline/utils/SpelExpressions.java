@@ -0,0 +1,251 @@
+package dk.teamonline.utils;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import dk.teamonline.metrics.Counter;
+import dk.teamonline.metrics.Metrics;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.CompoundExpression;
+import org.springframework.expression.spel.ast.Elvis;
+import org.springframework.expression.spel.ast.Indexer;
+import org.springframework.expression.spel.ast.Literal;
+import org.springframework.expression.spel.ast.MethodReference;
+import org.springframework.expression.spel.ast.Operator;
+import org.springframework.expression.spel.ast.OperatorNot;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.ast.Ternary;
+import org.springframework.expression.spel.ast.VariableReference;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Parses @UserTrackParameter expressions with SpEL and type-checks them against type of method parameter.
+ *
+ * Every distinct expression is parsed once: parsed expressions are kept in bounded cache shared by all endpoints,
+ * size of cache can be configured with System property expression.cache.size, default - 10000.
+ */
+public class SpelExpressions {
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+    private static final LoadingCache<String, ParsedExpression> EXPRESSIONS = CacheBuilder.newBuilder()
+        .maximumSize(Long.getLong("expression.cache.size", 10_000))
+        .build(CacheLoader.from(SpelExpressions::parseExpression));
+    private static final PathTypes<ResolvableType> RESOLVABLE_TYPES = new ResolvableTypes();
+
+    private SpelExpressions() {
+        throw new UnsupportedOperationException("Utils class is not supposed to have instances");
+    }
+
+    /**
+     * @return types of expression path in reflection model, e.g. to delegate to from other models
+     */
+    public static PathTypes<ResolvableType> getResolvableTypes() {
+        return RESOLVABLE_TYPES;
+    }
+
+    public static ParsedExpression parse(String expression) {
+        if (Metrics.isEnabled()) {
+            Metrics.count(EXPRESSIONS.asMap().containsKey(expression) ? Counter.EXPRESSION_CACHE_HITS : Counter.EXPRESSION_CACHE_MISSES);
+        }
+        return EXPRESSIONS.getUnchecked(expression);
+    }
+
+    private static ParsedExpression parseExpression(String expression) {
+        SpelNode ast;
+        try {
+            ast = ((SpelExpression) PARSER.parseExpression(expression)).getAST();
+        } catch (ParseException e) {
+            return new ParsedExpression(null, Collections.emptyList(), Collections.emptyList(), e.getSimpleMessage());
+        }
+        return parseNode(ast);
+    }
+
+    private static ParsedExpression parseNode(SpelNode node) {
+        List<SpelNode> nodes = new ArrayList<>();
+        if (node instanceof CompoundExpression) {
+            for (int i = 0; i < node.getChildCount(); i++) {
+                nodes.add(node.getChild(i));
+            }
+        } else {
+            nodes.add(node);
+        }
+        SpelNode root = nodes.get(0);
+        if (isOperator(root)) {
+            // value of operator is not checked, so path after it isn't either
+            List<ParsedExpression> operands = new ArrayList<>();
+            collectOperands(root, operands);
+            return new ParsedExpression(null, Collections.emptyList(), operands, null);
+        }
+        String rootName = null;
+        if (root instanceof PropertyOrFieldReference) {
+            rootName = ((PropertyOrFieldReference) root).getName();
+        } else if (root instanceof VariableReference) {
+            rootName = root.toStringAST().substring(1);
+        }
+        return new ParsedExpression(rootName, nodes.subList(1, nodes.size()), Collections.emptyList(), null);
+    }
+
+    // operands of nested operators are operands of root one, literals have nothing to check
+    private static void collectOperands(SpelNode operator, List<ParsedExpression> operands) {
+        for (int i = 0; i < operator.getChildCount(); i++) {
+            SpelNode operand = operator.getChild(i);
+            if (isOperator(operand)) {
+                collectOperands(operand, operands);
+            } else if (!(operand instanceof Literal)) {
+                operands.add(parseNode(operand));
+            }
+        }
+    }
+
+    private static boolean isOperator(SpelNode node) {
+        return node instanceof Operator || node instanceof OperatorNot || node instanceof Ternary || node instanceof Elvis;
+    }
+
+    /**
+     * Expression parsed as root identifier (name of method parameter) followed by path nodes: properties, indexers, method calls.
+     * Expression rooted at operator, e.g. #a + #b, is parsed as its operands instead, each of them rooted at identifier.
+     */
+    public static class ParsedExpression {
+        private final String rootName;
+        private final List<SpelNode> path;
+        private final List<ParsedExpression> operands;
+        private final String syntaxError;
+
+        private ParsedExpression(String rootName, List<SpelNode> path, List<ParsedExpression> operands, String syntaxError) {
+            this.rootName = rootName;
+            this.path = List.copyOf(path);
+            this.operands = List.copyOf(operands);
+            this.syntaxError = syntaxError;
+        }
+
+        /**
+         * @return name expression starts with, null if expression is invalid or doesn't start with identifier
+         */
+        public String getRootName() {
+            return rootName;
+        }
+
+        /**
+         * @return true if expression is root identifier only, e.g. name of parameter
+         */
+        public boolean isRootOnly() {
+            return path.isEmpty();
+        }
+
+        /**
+         * @return operands (except literals) of operator expression is rooted at, empty if it isn't rooted at operator
+         */
+        public List<ParsedExpression> getOperands() {
+            return operands;
+        }
+
+        /**
+         * @return message of SpEL parser if expression is invalid, null otherwise
+         */
+        public String getSyntaxError() {
+            return syntaxError;
+        }
+
+        /**
+         * Checks path of expression against type of root: every property has to exist, only collections, arrays and maps
+         * can be indexed, called methods have to exist with the same amount of arguments.
+         * Nodes of other kinds (operators, literals etc.) are not checked, so path is considered valid from them on.
+         *
+         * @param typeVisitor receives type of every walked node
+         * @return type of expression value, empty if path doesn't match types
+         */
+        public Optional<ResolvableType> typeCheck(ResolvableType rootType, Consumer<Class<?>> typeVisitor) {
+            return typeCheck(rootType, RESOLVABLE_TYPES, type -> typeVisitor.accept(type.resolve(Object.class)));
+        }
+
+        /**
+         * The same check in other type model, e.g. in compiler one, see {@link PathTypes}.
+         */
+        public <T> Optional<T> typeCheck(T rootType, PathTypes<T> pathTypes, Consumer<T> typeVisitor) {
+            T type = rootType;
+            for (SpelNode node : path) {
+                Optional<T> nodeType;
+                if (node instanceof PropertyOrFieldReference) {
+                    nodeType = pathTypes.getPropertyType(type, ((PropertyOrFieldReference) node).getName());
+                } else if (node instanceof Indexer) {
+                    nodeType = pathTypes.getIndexedType(type);
+                } else if (node instanceof MethodReference) {
+                    nodeType = pathTypes.getReturnType(type, ((MethodReference) node).getName(), node.getChildCount());
+                } else {
+                    return Optional.of(pathTypes.getUncheckedType());
+                }
+                if (nodeType.isEmpty()) {
+                    return Optional.empty();
+                }
+                type = nodeType.get();
+                typeVisitor.accept(type);
+            }
+            return Optional.of(type);
+        }
+    }
+
+    /**
+     * Types of expression path nodes in some type model.
+     */
+    public interface PathTypes<T> {
+        /**
+         * @return type of property of owner (of its element type if owner is collection or array), empty if it's not found
+         */
+        Optional<T> getPropertyType(T ownerType, String propertyName);
+
+        /**
+         * @return type of element of array, list or map, empty if type can't be indexed
+         */
+        Optional<T> getIndexedType(T type);
+
+        Optional<T> getReturnType(T ownerType, String methodName, int argumentCount);
+
+        /**
+         * @return type of value of node which is not checked
+         */
+        T getUncheckedType();
+    }
+
+    /**
+     * Types of runtime type model, generics of properties are resolved against owner type.
+     */
+    private static class ResolvableTypes implements PathTypes<ResolvableType> {
+        @Override
+        public Optional<ResolvableType> getPropertyType(ResolvableType ownerType, String propertyName) {
+            return TypeProperties.resolveProperty(ownerType, propertyName);
+        }
+
+        @Override
+        public Optional<ResolvableType> getIndexedType(ResolvableType type) {
+            if (type.isArray()) {
+                return Optional.of(type.getComponentType());
+            } else if (List.class.isAssignableFrom(type.toClass())) {
+                return Optional.of(type.asCollection().getGeneric(0));
+            } else if (Map.class.isAssignableFrom(type.toClass())) {
+                return Optional.of(type.asMap().getGeneric(1));
+            }
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<ResolvableType> getReturnType(ResolvableType type, String methodName, int argumentCount) {
+            return Arrays.stream(type.resolve(Object.class).getMethods())
+                .filter(method -> method.getName().equals(methodName) && method.getParameterCount() == argumentCount)
+                .filter(method -> !Modifier.isStatic(method.getModifiers()) && !method.isBridge())
+                .findFirst()
+                .map(method -> ResolvableType.forMethodParameter(new MethodParameter(method, -1), type));
+        }
+
+        @Override
+        public ResolvableType getUncheckedType() {
+            return ResolvableType.NONE;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package dk.teamonline.utils;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+
+import java.beans.Introspector;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Properties of type by name: fields and bean getters, declared or inherited.
+ * Properties are read once per class and shared by all endpoints, so walking property path
+ * of expression is a chain of map lookups, see {@link SpelExpressions}.
+ *
+ * Generic types of properties are resolved against type path is walked from, e.g. for PatientDto extends BaseDto<Patient>
+ * property 'entity' declared as T is of type Patient; next property of collection or array property is looked up in its element type.
+ */
+public class TypeProperties {
+    private static final ClassValue<TypeProperties> TYPE_PROPERTIES = new ClassValue<>() {
+        @Override
+        protected TypeProperties computeValue(Class<?> type) {
+            return new TypeProperties(type);
+        }
+    };
+
+    private final Map<String, Property> properties = new HashMap<>();
+
+    private TypeProperties(Class<?> type) {
+        for (Method method : type.getMethods()) {
+            String propertyName = getGetterPropertyName(method);
+            if (propertyName != null) {
+                properties.computeIfAbsent(propertyName, Property::new).getter = method;
+            }
+        }
+        // subclass fields hide superclass ones
+        for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    Property property = properties.computeIfAbsent(field.getName(), Property::new);
+                    if (property.field == null) {
+                        property.field = field;
+                    }
+                }
+            }
+        }
+    }
+
+    public static TypeProperties of(Class<?> type) {
+        return TYPE_PROPERTIES.get(type);
+    }
+
+    /**
+     * @return type of property of owner type (of its element type if owner is collection or array), empty if it's not found
+     */
+    public static Optional<ResolvableType> resolveProperty(ResolvableType ownerType, String propertyName) {
+        ResolvableType type = getElementType(ownerType);
+        Property property = of(type.resolve(Object.class)).properties.get(propertyName);
+        return property == null ? Optional.empty() : Optional.of(property.getType(type));
+    }
+
+    /**
+     * @return element type of collection or array (of innermost one if nested), type itself otherwise
+     */
+    public static ResolvableType getElementType(ResolvableType type) {
+        if (type.isArray()) {
+            return getElementType(type.getComponentType());
+        }
+        if (Collection.class.isAssignableFrom(type.toClass())) {
+            return getElementType(type.asCollection().getGeneric(0));
+        }
+        return type;
+    }
+
+    private static String getGetterPropertyName(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || method.isBridge() || method.getParameterCount() > 0
+            || method.getDeclaringClass() == Object.class) {
+            return null;
+        }
+        String name = method.getName();
+        if (name.startsWith("get") && name.length() > 3 && method.getReturnType() != void.class) {
+            return Introspector.decapitalize(name.substring(3));
+        }
+        if (name.startsWith("is") && name.length() > 2 && method.getReturnType() == boolean.class) {
+            return Introspector.decapitalize(name.substring(2));
+        }
+        return null;
+    }
+
+    private static class Property {
+        private final String name;
+        private Method getter;
+        private Field field;
+
+        private Property(String name) {
+            this.name = name;
+        }
+
+        // getter wins the same way as in bean property access
+        private ResolvableType getType(ResolvableType ownerType) {
+            return getter != null
+                ? ResolvableType.forMethodParameter(new MethodParameter(getter, -1), ownerType)
+                : ResolvableType.forField(field, ownerType);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
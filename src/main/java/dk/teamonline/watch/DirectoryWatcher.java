@@ -0,0 +1,94 @@
+package dk.teamonline.watch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches directory trees for changed files with {@link WatchService}; directories created later are watched as well.
+ */
+public class DirectoryWatcher implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DirectoryWatcher.class);
+
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirs = new HashMap<>();
+
+    public DirectoryWatcher(Collection<Path> rootDirs) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        for (Path rootDir : rootDirs) {
+            if (Files.isDirectory(rootDir)) {
+                registerTree(rootDir);
+            } else {
+                LOGGER.warn("Directory {} doesn't exist and is not watched", rootDir);
+            }
+        }
+    }
+
+    /**
+     * Blocks until files are changed, then collects changes until no change comes during quiet period,
+     * so files written by 1 build are returned together.
+     *
+     * @return changed (created, modified or deleted) files
+     */
+    public Set<Path> awaitChanges(long quietPeriodMillis) throws InterruptedException {
+        Set<Path> changedFiles = new TreeSet<>();
+        WatchKey key = watchService.take();
+        while (key != null) {
+            Path dir = watchedDirs.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW || dir == null) {
+                    continue;
+                }
+                Path file = dir.resolve((Path) event.context());
+                if (event.kind() == ENTRY_CREATE && Files.isDirectory(file)) {
+                    registerQuietly(file);
+                    addFiles(file, changedFiles);
+                } else {
+                    changedFiles.add(file);
+                }
+            }
+            if (!key.reset()) {
+                watchedDirs.remove(key);
+            }
+            key = watchService.poll(quietPeriodMillis, TimeUnit.MILLISECONDS);
+        }
+        return changedFiles;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void registerTree(Path rootDir) throws IOException {
+        try (Stream<Path> dirs = Files.walk(rootDir)) {
+            for (Path dir : (Iterable<Path>) dirs.filter(Files::isDirectory)::iterator) {
+                watchedDirs.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), dir);
+            }
+        }
+    }
+
+    private void registerQuietly(Path dir) {
+        try {
+            registerTree(dir);
+        } catch (IOException e) {
+            LOGGER.warn("Directory {} can't be watched: {}", dir, e.toString());
+        }
+    }
+
+    // files of directory created at once (e.g. new package) don't produce their own events
+    private static void addFiles(Path dir, Set<Path> files) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.filter(Files::isRegularFile).forEach(files::add);
+        } catch (IOException e) {
+            LOGGER.warn("Directory {} can't be read: {}", dir, e.toString());
+        }
+    }
+}
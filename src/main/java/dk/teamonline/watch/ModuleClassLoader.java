@@ -0,0 +1,79 @@
+package dk.teamonline.watch;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Child-first loader of module classes from build output directories or module jars.
+ *
+ * Classes found in directories are always defined by this loader, even if module is on classpath of analyzer as well,
+ * so every new loader sees current class files and module classes are unloaded with loader;
+ * all other classes (JDK, Spring, UserTrack annotations) come from parent.
+ * Resources (class files as well) are child-first too, resources of module are not repeated from parent.
+ */
+public class ModuleClassLoader extends URLClassLoader {
+
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+
+    /**
+     * @param classesDirs classes directories or jars of module
+     */
+    public ModuleClassLoader(List<Path> classesDirs, ClassLoader parent) {
+        super(toUrls(classesDirs), parent);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> clazz = findLoadedClass(name);
+            if (clazz == null && findResource(name.replace('.', '/') + ".class") != null) {
+                clazz = findClass(name);
+            }
+            if (clazz == null) {
+                return super.loadClass(name, resolve);
+            }
+            if (resolve) {
+                resolveClass(clazz);
+            }
+            return clazz;
+        }
+    }
+
+    @Override
+    public URL getResource(String name) {
+        URL resource = findResource(name);
+        return resource != null ? resource : super.getResource(name);
+    }
+
+    @Override
+    public Enumeration<URL> getResources(String name) throws IOException {
+        List<URL> resources = Collections.list(findResources(name));
+        // URLs are compared as text, URL#equals may resolve host
+        Set<String> moduleResources = new HashSet<>();
+        resources.forEach(resource -> moduleResources.add(resource.toString()));
+        for (URL resource : Collections.list(getParent().getResources(name))) {
+            if (!moduleResources.contains(resource.toString())) {
+                resources.add(resource);
+            }
+        }
+        return Collections.enumeration(resources);
+    }
+
+    private static URL[] toUrls(List<Path> dirs) {
+        URL[] urls = new URL[dirs.size()];
+        for (int i = 0; i < dirs.size(); i++) {
+            try {
+                urls[i] = dirs.get(i).toUri().toURL();
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException("Incorrect classes directory or jar " + dirs.get(i), e);
+            }
+        }
+        return urls;
+    }
+}
@@ -0,0 +1,345 @@
+package dk.teamonline.watch;
+
+import dk.teamonline.UserTrackVerifier;
+import dk.teamonline.annotation.ExternalWebService;
+import dk.teamonline.domain.EndpointMethod;
+import dk.teamonline.domain.Finding;
+import dk.teamonline.domain.WebController;
+import dk.teamonline.enums.UserTrackError;
+import dk.teamonline.resolvers.BytecodeMethodParamNamesResolver;
+import dk.teamonline.resolvers.CompositeMethodParamNamesResolver;
+import dk.teamonline.resolvers.ControllerSourceParser;
+import dk.teamonline.resolvers.MethodParamNamesResolver;
+import dk.teamonline.resolvers.ThoughtworksMethodParamNamesResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Findings of module controllers kept between changes of module.
+ *
+ * On every change only affected controllers are verified again: changed controllers and controllers whose verification
+ * depended on changed classes (@UserTrackParameter types and types walked by expressions).
+ * They are loaded by fresh {@link ModuleClassLoader}, findings of other controllers are kept as they are;
+ * difference in findings is printed.
+ *
+ * Findings can be read by other threads while controllers are verified, e.g. by {@link dk.teamonline.server.QueryServer};
+ * they see findings of every controller either before or after its verification. Verifications (start and updates)
+ * hold lock of session, so they run one after another.
+ *
+ * Sources of packages are parsed once per session for names of parameters, only changed sources are parsed again.
+ * Types referenced by sources are resolved by loader of module which lives as long as session.
+ */
+public class WatchSession {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WatchSession.class);
+    private static final List<Class<? extends Annotation>> CONTROLLER_ANNOTATIONS =
+        List.of(Controller.class, RestController.class, ExternalWebService.class);
+
+    private final List<String> packagesToScan;
+    private final List<Path> classesDirs;
+    private final Map<String, Path> packageSourceDirs;
+    private final Map<String, ControllerFindings> controllers = new ConcurrentSkipListMap<>();
+    private final Map<String, ControllerSourceParser> sourceParsers = new HashMap<>();
+    private final Map<String, ThoughtworksMethodParamNamesResolver> sourceResolvers = new HashMap<>();
+    private ModuleClassLoader sourceTypesLoader;
+
+    /**
+     * @param packageSourceDirs source directory of every package to scan, used to resolve parameter names
+     *                          of classes compiled without -parameters and debug info
+     */
+    public WatchSession(List<String> packagesToScan, List<Path> classesDirs, Map<String, Path> packageSourceDirs) {
+        this.packagesToScan = List.copyOf(packagesToScan);
+        this.classesDirs = List.copyOf(classesDirs);
+        this.packageSourceDirs = Map.copyOf(packageSourceDirs);
+    }
+
+    public List<Path> getWatchedDirs() {
+        List<Path> dirs = new ArrayList<>(classesDirs);
+        dirs.addAll(packageSourceDirs.values());
+        return dirs;
+    }
+
+    /**
+     * Verifies all controllers of module and prints their findings.
+     */
+    public synchronized void start() {
+        long start = System.nanoTime();
+        Set<String> classNames = new TreeSet<>();
+        for (Path classesDir : classesDirs) {
+            if (Files.isDirectory(classesDir)) {
+                try (Stream<Path> files = Files.walk(classesDir)) {
+                    files.map(this::toClassName).filter(Objects::nonNull).forEach(classNames::add);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Classes directory " + classesDir + " can't be read", e);
+                }
+            }
+        }
+        Map<String, ControllerFindings> verified = verify(classNames);
+        controllers.putAll(verified);
+        verified.values().forEach(findings -> findings.getFindingTexts().forEach(finding -> LOGGER.info("{}", finding)));
+        LOGGER.info("Verified {} controllers in {} ms, {} findings", controllers.size(), elapsedMillis(start),
+            controllers.values().stream().mapToInt(findings -> findings.getFindingTexts().size()).sum());
+    }
+
+    /**
+     * Verifies controllers affected by changed files again and prints difference in findings.
+     *
+     * @param changedFiles changed class files of classes directories and source files of source directories
+     */
+    public synchronized void update(Set<Path> changedFiles) {
+        long start = System.nanoTime();
+        Set<String> changedClasses = getClassNames(changedFiles);
+        if (changedClasses.isEmpty()) {
+            return;
+        }
+        invalidateSources(changedClasses);
+        Set<String> affectedControllers = getAffectedControllers(changedClasses);
+        Map<String, ControllerFindings> verified = verify(affectedControllers);
+        List<String> diff = new ArrayList<>();
+        for (String className : affectedControllers) {
+            ControllerFindings previous = controllers.get(className);
+            ControllerFindings current = verified.get(className);
+            if (current != null) {
+                controllers.put(className, current);
+            } else {
+                controllers.remove(className);
+            }
+            Set<String> previousFindings = previous != null ? previous.getFindingTexts() : Collections.emptySet();
+            Set<String> currentFindings = current != null ? current.getFindingTexts() : Collections.emptySet();
+            previousFindings.stream().filter(finding -> !currentFindings.contains(finding)).forEach(finding -> diff.add("- " + finding));
+            currentFindings.stream().filter(finding -> !previousFindings.contains(finding)).forEach(finding -> diff.add("+ " + finding));
+        }
+        LOGGER.info("{} classes changed, {} controllers verified again in {} ms{}", changedClasses.size(), verified.size(),
+            elapsedMillis(start), diff.isEmpty() ? ", findings are the same" : ":\n" + String.join("\n", diff));
+    }
+
+    /**
+     * @return findings of all controllers as of their last verification
+     */
+    public SortedMap<String, ControllerFindings> getFindings() {
+        return new TreeMap<>(controllers);
+    }
+
+    /**
+     * Findings as of last verification of given controllers and of controllers whose verification depended on given classes;
+     * nothing is verified again, so findings are returned right away.
+     *
+     * @param classNames names of module classes, nested classes stand for their top level ones
+     */
+    public SortedMap<String, ControllerFindings> getFindings(Set<String> classNames) {
+        SortedMap<String, ControllerFindings> findings = new TreeMap<>();
+        for (String className : getAffectedControllers(classNames)) {
+            ControllerFindings controllerFindings = controllers.get(className);
+            if (controllerFindings != null) {
+                findings.put(className, controllerFindings);
+            }
+        }
+        return findings;
+    }
+
+    /**
+     * @return top level classes of class files and source files of module packages, other files are skipped
+     */
+    public Set<String> getClassNames(Collection<Path> files) {
+        return files.stream()
+            .map(this::toClassName)
+            .filter(Objects::nonNull)
+            .map(WatchSession::getTopLevelClassName)
+            .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    // given classes themselves and controllers depending on them
+    private Set<String> getAffectedControllers(Set<String> classNames) {
+        Set<String> topLevelClassNames = classNames.stream()
+            .map(WatchSession::getTopLevelClassName)
+            .collect(Collectors.toCollection(TreeSet::new));
+        Set<String> affectedControllers = new TreeSet<>(topLevelClassNames);
+        controllers.forEach((controllerName, findings) -> {
+            if (findings.getDependencies().stream().map(WatchSession::getTopLevelClassName).anyMatch(topLevelClassNames::contains)) {
+                affectedControllers.add(controllerName);
+            }
+        });
+        return affectedControllers;
+    }
+
+    // classes are loaded by new loader, so current class files are verified; findings keep no reference to classes
+    private Map<String, ControllerFindings> verify(Set<String> classNames) {
+        Map<String, ControllerFindings> verified = new TreeMap<>();
+        // bytecode names are read from class files of this loader, source names are looked up by class name
+        MethodParamNamesResolver bytecodeResolver = new BytecodeMethodParamNamesResolver();
+        try (ModuleClassLoader classLoader = new ModuleClassLoader(classesDirs, WatchSession.class.getClassLoader())) {
+            for (String className : classNames) {
+                Class<?> clazz = loadClass(className, classLoader);
+                if (clazz == null || CONTROLLER_ANNOTATIONS.stream().noneMatch(clazz::isAnnotationPresent)) {
+                    continue;
+                }
+                ThoughtworksMethodParamNamesResolver sourceResolver = sourceResolvers.computeIfAbsent(getPackageName(className),
+                    this::createSourceResolver);
+                verified.put(className, verifyController(clazz, new CompositeMethodParamNamesResolver(
+                    List.of(bytecodeResolver, sourceResolver::getParameterNamesByName))));
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Class loader of module can't be closed: {}", e.toString());
+        }
+        return verified;
+    }
+
+    private void invalidateSources(Set<String> changedClasses) {
+        for (String className : changedClasses) {
+            String packageName = getPackageName(className);
+            ControllerSourceParser sourceParser = sourceParsers.get(packageName);
+            if (sourceParser != null) {
+                sourceParser.invalidate(className);
+                sourceResolvers.get(packageName).invalidate(className);
+            }
+        }
+    }
+
+    private String getPackageName(String className) {
+        return packagesToScan.stream().filter(pkg -> className.startsWith(pkg + '.')).findFirst().orElseThrow();
+    }
+
+    private static ControllerFindings verifyController(Class<?> controllerClass, MethodParamNamesResolver namesResolver) {
+        List<Finding> findings = new ArrayList<>();
+        String failure = null;
+        Set<String> dependencies = new HashSet<>();
+        try {
+            WebController controller = new WebController(controllerClass);
+            controller.setupEndpoints(namesResolver);
+            controller.getMethodsWithoutUserTracking().forEach(method -> findings.add(new Finding(Finding.Severity.ERROR,
+                UserTrackError.MISSED_USER_TRACKING, method.toString(), "method is supposed to have @UserTracking")));
+            for (EndpointMethod endpoint : controller.getEndpoints()) {
+                UserTrackVerifier verifier = new UserTrackVerifier(endpoint);
+                verifier.verify();
+                findings.addAll(verifier.getErrorCollector().getFindings());
+                verifier.getReachedTypes().forEach(type -> addDependency(type, dependencies));
+                // expression can start to match parameter after its type is changed
+                endpoint.getParametersToRealName().values().forEach(parameter -> addDependency(parameter.getType(), dependencies));
+            }
+        } catch (RuntimeException | LinkageError e) {
+            failure = controllerClass.getName() + " can't be verified: " + e;
+        }
+        addDependency(controllerClass.getSuperclass(), dependencies);
+        return new ControllerFindings(findings, failure, dependencies);
+    }
+
+    // only module classes can change, classes of parent loader are the same during whole session
+    private static void addDependency(Class<?> type, Set<String> dependencies) {
+        while (type != null && type.isArray()) {
+            type = type.getComponentType();
+        }
+        for (; type != null && type.getClassLoader() instanceof ModuleClassLoader; type = type.getSuperclass()) {
+            dependencies.add(type.getName());
+        }
+    }
+
+    private ThoughtworksMethodParamNamesResolver createSourceResolver(String packageName) {
+        // module classes are not on classpath, so types of sources are resolved by module loader
+        if (sourceTypesLoader == null) {
+            sourceTypesLoader = new ModuleClassLoader(classesDirs, WatchSession.class.getClassLoader());
+        }
+        // sources are parsed on demand on verifying thread, only files of affected controllers are parsed
+        ControllerSourceParser sourceParser = new ControllerSourceParser(packageName, packageSourceDirs.get(packageName),
+            Runnable::run, sourceTypesLoader);
+        sourceParsers.put(packageName, sourceParser);
+        return new ThoughtworksMethodParamNamesResolver(sourceParser);
+    }
+
+    private static Class<?> loadClass(String className, ClassLoader classLoader) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            // deleted or broken class, its controller has no findings anymore
+            return null;
+        }
+    }
+
+    /**
+     * @return name of class of class file or source file of module packages, null for other files
+     */
+    private String toClassName(Path file) {
+        String className = null;
+        for (Path classesDir : classesDirs) {
+            if (file.startsWith(classesDir) && file.toString().endsWith(".class")) {
+                className = toClassName(classesDir.relativize(file), ".class");
+            }
+        }
+        for (Map.Entry<String, Path> packageSourceDir : packageSourceDirs.entrySet()) {
+            Path packageDir = packageSourceDir.getValue();
+            if (file.startsWith(packageDir) && file.toString().endsWith(".java")) {
+                className = packageSourceDir.getKey() + '.' + toClassName(packageDir.relativize(file), ".java");
+            }
+        }
+        String name = className;
+        return name != null && packagesToScan.stream().anyMatch(pkg -> name.startsWith(pkg + '.')) ? name : null;
+    }
+
+    private static String toClassName(Path relativeFile, String extension) {
+        String path = relativeFile.toString().replace(relativeFile.getFileSystem().getSeparator(), ".");
+        return path.substring(0, path.length() - extension.length());
+    }
+
+    private static String getTopLevelClassName(String className) {
+        int nestedIndex = className.indexOf('$');
+        return nestedIndex < 0 ? className : className.substring(0, nestedIndex);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Findings of controller and names of classes its verification depended on.
+     */
+    public static class ControllerFindings {
+        private final List<Finding> findings;
+        private final String failure;
+        private final Set<String> dependencies;
+
+        private ControllerFindings(List<Finding> findings, String failure, Set<String> dependencies) {
+            this.findings = List.copyOf(findings);
+            this.failure = failure;
+            this.dependencies = dependencies;
+        }
+
+        /**
+         * @return findings of controller, endpoint of MISSED_USER_TRACKING is method as {@link java.lang.reflect.Method#toString()}
+         */
+        public List<Finding> getFindings() {
+            return findings;
+        }
+
+        /**
+         * @return reason why controller can't be verified, null if it is verified
+         */
+        public String getFailure() {
+            return failure;
+        }
+
+        private SortedSet<String> getFindingTexts() {
+            SortedSet<String> texts = findings.stream()
+                .map(finding -> finding.getSeverity() + " " + finding.getCode() + " " + finding.getEndpoint() + ": " + finding.getMessage())
+                .collect(Collectors.toCollection(TreeSet::new));
+            if (failure != null) {
+                texts.add("FATAL " + failure);
+            }
+            return texts;
+        }
+
+        private Set<String> getDependencies() {
+            return dependencies;
+        }
+    }
+}
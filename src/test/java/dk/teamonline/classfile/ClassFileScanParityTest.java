@@ -0,0 +1,58 @@
+package dk.teamonline.classfile;
+
+import dk.teamonline.cache.AnalysisCache;
+import dk.teamonline.domain.ModuleSummary;
+import dk.teamonline.fixture.WardController;
+import dk.teamonline.pipeline.AnalysisPipeline;
+import dk.teamonline.pipeline.ClasspathScan;
+import dk.teamonline.pipeline.ControllerScan;
+import dk.teamonline.pipeline.PipelineSettings;
+import dk.teamonline.report.JsonLinesReportSink;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Controllers read from class files are reported exactly as loaded ones are.
+ */
+public class ClassFileScanParityTest {
+    private static final String PACKAGE = WardController.class.getPackageName();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void classFileScanReportsAsReflection() throws IOException {
+        ClassLoader classLoader = ClassFileScanParityTest.class.getClassLoader();
+
+        List<String> reflectionReport = report(new ClasspathScan(List.of(PACKAGE), classLoader), "reflection");
+        List<String> classFileReport = report(new ClassFileScan(List.of(PACKAGE), classLoader), "classfile");
+
+        // package, 2 controllers and 11 endpoints besides findings
+        assertEquals(14, reflectionReport.stream().filter(line -> !line.contains("\"type\":\"finding\"")).count());
+        // reflection lists methods in no particular order, every line names its controller and method
+        assertEquals(sorted(reflectionReport), sorted(classFileReport));
+    }
+
+    private List<String> report(ControllerScan scan, String name) throws IOException {
+        Path file = folder.getRoot().toPath().resolve(name + ".jsonl");
+        JsonLinesReportSink reportSink = new JsonLinesReportSink("fixture", file);
+        new AnalysisPipeline(packageToScan -> scan.scan(packageToScan, null), new ModuleSummary("fixture"),
+            AnalysisCache.disabled(), reportSink, new PipelineSettings(false, 2, false, 16))
+            .run(List.of(PACKAGE));
+        reportSink.close();
+        return Files.readAllLines(file);
+    }
+
+    private static List<String> sorted(List<String> lines) {
+        return lines.stream().sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,104 @@
+package dk.teamonline.classfile;
+
+import dk.teamonline.fixture.WardController;
+import javassist.bytecode.ClassFile;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class ControllerIndexTest {
+    private static final String FIXTURE_PATH = "dk/teamonline/fixture";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path root;
+
+    // root of fixture class files only, index is written next to it
+    @Before
+    public void copyFixture() throws IOException, URISyntaxException {
+        Path classes = Paths.get(WardController.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        root = folder.newFolder("classes").toPath();
+        Path fixtureDir = Files.createDirectories(root.resolve(FIXTURE_PATH));
+        try (Stream<Path> classFiles = Files.list(classes.resolve(FIXTURE_PATH))) {
+            for (Path classFile : classFiles.collect(Collectors.toList())) {
+                Files.copy(classFile, fixtureDir.resolve(classFile.getFileName().toString()));
+            }
+        }
+    }
+
+    @Test
+    public void indexHasDeclarationsOfClassFiles() throws IOException {
+        assertEquals(2, ControllerIndex.build(root));
+
+        List<ControllerDeclaration> indexed = ControllerIndex.load(root).orElseThrow(AssertionError::new);
+
+        assertEquals(describe(readDeclarations()), describe(indexed));
+    }
+
+    @Test
+    public void changedClassFileMakesIndexStale() throws IOException {
+        ControllerIndex.build(root);
+        Path classFile = root.resolve(FIXTURE_PATH).resolve("Ward.class");
+        Files.setLastModifiedTime(classFile, FileTime.fromMillis(Files.getLastModifiedTime(classFile).toMillis() + 1000));
+
+        assertFalse(ControllerIndex.load(root).isPresent());
+    }
+
+    @Test
+    public void rootWithoutIndexHasNoIndex() {
+        assertFalse(ControllerIndex.load(root).isPresent());
+    }
+
+    @Test
+    public void indexIsReadableByOthers() throws IOException {
+        assumeTrue(root.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        ControllerIndex.build(root);
+
+        assertEquals("rw-r--r--", PosixFilePermissions.toString(Files.getPosixFilePermissions(ControllerIndex.getIndexFile(root))));
+    }
+
+    private List<ControllerDeclaration> readDeclarations() throws IOException {
+        List<ClassFile> classFiles = new ArrayList<>();
+        ClassFiles.forEachClassFile(root, "", (location, name, classFile) -> classFiles.add(ClassFiles.read(classFile)));
+        return ClassFileScan.findControllers(classFiles).stream()
+            .map(ControllerDeclaration::read)
+            .collect(Collectors.toList());
+    }
+
+    private static List<String> describe(List<ControllerDeclaration> controllers) {
+        List<String> lines = new ArrayList<>();
+        for (ControllerDeclaration controller : controllers) {
+            lines.add(controller.getName() + ' ' + controller.getClassRelativeUrl() + ' ' + controller.isExternalWebService()
+                + ' ' + controller.getMethodsWithoutUserTracking());
+            for (ControllerDeclaration.Endpoint endpoint : controller.getEndpoints()) {
+                lines.add(endpoint.getMethodName() + ' ' + endpoint.getReturnTypeName() + ' ' + endpoint.getPath() + ' '
+                    + endpoint.getHttpMethods() + ' ' + endpoint.getAction() + ' ' + endpoint.getParameterNames());
+                for (ControllerDeclaration.Parameter parameter : endpoint.getParameters()) {
+                    lines.add(parameter.getTypeName() + ' ' + parameter.getGenericTypeName() + ' ' + parameter.getReflectedName()
+                        + ' ' + parameter.getAnnotationNames());
+                }
+                for (ControllerDeclaration.TrackParameter parameter : endpoint.getUserTrackParameters()) {
+                    lines.add(parameter.getExpression() + ' ' + parameter.getTypeName());
+                }
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,11 @@
+package dk.teamonline.fixture;
+
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "WARD")
+public class Ward {
+    private Long id;
+    private Ward parent;
+}
@@ -0,0 +1,91 @@
+package dk.teamonline.fixture;
+
+import dk.eg.sensum.userTrack.domain.UserTrackAction;
+import dk.eg.sensum.userTrack.domain.UserTrackParameter;
+import dk.eg.sensum.userTrack.domain.UserTracking;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Endpoints of tests: every endpoint but {@link #show(Long)} and {@link #archive(WardDto)} breaks exactly 1 built-in rule.
+ */
+@Controller
+@RequestMapping("/ward")
+public class WardController {
+
+    @GetMapping("/{id}")
+    @UserTracking(action = UserTrackAction.SHOW, parameters = @UserTrackParameter(expression = "id", type = Ward.class))
+    public String show(@PathVariable Long id) {
+        return null;
+    }
+
+    // ActionRule
+    @PostMapping("/find")
+    @UserTracking(action = UserTrackAction.SHOW, parameters = @UserTrackParameter(expression = "dto.wardId", type = Ward.class))
+    public String find(@RequestBody WardDto dto) {
+        return null;
+    }
+
+    // IgnoredActionRule
+    @GetMapping("/ignored")
+    @UserTracking(action = UserTrackAction.IGNORE, parameters = @UserTrackParameter(expression = "id", type = Ward.class))
+    public String ignored(@RequestParam Long id) {
+        return null;
+    }
+
+    // RedundantParametersRule
+    @PostMapping("/save")
+    @UserTracking(action = UserTrackAction.SAVE, parameters = {
+        @UserTrackParameter(expression = "dto.wardId", type = Ward.class),
+        @UserTrackParameter(expression = "dto.ward.id", type = Ward.class),
+        @UserTrackParameter(expression = "dto.ward.parent.id", type = Ward.class)})
+    public String save(@RequestBody WardDto dto) {
+        return null;
+    }
+
+    // MissedParametersRule
+    @DeleteMapping("/{id}")
+    @UserTracking(action = UserTrackAction.DELETE)
+    public String delete(@PathVariable Long id) {
+        return null;
+    }
+
+    // DuplicatedParametersRule
+    @GetMapping("/list")
+    @UserTracking(action = UserTrackAction.SEARCH, parameters = {
+        @UserTrackParameter(expression = "ids", type = Ward.class),
+        @UserTrackParameter(expression = "ids", type = Ward.class)})
+    public String list(@RequestParam List<Long> ids) {
+        return null;
+    }
+
+    // ExpressionRule: parameter doesn't exist
+    @GetMapping("/parent")
+    @UserTracking(action = UserTrackAction.SHOW, parameters = @UserTrackParameter(expression = "wardId", type = Ward.class))
+    public String parent(@RequestParam Long id) {
+        return null;
+    }
+
+    // ExpressionRule: type isn't entity
+    @GetMapping("/name")
+    @UserTracking(action = UserTrackAction.SHOW, parameters = @UserTrackParameter(expression = "dto.wardId", type = Long.class))
+    public String name(@ModelAttribute WardDto dto) {
+        return null;
+    }
+
+    // DuplicatedParametersRule: not duplicated, entities only have the same simple name
+    @PostMapping("/archive")
+    @UserTracking(action = UserTrackAction.SAVE, parameters = {
+        @UserTrackParameter(expression = "dto.wardId", type = Ward.class),
+        @UserTrackParameter(expression = "dto.wardId", type = dk.teamonline.fixture.archive.Ward.class)})
+    public String archive(@RequestBody WardDto dto) {
+        return null;
+    }
+
+    @PutMapping("/untracked")
+    public String untracked() {
+        return null;
+    }
+}
@@ -0,0 +1,9 @@
+package dk.teamonline.fixture;
+
+import java.util.List;
+
+public class WardDto {
+    private Long wardId;
+    private Ward ward;
+    private List<Ward> wards;
+}
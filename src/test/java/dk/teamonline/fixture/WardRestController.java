@@ -0,0 +1,21 @@
+package dk.teamonline.fixture;
+
+import dk.eg.sensum.userTrack.domain.UserTrackAction;
+import dk.eg.sensum.userTrack.domain.UserTrackParameter;
+import dk.eg.sensum.userTrack.domain.UserTracking;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/ward")
+public class WardRestController {
+
+    @RequestMapping(value = "/{id}", method = RequestMethod.PUT)
+    @UserTracking(action = UserTrackAction.EDIT, parameters = @UserTrackParameter(expression = "dto.ward.parent.id", type = Ward.class))
+    public void edit(@PathVariable Long id, @RequestBody WardDto dto) {
+    }
+
+    @GetMapping("/children")
+    @UserTracking(action = UserTrackAction.SEARCH, parameters = @UserTrackParameter(expression = "dto.wards.parent", type = Ward.class))
+    public void children(@ModelAttribute WardDto dto) {
+    }
+}
@@ -0,0 +1,13 @@
+package dk.teamonline.fixture.archive;
+
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+/**
+ * Entity of the same simple name as {@link dk.teamonline.fixture.Ward}.
+ */
+@Entity
+@Table(name = "WARD_ARCHIVE")
+public class Ward {
+    private Long id;
+}
@@ -0,0 +1,85 @@
+package dk.teamonline.rules;
+
+import dk.teamonline.UserTrackVerifier;
+import dk.teamonline.domain.EndpointMethod;
+import dk.teamonline.domain.Finding;
+import dk.teamonline.enums.UserTrackError;
+import dk.teamonline.enums.UserTrackWarning;
+import dk.teamonline.fixture.WardController;
+import dk.teamonline.resolvers.BytecodeMethodParamNamesResolver;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Every built-in rule on the endpoint of {@link WardController} which breaks it.
+ */
+public class UserTrackRulesTest {
+    private static final BytecodeMethodParamNamesResolver NAMES_RESOLVER = new BytecodeMethodParamNamesResolver();
+
+    @Test
+    public void correctEndpointHasNoFindings() {
+        assertEquals(List.of(), verify("show"));
+    }
+
+    @Test
+    public void actionRule() {
+        assertEquals(List.of(UserTrackWarning.INCORRECT_ACTION), verify("find"));
+    }
+
+    @Test
+    public void ignoredActionRule() {
+        assertEquals(List.of(UserTrackError.REDUNDANT_PARAMETERS), verify("ignored"));
+    }
+
+    @Test
+    public void redundantParametersRule() {
+        assertEquals(List.of(UserTrackWarning.REDUNDANT_PARAMETER), verify("save"));
+    }
+
+    @Test
+    public void missedParametersRule() {
+        assertEquals(List.of(UserTrackError.MISSED_PARAMETERS), verify("delete"));
+    }
+
+    @Test
+    public void duplicatedParametersRule() {
+        assertEquals(List.of(UserTrackError.DUPLICATED_PARAMETER), verify("list"));
+    }
+
+    @Test
+    public void duplicatedParametersRuleComparesFullTypeNames() {
+        assertEquals(List.of(), verify("archive"));
+    }
+
+    @Test
+    public void expressionRuleOfUnknownParameter() {
+        assertEquals(List.of(UserTrackError.INCORRECT_EXPRESSION), verify("parent"));
+    }
+
+    @Test
+    public void expressionRuleOfNotEntityType() {
+        assertEquals(List.of(UserTrackError.INCORRECT_TYPE), verify("name"));
+    }
+
+    private static List<Enum<?>> verify(String methodName) {
+        Method method = Arrays.stream(WardController.class.getDeclaredMethods())
+            .filter(declaredMethod -> declaredMethod.getName().equals(methodName))
+            .findFirst()
+            .orElseThrow();
+        UserTrackVerifier verifier = new UserTrackVerifier(new EndpointMethod(method, "", NAMES_RESOLVER));
+        verifier.verify();
+        return codes(verifier);
+    }
+
+    private static List<Enum<?>> codes(UserTrackVerifier verifier) {
+        return verifier.getErrorCollector().getFindings().stream()
+            .map(Finding::getCode)
+            .collect(Collectors.toList());
+    }
+}